@@ -0,0 +1,132 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discogapic;
+
+import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.MixedPathTestDataLocator;
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.DiscoApiModel;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.discovery.Document;
+import com.google.api.codegen.discovery.DocumentParser;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.collect.ImmutableList;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks generating the simplecompute Discovery test API, end-to-end and stage by stage:
+ * parsing the Discovery document, creating the {@link GapicProductConfig}, and transforming and
+ * rendering the client. Discogapic only supports Java.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiscoGapicGenerationBenchmark {
+  private static final String DISCOVERY_DOC = "simplecompute.v1.json";
+  private static final String GAPIC_YAML = "simplecompute_gapic.yaml";
+  private static final String PACKAGE_YAML = "simplecompute_pkg2.yaml";
+  private static final TargetLanguage LANGUAGE = TargetLanguage.JAVA;
+
+  private String discoveryDocPath;
+  private String gapicYamlPath;
+  private String packageYamlPath;
+  private String dependenciesYamlPath;
+  private ConfigProto gapicConfig;
+
+  // The output of each stage, used as the input of the next.
+  private DiscoApiModel model;
+  private List<CodeGenerator<?>> generators;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    TestDataLocator testDataLocator = MixedPathTestDataLocator.create(getClass());
+    testDataLocator.addTestDataSource(getClass(), "testdata");
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    discoveryDocPath = testDataLocator.findTestData(DISCOVERY_DOC).getPath();
+    gapicYamlPath = testDataLocator.findTestData(GAPIC_YAML).getPath();
+    packageYamlPath = testDataLocator.findTestData(PACKAGE_YAML).getPath();
+    dependenciesYamlPath = testDataLocator.findTestData("frozen_dependencies.yaml").getPath();
+    gapicConfig =
+        CodegenTestUtil.readConfig(
+            new SimpleDiagCollector(), testDataLocator, new String[] {GAPIC_YAML});
+
+    model = parseDocument();
+    generators = createGenerators();
+  }
+
+  @Benchmark
+  public void endToEnd(Blackhole blackhole) throws IOException {
+    for (CodeGenerator<?> generator : createGenerators()) {
+      blackhole.consume(generator.generate());
+    }
+  }
+
+  @Benchmark
+  public DiscoApiModel documentParse() throws IOException {
+    return parseDocument();
+  }
+
+  @Benchmark
+  public GapicProductConfig productConfigCreate() {
+    return GapicProductConfig.create(model, gapicConfig, LANGUAGE);
+  }
+
+  @Benchmark
+  public void transformAndRender(Blackhole blackhole) throws IOException {
+    for (CodeGenerator<?> generator : generators) {
+      blackhole.consume(generator.generate());
+    }
+  }
+
+  private DiscoApiModel parseDocument() throws IOException {
+    String packageName =
+        gapicConfig.getLanguageSettingsMap().get(LANGUAGE.name().toLowerCase()).getPackageName();
+    Document document = DocumentParser.parse(new FileReader(discoveryDocPath));
+    return new DiscoApiModel(document, packageName);
+  }
+
+  private List<CodeGenerator<?>> createGenerators() throws IOException {
+    return DiscoGapicGeneratorApp.getGenerators(
+        discoveryDocPath,
+        ImmutableList.of(gapicYamlPath),
+        packageYamlPath,
+        dependenciesYamlPath,
+        LANGUAGE.name().toLowerCase(),
+        ImmutableList.of(),
+        ArtifactType.LEGACY_DISCOGAPIC_AND_PACKAGE);
+  }
+}
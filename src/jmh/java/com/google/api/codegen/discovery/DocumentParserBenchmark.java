@@ -0,0 +1,97 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.MixedPathTestDataLocator;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks parsing a Discovery document with the streaming {@link DocumentParser}, against
+ * reading it into a Jackson tree and wrapping that in {@link DiscoveryNode}s for {@link
+ * Document#from}.
+ *
+ * <p>The document is the simplecompute test API, scaled up by {@link #scale} copies of each of its
+ * schemas and resources, to approach the size of real documents such as compute.v1's. The gc
+ * profiler (enabled in the build) reports the allocation rate of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentParserBenchmark {
+  private static final String DISCOVERY_DOC = "simplecompute.v1.json";
+
+  @Param({"1", "10", "100"})
+  public int scale;
+
+  private String json;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    TestDataLocator testDataLocator = MixedPathTestDataLocator.create(CodegenTestUtil.class);
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "discogapic/testdata");
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode root =
+        (ObjectNode) mapper.readTree(testDataLocator.findTestData(DISCOVERY_DOC).openStream());
+    scaleUp((ObjectNode) root.get("schemas"));
+    scaleUp((ObjectNode) root.get("resources"));
+    json = mapper.writeValueAsString(root);
+  }
+
+  @Benchmark
+  public Document streaming() throws IOException {
+    return DocumentParser.parse(new StringReader(json));
+  }
+
+  @Benchmark
+  public Document treeModel() throws IOException {
+    JsonNode root = new ObjectMapper().readTree(new StringReader(json));
+    return Document.from(new DiscoveryNode(root));
+  }
+
+  /** Adds scale - 1 copies of each member of node, with the copy number appended to its name. */
+  private void scaleUp(ObjectNode node) {
+    ObjectNode original = node.deepCopy();
+    for (int copy = 1; copy < scale; ++copy) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = original.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> member = it.next();
+        node.set(member.getKey() + copy, member.getValue().deepCopy());
+      }
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.MixedPathTestDataLocator;
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.ApiDefaultsConfig;
+import com.google.api.codegen.config.DependenciesConfig;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.PackageMetadataConfig;
+import com.google.api.codegen.config.PackagingConfig;
+import com.google.api.codegen.config.ProtoApiModel;
+import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.model.stages.Merged;
+import com.google.api.tools.framework.model.testing.TestConfig;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.api.tools.framework.setup.StandardSetup;
+import com.google.api.tools.framework.tools.ToolOptions;
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks generating the library test API for every {@link TargetLanguage}, end-to-end through
+ * {@link GapicGeneratorApp} and stage by stage: loading the model up to the {@link Merged} stage,
+ * creating the {@link GapicProductConfig}, transforming the model to view models, and rendering the
+ * view models with the snippets.
+ *
+ * <p>Each stage is measured on the output of the previous stages, which is computed once per trial.
+ * The protos are compiled with the protoc found in the PROTOC_COMPILER environment variable, or on
+ * the PATH, as for the baseline tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GapicGenerationBenchmark {
+  private static final ImmutableList<String> PROTO_FILES =
+      ImmutableList.of("library.proto", "another_service.proto");
+  private static final String SERVICE_YAML = "library.yaml";
+  private static final String GAPIC_YAML = "library_gapic.yaml";
+  private static final String PACKAGE_YAML = "library_benchmark_pkg2.yaml";
+  private static final String PROTO_PACKAGE = "google.example.library.v1";
+
+  @Param public TargetLanguage language;
+
+  private File tempDir;
+  private TestConfig testConfig;
+  private TestDataLocator testDataLocator;
+  private ConfigProto gapicConfig;
+  private String packageConfigPath;
+  private PackageMetadataConfig packageConfig;
+
+  // The output of each stage, used as the input of the next.
+  private Model model;
+  private GapicProductConfig productConfig;
+  private List<GapicGenerator> generators;
+  private List<List<ViewModel>> viewModels;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    tempDir = Files.createTempDirectory("gapic-benchmark").toFile();
+    testDataLocator = MixedPathTestDataLocator.create(CodegenTestUtil.class);
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    testConfig = new GapicTestConfig(testDataLocator, tempDir.getPath(), PROTO_FILES);
+
+    model = loadModel();
+    gapicConfig =
+        CodegenTestUtil.readConfig(
+            new SimpleDiagCollector(), testDataLocator, new String[] {GAPIC_YAML});
+    packageConfigPath = getClass().getResource(PACKAGE_YAML).getPath();
+    packageConfig =
+        PackageMetadataConfig.createFromPackaging(
+            ApiDefaultsConfig.load(),
+            DependenciesConfig.load(),
+            PackagingConfig.load(packageConfigPath));
+    productConfig = createProductConfig();
+
+    generators = new ArrayList<>();
+    ArtifactFlags artifactFlags =
+        new ArtifactFlags(ImmutableList.of(), ArtifactType.LEGACY_GAPIC_AND_PACKAGE, false);
+    for (CodeGenerator<?> generator :
+        GapicGeneratorFactory.create(
+            language, model, productConfig, packageConfig, artifactFlags)) {
+      if (generator instanceof GapicGenerator) {
+        generators.add((GapicGenerator) generator);
+      }
+    }
+    viewModels = transform();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(tempDir.toPath())) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  public int endToEnd() throws Exception {
+    ToolOptions options = ToolOptions.create();
+    options.set(ToolOptions.DESCRIPTOR_SET, testConfig.getDescriptorFile().toString());
+    options.set(ToolOptions.CONFIG_FILES, ImmutableList.of(findFile(SERVICE_YAML)));
+    options.set(GapicGeneratorApp.GENERATOR_CONFIG_FILES, ImmutableList.of(findFile(GAPIC_YAML)));
+    options.set(GapicGeneratorApp.PACKAGE_CONFIG2_FILE, packageConfigPath);
+    options.set(GapicGeneratorApp.LANGUAGE, language.name().toLowerCase());
+    options.set(GapicGeneratorApp.OUTPUT_FILE, new File(tempDir, "output").getPath());
+    GapicGeneratorApp app =
+        new GapicGeneratorApp(
+            options,
+            ArtifactType.LEGACY_GAPIC_AND_PACKAGE,
+            new FileGapicWriter(options.get(GapicGeneratorApp.OUTPUT_FILE)));
+    int exitCode = app.run();
+    if (exitCode != 0) {
+      throw new IllegalStateException("Generation failed: " + app.getDiagCollector().getDiags());
+    }
+    return exitCode;
+  }
+
+  @Benchmark
+  public Model modelLoad() {
+    return loadModel();
+  }
+
+  @Benchmark
+  public GapicProductConfig productConfigCreate() {
+    return createProductConfig();
+  }
+
+  @Benchmark
+  public List<List<ViewModel>> transformModelToViews() {
+    return transform();
+  }
+
+  @Benchmark
+  public void renderSnippets(Blackhole blackhole) {
+    for (int i = 0; i < generators.size(); ++i) {
+      for (ViewModel viewModel : viewModels.get(i)) {
+        blackhole.consume(generators.get(i).getSnippetSetRunner().generate(viewModel));
+      }
+    }
+  }
+
+  private Model loadModel() {
+    Model model = testConfig.createModel(ImmutableList.of(SERVICE_YAML));
+    StandardSetup.registerStandardProcessors(model);
+    StandardSetup.registerStandardConfigAspects(model);
+    model.establishStage(Merged.KEY);
+    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+      throw new IllegalStateException(
+          "Failed to load model: " + model.getDiagReporter().getDiagCollector().getDiags());
+    }
+    return model;
+  }
+
+  private GapicProductConfig createProductConfig() {
+    GapicProductConfig productConfig =
+        GapicProductConfig.create(model, gapicConfig, null, PROTO_PACKAGE, null, language);
+    if (productConfig == null) {
+      throw new IllegalStateException(
+          "Failed to create product config: "
+              + model.getDiagReporter().getDiagCollector().getDiags());
+    }
+    return productConfig;
+  }
+
+  private List<List<ViewModel>> transform() {
+    ProtoApiModel apiModel = new ProtoApiModel(model);
+    List<List<ViewModel>> viewModels = new ArrayList<>(generators.size());
+    for (GapicGenerator generator : generators) {
+      viewModels.add(generator.getModelToViewTransformer().transform(apiModel, productConfig));
+    }
+    return viewModels;
+  }
+
+  private String findFile(String name) {
+    return testDataLocator.findTestData(name).getPath();
+  }
+}
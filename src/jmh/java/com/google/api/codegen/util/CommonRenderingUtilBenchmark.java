@@ -0,0 +1,123 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.base.Splitter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks splitting and wrapping doc comments with {@link CommonRenderingUtil#getDocLines},
+ * comparing them with the previous implementations, which are kept here as the "legacy" baselines:
+ * normalizing line breaks with two replace passes before splitting, splitting on a regex before
+ * wrapping, and wrapping by taking the trimmed substring of the remainder after every break.
+ *
+ * <p>The input is a comment of the given number of paragraphs, each a single line of a few hundred
+ * characters, like the long descriptions of Discovery documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonRenderingUtilBenchmark {
+  private static final String PARAGRAPH =
+      "The resource name of the book to be updated, for example `shelves/shelf1/books/book2`. "
+          + "If the book does not exist, it is created (unless `allow_missing` is false), and the "
+          + "update mask [google.protobuf.FieldMask][] restricts the fields that are written. Any "
+          + "field not listed in the mask keeps its current value, and unknown paths are rejected.";
+
+  private static final int MAX_WIDTH = 80;
+
+  @Param({"4", "32"})
+  public int paragraphs;
+
+  private String comment;
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < paragraphs; i++) {
+      builder.append(PARAGRAPH).append(i % 2 == 0 ? "\r\n\r\n" : "\n\n");
+    }
+    comment = builder.toString();
+  }
+
+  @Benchmark
+  public List<String> getDocLines() {
+    return CommonRenderingUtil.getDocLines(comment);
+  }
+
+  @Benchmark
+  public List<String> getDocLinesLegacy() {
+    String text = comment.replace("\r\n", "\n").replace("\r", "\n");
+    return Splitter.on('\n').splitToList(text);
+  }
+
+  @Benchmark
+  public List<String> getDocLinesWithMaxWidth() {
+    return CommonRenderingUtil.getDocLines(comment, MAX_WIDTH);
+  }
+
+  @Benchmark
+  public List<String> getDocLinesWithMaxWidthLegacy() {
+    String text = comment.replace("\r\n", "\n").replace("\r", "\n");
+    int maxWidth = MAX_WIDTH - 1;
+    List<String> lines = new ArrayList<>();
+    for (String line : text.trim().split("\n")) {
+      line = line.trim();
+      while (line.length() > maxWidth) {
+        int split = legacyLineWrapIndex(line, maxWidth);
+        lines.add(line.substring(0, split).trim());
+        line = line.substring(split).trim();
+      }
+      if (!line.isEmpty()) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private static int legacyLineWrapIndex(String line, int maxWidth) {
+    for (int i = maxWidth; i > 0; i--) {
+      if (isLineWrapChar(line.charAt(i))) {
+        return i;
+      }
+    }
+    for (int i = maxWidth + 1; i < line.length(); i++) {
+      if (isLineWrapChar(line.charAt(i))) {
+        return i;
+      }
+    }
+    return line.length();
+  }
+
+  private static boolean isLineWrapChar(char c) {
+    return Character.isWhitespace(c) || "([".indexOf(c) >= 0;
+  }
+}
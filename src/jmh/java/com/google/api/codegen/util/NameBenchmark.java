@@ -0,0 +1,170 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.api.codegen.util.CommonAcronyms.NamePieceCasingType;
+import com.google.api.codegen.util.CommonAcronyms.SubNamePiece;
+import com.google.common.base.CaseFormat;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks parsing identifiers into {@link Name}s, comparing {@link Name#anyLower} and {@link
+ * CommonAcronyms#splitByUpperAcronyms} with the previous implementations, which are kept here as
+ * the "legacy" baselines: trying lower-underscore and catching the exception before falling back to
+ * lower-camel, and finding acronyms with one indexOf scan per acronym followed by a sort.
+ *
+ * <p>The inputs are the field names of the library test API, in both their proto (lower-underscore)
+ * and JSON (lower-camel) forms, and message names containing acronyms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameBenchmark {
+  private static final ImmutableList<String> FIELD_NAMES =
+      ImmutableList.of(
+          "alt_book_name",
+          "any_value",
+          "book_names",
+          "field_mask_value",
+          "index_name",
+          "internal_theme",
+          "list_value_value",
+          "next_page_token",
+          "optional_repeated_resource_name_oneof",
+          "optional_singular_fixed32",
+          "other_shelf_name",
+          "page_size",
+          "page_token",
+          "physical_mask",
+          "progress_percent",
+          "repeated_duration_value",
+          "required_repeated_int64",
+          "required_singular_resource_name_common",
+          "review_copy",
+          "series_uuid",
+          "string_builder",
+          "update_mask",
+          "user_name");
+
+  private static final ImmutableList<String> MESSAGE_NAMES =
+      ImmutableList.of(
+          "Book",
+          "GetBookRequest",
+          "ListShelvesResponse",
+          "GetIAMPolicyRequest",
+          "HTTPRequest",
+          "SQLInstancesListResponse",
+          "XMLPayload",
+          "APIConfig",
+          "UpdateBookIndexRequest",
+          "BookFromAnywhere");
+
+  private static final ImmutableList<String> ACRONYMS =
+      ImmutableList.of("IAM", "HTTP", "XML", "API", "SQL");
+
+  private final List<String> lowerNames = new ArrayList<>();
+
+  public NameBenchmark() {
+    for (String fieldName : FIELD_NAMES) {
+      lowerNames.add(fieldName);
+      lowerNames.add(CaseFormat.LOWER_UNDERSCORE.to(CaseFormat.LOWER_CAMEL, fieldName));
+    }
+  }
+
+  @Benchmark
+  public void anyLower(Blackhole blackhole) {
+    for (String name : lowerNames) {
+      blackhole.consume(Name.anyLower(name));
+    }
+  }
+
+  @Benchmark
+  public void anyLowerLegacy(Blackhole blackhole) {
+    for (String name : lowerNames) {
+      Name parsed;
+      try {
+        parsed = Name.from(name);
+      } catch (IllegalArgumentException e) {
+        parsed = Name.lowerCamel(name);
+      }
+      blackhole.consume(parsed);
+    }
+  }
+
+  @Benchmark
+  public void splitByUpperAcronyms(Blackhole blackhole) {
+    for (String name : MESSAGE_NAMES) {
+      blackhole.consume(CommonAcronyms.splitByUpperAcronyms(name));
+    }
+  }
+
+  @Benchmark
+  public void splitByUpperAcronymsLegacy(Blackhole blackhole) {
+    for (String name : MESSAGE_NAMES) {
+      blackhole.consume(legacySplitByUpperAcronyms(name));
+    }
+  }
+
+  private static List<SubNamePiece> legacySplitByUpperAcronyms(String str) {
+    List<int[]> positions = new ArrayList<>();
+    for (String acronym : ACRONYMS) {
+      int startIndex = 0;
+      int foundIndex;
+      while ((foundIndex = str.indexOf(acronym, startIndex)) != -1) {
+        int endIndex = foundIndex + acronym.length();
+        positions.add(new int[] {foundIndex, endIndex});
+        startIndex = endIndex;
+      }
+    }
+    if (positions.isEmpty()) {
+      return Collections.singletonList(new SubNamePiece(str, NamePieceCasingType.NORMAL));
+    }
+    positions.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : a[1] - b[1]);
+
+    List<SubNamePiece> result = new ArrayList<>();
+    int lastEndIndex = 0;
+    for (int[] position : positions) {
+      if (position[0] > lastEndIndex) {
+        result.add(
+            new SubNamePiece(str.substring(lastEndIndex, position[0]), NamePieceCasingType.NORMAL));
+      }
+      result.add(
+          new SubNamePiece(
+              str.substring(position[0], position[1]), NamePieceCasingType.UPPER_ACRONYM));
+      lastEndIndex = position[1];
+    }
+    if (lastEndIndex < str.length()) {
+      result.add(new SubNamePiece(str.substring(lastEndIndex), NamePieceCasingType.NORMAL));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,268 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.api.codegen.rendering.SnippetSetCache;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheStats;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Serves generation requests from a single long-lived JVM, so that class loading, JIT warm-up and
+ * the process-wide caches (such as the {@link SnippetSetCache}) are paid for once rather than on
+ * every invocation.
+ *
+ * <p>The protocol is one JSON object per line on stdin, answered by one JSON object per line on
+ * stdout, in order. A request looks like
+ *
+ * <pre>
+ *   {"id": 1, "args": ["gapic_code", "--descriptor_set=...", "--output=..."]}
+ * </pre>
+ *
+ * <p>where {@code args} are the same arguments {@link GeneratorMain} takes on the command line. If
+ * {@code "returnOutputs": true} is given and {@code args} has no output option, the files are
+ * generated into a temporary directory and returned in the response instead of being written, as a
+ * map from path (relative to the output directory) to {@code {"encoding": ..., "content": ...}}.
+ * The encoding is {@code "utf-8"} for text files and {@code "base64"} for anything else, such as
+ * the binary static resources. The response looks like
+ *
+ * <pre>
+ *   {"id": 1, "exitCode": 0, "millis": 812, "stdout": "...", "stderr": "...",
+ *    "snippetSetCacheHits": 120, "snippetSetCacheMisses": 0, "outputs": {...}}
+ * </pre>
+ *
+ * <p>where the cache counters are for this request only. A request of {@code {"command":
+ * "shutdown"}}, or the end of stdin, stops the daemon. Requests are served one at a time, since the
+ * output of each is captured by redirecting {@link System#out} and {@link System#err}.
+ */
+public class GeneratorDaemon {
+  /** The first command line argument of {@link GeneratorMain} which starts the daemon. */
+  public static final String COMMAND = "daemon";
+
+  private static final String SHUTDOWN_COMMAND = "shutdown";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  public static void main(String[] args) throws Exception {
+    new GeneratorDaemon().serve(System.in, System.out);
+  }
+
+  /** Serves requests read from the input until it ends or a shutdown request is received. */
+  public void serve(InputStream input, OutputStream output) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      JsonNode request;
+      try {
+        request = mapper.readTree(line);
+      } catch (IOException e) {
+        writeResponse(writer, errorResponse(null, "Malformed request: " + e.getMessage()));
+        continue;
+      }
+      if (SHUTDOWN_COMMAND.equals(request.path("command").asText())) {
+        ObjectNode response = mapper.createObjectNode();
+        response.set("id", request.get("id"));
+        writeResponse(writer, response);
+        return;
+      }
+      writeResponse(writer, handle(request));
+    }
+  }
+
+  /** Runs a single generation request and returns its response. */
+  public ObjectNode handle(JsonNode request) {
+    JsonNode id = request.get("id");
+    JsonNode argsNode = request.get("args");
+    if (argsNode == null || !argsNode.isArray() || argsNode.size() == 0) {
+      return errorResponse(id, "Request has no args");
+    }
+    List<String> args = new ArrayList<>();
+    for (JsonNode arg : argsNode) {
+      args.add(arg.asText());
+    }
+
+    boolean returnOutputs = request.path("returnOutputs").asBoolean(false);
+    Path outputRoot = null;
+    Path outputDir = null;
+    if (returnOutputs) {
+      if (hasOutputOption(args)) {
+        return errorResponse(id, "returnOutputs cannot be combined with an output option");
+      }
+      try {
+        // Some generators write next to the output directory (e.g. "../build.gradle"), so the
+        // output directory is nested inside the temporary one to catch those files too.
+        outputRoot = Files.createTempDirectory("gapic-daemon");
+        outputDir = Files.createDirectory(outputRoot.resolve("output"));
+      } catch (IOException e) {
+        if (outputRoot != null) {
+          deleteRecursively(outputRoot);
+        }
+        return errorResponse(id, "Failed to create output directory: " + e.getMessage());
+      }
+      args.add("--output=" + outputDir);
+    }
+
+    try {
+      return run(id, args, outputRoot, outputDir);
+    } finally {
+      if (outputRoot != null) {
+        deleteRecursively(outputRoot);
+      }
+    }
+  }
+
+  private ObjectNode run(JsonNode id, List<String> args, Path outputRoot, Path outputDir) {
+    ByteArrayOutputStream capturedOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream capturedErr = new ByteArrayOutputStream();
+    PrintStream originalOut = System.out;
+    PrintStream originalErr = System.err;
+    CacheStats statsBefore = SnippetSetCache.stats();
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    int exitCode;
+    try {
+      System.setOut(new PrintStream(capturedOut, true, StandardCharsets.UTF_8.name()));
+      System.setErr(new PrintStream(capturedErr, true, StandardCharsets.UTF_8.name()));
+      exitCode = GeneratorMain.run(args.toArray(new String[0]));
+    } catch (Exception e) {
+      System.err.print(Throwables.getStackTraceAsString(e));
+      exitCode = 1;
+    } finally {
+      System.out.flush();
+      System.err.flush();
+      System.setOut(originalOut);
+      System.setErr(originalErr);
+    }
+    CacheStats stats = SnippetSetCache.stats().minus(statsBefore);
+
+    ObjectNode response = mapper.createObjectNode();
+    response.set("id", id);
+    response.put("exitCode", exitCode);
+    response.put("millis", stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    response.put("stdout", toUtf8(capturedOut));
+    response.put("stderr", toUtf8(capturedErr));
+    response.put("snippetSetCacheHits", stats.hitCount());
+    response.put("snippetSetCacheMisses", stats.missCount());
+    if (outputDir != null && exitCode == 0) {
+      try {
+        response.set("outputs", readOutputs(outputRoot, outputDir));
+      } catch (IOException e) {
+        response.put("exitCode", 1);
+        response.put("error", "Failed to read outputs: " + e.getMessage());
+      }
+    }
+    return response;
+  }
+
+  private ObjectNode readOutputs(Path outputRoot, Path outputDir) throws IOException {
+    ObjectNode outputs = mapper.createObjectNode();
+    try (Stream<Path> files = Files.walk(outputRoot)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+        String path = outputDir.relativize(file).toString().replace(File.separatorChar, '/');
+        outputs.set(path, encodeOutput(Files.readAllBytes(file)));
+      }
+    }
+    return outputs;
+  }
+
+  /** Returns the content as UTF-8 text if it decodes as such, and base64-encoded otherwise. */
+  private ObjectNode encodeOutput(byte[] content) {
+    ObjectNode output = mapper.createObjectNode();
+    try {
+      String text =
+          StandardCharsets.UTF_8
+              .newDecoder()
+              .onMalformedInput(CodingErrorAction.REPORT)
+              .onUnmappableCharacter(CodingErrorAction.REPORT)
+              .decode(ByteBuffer.wrap(content))
+              .toString();
+      output.put("encoding", "utf-8");
+      output.put("content", text);
+    } catch (CharacterCodingException e) {
+      output.put("encoding", "base64");
+      output.put("content", Base64.getEncoder().encodeToString(content));
+    }
+    return output;
+  }
+
+  private ObjectNode errorResponse(JsonNode id, String message) {
+    ObjectNode response = mapper.createObjectNode();
+    response.set("id", id);
+    response.put("exitCode", 1);
+    response.put("error", message);
+    return response;
+  }
+
+  private void writeResponse(Writer writer, ObjectNode response) throws IOException {
+    writer.write(mapper.writeValueAsString(response));
+    writer.write('\n');
+    writer.flush();
+  }
+
+  private static boolean hasOutputOption(List<String> args) {
+    for (String arg : args) {
+      if (arg.equals("-o") || arg.startsWith("-o=") || arg.startsWith("--output")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String toUtf8(ByteArrayOutputStream stream) {
+    try {
+      return stream.toString(StandardCharsets.UTF_8.name());
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void deleteRecursively(Path dir) {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    } catch (IOException e) {
+      // A leftover temporary directory is not worth failing the request for.
+    }
+  }
+}
@@ -19,12 +19,14 @@ import com.google.api.codegen.configgen.GapicConfigGeneratorApp;
 import com.google.api.codegen.discogapic.DiscoGapicGeneratorApp;
 import com.google.api.codegen.gapic.FileGapicWriter;
 import com.google.api.codegen.gapic.GapicGeneratorApp;
+import com.google.api.codegen.gapic.OutputChanges;
 import com.google.api.codegen.packagegen.PackageGeneratorApp;
 import com.google.api.codegen.packagegen.PackagingArtifactType;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -50,6 +52,16 @@ public class GeneratorMain {
           .argName("DESCRIPTOR-SET")
           .required(true)
           .build();
+  private static final Option DESCRIPTOR_SET_NONREQUIRED_OPTION =
+      Option.builder()
+          .longOpt("descriptor_set")
+          .desc(
+              "The descriptor set representing the compiled input protos. Not needed when the "
+                  + "descriptors are passed in memory.")
+          .hasArg()
+          .argName("DESCRIPTOR-SET")
+          .required(false)
+          .build();
   private static final Option TARGET_API_PROTO_PACKAGE =
       Option.builder()
           .longOpt("package")
@@ -87,7 +99,11 @@ public class GeneratorMain {
   private static final Option LANGUAGE_NONREQUIRED_OPTION =
       Option.builder("l")
           .longOpt("language")
-          .desc("The target programming language for generated output.")
+          .desc(
+              "The target programming language for generated output. For gapic_code, "
+                  + "gapic_package and legacy_gapic_and_package, this may also be a "
+                  + "comma-separated list of languages, or 'all', each generated into its own "
+                  + "subdirectory of the output.")
           .hasArg()
           .argName("LANGUAGE")
           .required(false)
@@ -150,11 +166,22 @@ public class GeneratorMain {
   }
 
   public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equalsIgnoreCase(GeneratorDaemon.COMMAND)) {
+      GeneratorDaemon.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    System.exit(run(args));
+  }
+
+  /**
+   * Runs the command given by the first argument with the remaining arguments as its options, and
+   * returns the exit code. Unlike {@link #main}, this does not exit the JVM.
+   */
+  public static int run(String[] args) throws Exception {
     if (args.length == 0) {
       System.err.println("No artifact type given!");
       printAvailableCommands();
-      System.exit(1);
-      return;
+      return 1;
     }
     String command = args[0].toUpperCase();
 
@@ -164,45 +191,36 @@ public class GeneratorMain {
     } catch (Exception e) {
       System.err.println("Unrecognized artifact type: '" + command.toLowerCase() + "'");
       printAvailableCommands();
-      System.exit(1);
-      return;
+      return 1;
     }
 
     switch (artifactType) {
       case GAPIC_CONFIG:
-        gapicConfigGeneratorMain(args);
-        break;
+        return gapicConfigGeneratorMain(args);
       case GAPIC_CODE:
-        gapicGeneratorMain(artifactType, args);
-        break;
+        return gapicGeneratorMain(artifactType, args);
       case GAPIC_PACKAGE:
-        gapicGeneratorMain(artifactType, args);
-        break;
+        return gapicGeneratorMain(artifactType, args);
       case LEGACY_GAPIC_AND_PACKAGE:
-        gapicGeneratorMain(artifactType, args);
-        break;
+        return gapicGeneratorMain(artifactType, args);
       case DISCOGAPIC_CONFIG:
-        discoGapicConfigGeneratorMain(args);
-        break;
+        return discoGapicConfigGeneratorMain(args);
       case DISCOGAPIC_CODE:
-        discoGapicMain(artifactType, args);
-        break;
+        return discoGapicMain(artifactType, args);
       case LEGACY_DISCOGAPIC_AND_PACKAGE:
-        discoGapicMain(artifactType, args);
-        break;
+        return discoGapicMain(artifactType, args);
       case LEGACY_GRPC_PACKAGE:
-        packageGeneratorMain(args);
-        break;
+        return packageGeneratorMain(args);
       default:
         System.err.println(
             "ArtifactType '"
                 + artifactType
                 + "' present in enum but not supported on command line - programmer error?");
-        System.exit(1);
+        return 1;
     }
   }
 
-  public static void gapicConfigGeneratorMain(String[] args) throws Exception {
+  public static int gapicConfigGeneratorMain(String[] args) throws Exception {
     Options options = new Options();
     options.addOption("h", "help", false, "show usage");
     options.addOption(DESCRIPTOR_SET_OPTION);
@@ -225,10 +243,10 @@ public class GeneratorMain {
         Lists.newArrayList(cl.getOptionValues(SERVICE_YAML_OPTION.getLongOpt())));
     GapicConfigGeneratorApp configGen = new GapicConfigGeneratorApp(toolOptions);
     int exitCode = configGen.run();
-    System.exit(exitCode);
+    return exitCode;
   }
 
-  public static void gapicGeneratorMain(ArtifactType artifactType, String[] args) throws Exception {
+  public static int gapicGeneratorMain(ArtifactType artifactType, String[] args) throws Exception {
     Options options = new Options();
     options.addOption("h", "help", false, "show usage");
     options.addOption(DESCRIPTOR_SET_OPTION);
@@ -261,6 +279,66 @@ public class GeneratorMain {
             .build();
     options.addOption(devSamplesOption);
 
+    Option renderingThreadsOption =
+        Option.builder()
+            .longOpt("rendering_threads")
+            .desc(
+                "Optional. The number of threads used to render generated files. "
+                    + "Defaults to 1, which renders serially.")
+            .hasArg()
+            .argName("RENDERING_THREADS")
+            .required(false)
+            .build();
+    options.addOption(renderingThreadsOption);
+
+    Option generatorThreadsOption =
+        Option.builder()
+            .longOpt("generator_threads")
+            .desc(
+                "Optional. The number of code generators to run concurrently. Defaults to the "
+                    + "number of target languages, so a single language is generated serially.")
+            .hasArg()
+            .argName("GENERATOR_THREADS")
+            .required(false)
+            .build();
+    options.addOption(generatorThreadsOption);
+
+    Option streamingOutputOption =
+        Option.builder()
+            .longOpt("streaming_output")
+            .desc(
+                "Optional. Write each generated file as soon as its generator finishes, instead "
+                    + "of after all generators have finished. Files are still buffered in memory "
+                    + "one at a time while they are written.")
+            .argName("STREAMING_OUTPUT")
+            .required(false)
+            .build();
+    options.addOption(streamingOutputOption);
+
+    Option incrementalOutputOption =
+        Option.builder()
+            .longOpt("incremental_output")
+            .desc(
+                "Optional. Only rewrite output files whose content changed since the previous "
+                    + "run, and delete files which are no longer generated. A manifest of the "
+                    + "generated files is kept in the output directory.")
+            .argName("INCREMENTAL_OUTPUT")
+            .required(false)
+            .build();
+    options.addOption(incrementalOutputOption);
+
+    Option interfaceCacheDirOption =
+        Option.builder()
+            .longOpt("interface_cache_dir")
+            .desc(
+                "Optional. A directory in which to cache the generated files of each interface, "
+                    + "so that interfaces whose inputs are unchanged are not regenerated.")
+            .hasArg()
+            .argName("INTERFACE_CACHE_DIR")
+            .required(false)
+            .build();
+    options.addOption(interfaceCacheDirOption);
+
     CommandLine cl = (new DefaultParser()).parse(options, args);
     if (cl.hasOption("help")) {
       HelpFormatter formatter = new HelpFormatter();
@@ -317,37 +395,98 @@ public class GeneratorMain {
 
     toolOptions.set(GapicGeneratorApp.DEV_SAMPLES, cl.hasOption(devSamplesOption.getLongOpt()));
 
+    if (cl.hasOption(renderingThreadsOption.getLongOpt())) {
+      toolOptions.set(
+          GapicGeneratorApp.RENDERING_THREADS, getPositiveIntOption(cl, renderingThreadsOption));
+    }
+    if (cl.hasOption(generatorThreadsOption.getLongOpt())) {
+      toolOptions.set(
+          GapicGeneratorApp.GENERATOR_THREADS, getPositiveIntOption(cl, generatorThreadsOption));
+    }
+    toolOptions.set(
+        GapicGeneratorApp.STREAMING_OUTPUT, cl.hasOption(streamingOutputOption.getLongOpt()));
+    toolOptions.set(
+        GapicGeneratorApp.INTERFACE_CACHE_DIR,
+        cl.getOptionValue(interfaceCacheDirOption.getLongOpt(), ""));
+
     String outputPath = toolOptions.get(GapicGeneratorApp.OUTPUT_FILE);
-    GapicGeneratorApp codeGen =
-        new GapicGeneratorApp(toolOptions, artifactType, new FileGapicWriter(outputPath));
+    FileGapicWriter gapicWriter =
+        new FileGapicWriter(outputPath, cl.hasOption(incrementalOutputOption.getLongOpt()));
+    GapicGeneratorApp codeGen = new GapicGeneratorApp(toolOptions, artifactType, gapicWriter);
     int exitCode = codeGen.run();
-    System.exit(exitCode);
+    OutputChanges outputChanges = gapicWriter.getOutputChanges();
+    if (outputChanges != null) {
+      printOutputChanges(outputChanges);
+    }
+    return exitCode;
+  }
+
+  private static void printOutputChanges(OutputChanges outputChanges) {
+    System.out.println("Incremental output: " + outputChanges.summary());
+    for (String path : outputChanges.getAdded()) {
+      System.out.println("  added:   " + path);
+    }
+    for (String path : outputChanges.getChanged()) {
+      System.out.println("  changed: " + path);
+    }
+    for (String path : outputChanges.getRemoved()) {
+      System.out.println("  removed: " + path);
+    }
   }
 
+  /**
+   * Creates the tool options for a protoc plugin invocation from the plugin parameters. The
+   * descriptor set is optional here, since protoc passes the descriptors in memory; GAPIC, service
+   * and sample YAML files may be given as plugin parameters.
+   */
   public static ToolOptions createCodeGeneratorOptionsFromProtoc(String[] args)
       throws ParseException {
     Options options = new Options();
     // We can add more options as they become needed.
-    options.addOption(DESCRIPTOR_SET_OPTION);
+    options.addOption(DESCRIPTOR_SET_NONREQUIRED_OPTION);
     options.addOption(LANGUAGE_OPTION);
     options.addOption(TARGET_API_PROTO_PACKAGE);
+    options.addOption(SERVICE_YAML_NONREQUIRED_OPTION);
+    options.addOption(GAPIC_YAML_NONREQUIRED_OPTION);
+    options.addOption(SAMPLE_YAML_NONREQUIRED_OPTION);
 
     CommandLine cl = (new DefaultParser()).parse(options, args);
 
     ToolOptions toolOptions = ToolOptions.create();
-    toolOptions.set(
-        ToolOptions.DESCRIPTOR_SET, cl.getOptionValue(DESCRIPTOR_SET_OPTION.getLongOpt()));
+    if (cl.hasOption(DESCRIPTOR_SET_NONREQUIRED_OPTION.getLongOpt())) {
+      toolOptions.set(
+          ToolOptions.DESCRIPTOR_SET,
+          cl.getOptionValue(DESCRIPTOR_SET_NONREQUIRED_OPTION.getLongOpt()));
+      checkFile(toolOptions.get(ToolOptions.DESCRIPTOR_SET));
+    }
 
     toolOptions.set(
         GapicGeneratorApp.PROTO_PACKAGE, cl.getOptionValue(TARGET_API_PROTO_PACKAGE.getLongOpt()));
     toolOptions.set(GapicGeneratorApp.LANGUAGE, cl.getOptionValue(LANGUAGE_OPTION.getLongOpt()));
 
-    checkFile(toolOptions.get(ToolOptions.DESCRIPTOR_SET));
+    if (cl.getOptionValues(SERVICE_YAML_NONREQUIRED_OPTION.getLongOpt()) != null) {
+      toolOptions.set(
+          ToolOptions.CONFIG_FILES,
+          Lists.newArrayList(cl.getOptionValues(SERVICE_YAML_NONREQUIRED_OPTION.getLongOpt())));
+      checkFiles(toolOptions.get(ToolOptions.CONFIG_FILES));
+    }
+    if (cl.getOptionValues(GAPIC_YAML_NONREQUIRED_OPTION.getLongOpt()) != null) {
+      toolOptions.set(
+          GapicGeneratorApp.GENERATOR_CONFIG_FILES,
+          Lists.newArrayList(cl.getOptionValues(GAPIC_YAML_NONREQUIRED_OPTION.getLongOpt())));
+      checkFiles(toolOptions.get(GapicGeneratorApp.GENERATOR_CONFIG_FILES));
+    }
+    if (cl.getOptionValues(SAMPLE_YAML_NONREQUIRED_OPTION.getLongOpt()) != null) {
+      toolOptions.set(
+          GapicGeneratorApp.SAMPLE_CONFIG_FILES,
+          Lists.newArrayList(cl.getOptionValues(SAMPLE_YAML_NONREQUIRED_OPTION.getLongOpt())));
+      checkFiles(toolOptions.get(GapicGeneratorApp.SAMPLE_CONFIG_FILES));
+    }
 
     return toolOptions;
   }
 
-  public static void packageGeneratorMain(String[] args) throws Exception {
+  public static int packageGeneratorMain(String[] args) throws Exception {
     Options options = new Options();
     options.addOption("h", "help", false, "show usage");
     options.addOption(DESCRIPTOR_SET_OPTION);
@@ -411,10 +550,10 @@ public class GeneratorMain {
 
     PackageGeneratorApp generator = new PackageGeneratorApp(toolOptions);
     int exitCode = generator.run();
-    System.exit(exitCode);
+    return exitCode;
   }
 
-  public static void discoGapicConfigGeneratorMain(String[] args) throws Exception {
+  public static int discoGapicConfigGeneratorMain(String[] args) throws Exception {
     Options options = new Options();
     options.addOption("h", "help", false, "show usage");
     options.addOption(DISCOVERY_DOC_OPTION);
@@ -434,10 +573,10 @@ public class GeneratorMain {
         cl.getOptionValue(DISCOVERY_DOC_OPTION.getLongOpt()));
     DiscoConfigGeneratorApp configGen = new DiscoConfigGeneratorApp(toolOptions);
     int exitCode = configGen.run();
-    System.exit(exitCode);
+    return exitCode;
   }
 
-  public static void discoGapicMain(ArtifactType artifactType, String[] args) throws Exception {
+  public static int discoGapicMain(ArtifactType artifactType, String[] args) throws Exception {
     Options options = new Options();
     options.addOption("h", "help", false, "show usage");
     // TODO make required after artman passes this in
@@ -487,7 +626,7 @@ public class GeneratorMain {
     }
     DiscoGapicGeneratorApp codeGen = new DiscoGapicGeneratorApp(toolOptions, artifactType);
     int exitCode = codeGen.run();
-    System.exit(exitCode);
+    return exitCode;
   }
 
   private static void checkFiles(List<String> files) {
@@ -502,6 +641,22 @@ public class GeneratorMain {
     }
   }
 
+  // Throws an exception if the value of the option is not a positive integer.
+  private static int getPositiveIntOption(CommandLine cl, Option option) {
+    String value = cl.getOptionValue(option.getLongOpt());
+    try {
+      int intValue = Integer.parseInt(value);
+      if (intValue > 0) {
+        return intValue;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below.
+    }
+    throw new IllegalArgumentException(
+        String.format(
+            "--%s must be a positive integer, but was '%s'.", option.getLongOpt(), value));
+  }
+
   // Throws an exception if neither option was given.
   private static void checkAtLeastOneOption(CommandLine cl, Option option1, Option option2) {
     if (cl.getOptionValues(option1.getLongOpt()) == null
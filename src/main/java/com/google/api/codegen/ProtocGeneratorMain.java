@@ -19,18 +19,16 @@ import static com.google.api.codegen.ArtifactType.GAPIC_CODE;
 import com.google.api.codegen.gapic.GapicGeneratorApp;
 import com.google.api.codegen.gapic.ProtocGapicWriter;
 import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.tools.FileWrapper;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.api.tools.framework.tools.ToolUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
 import com.google.protobuf.compiler.PluginProtos;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
@@ -45,6 +43,9 @@ public class ProtocGeneratorMain {
 
   private static final ArtifactType DEFAULT_ARTIFACT_TYPE = GAPIC_CODE;
 
+  /** The name under which the in-memory descriptor set is reported in diagnostics. */
+  private static final String DESCRIPTOR_SET_NAME = "<protoc CodeGeneratorRequest>";
+
   public static void main(String[] args) {
     CodeGeneratorResponse response;
     CodeGeneratorRequest request;
@@ -99,6 +100,9 @@ public class ProtocGeneratorMain {
           new GapicGeneratorApp(toolOptions, DEFAULT_ARTIFACT_TYPE, gapicWriter);
 
       codeGen.run();
+      if (!gapicWriter.isDone()) {
+        throw new RuntimeException(collectDiags(codeGen));
+      }
       CodeGeneratorResponse response = gapicWriter.getCodegenResponse();
       if (response == null) {
         throw new RuntimeException(collectDiags(codeGen));
@@ -114,22 +118,7 @@ public class ProtocGeneratorMain {
   }
 
   private static ToolOptions parseOptions(CodeGeneratorRequest request) throws Exception {
-    List<FileDescriptorProto> fileDescriptorProtoList = request.getProtoFileList();
-    FileDescriptorSet descriptorSet =
-        FileDescriptorSet.newBuilder().addAllFile(fileDescriptorProtoList).build();
-
-    // Write out DescriptorSet to temp file.
-    File descriptorSetFile;
-
-    descriptorSetFile = File.createTempFile("api", ".desc");
-    FileOutputStream fileoutput = new FileOutputStream(descriptorSetFile);
-    descriptorSet.writeTo(fileoutput);
-    fileoutput.close();
-    descriptorSetFile.deleteOnExit();
-
     List<String> parsedArgs = new LinkedList<>();
-    parsedArgs.add("--descriptor_set");
-    parsedArgs.add(descriptorSetFile.getAbsolutePath());
 
     List<String> protoPackages = getProtoPackageList(request);
     if (protoPackages.size() > 1) {
@@ -146,7 +135,8 @@ public class ProtocGeneratorMain {
     parsedArgs.add("--package");
     parsedArgs.add(protoPackages.get(0));
 
-    // Parse plugin params, ignoring unknown params.
+    // Parse plugin params, ignoring unknown params. GAPIC, service and sample YAML files can be
+    // passed as repeated params, e.g. "language=java,gapic_yaml=a.yaml,sample_yamls=b.yaml".
     String[] requestArgs = request.getParameter().split(",");
     for (String arg : requestArgs) {
       if (Strings.isNullOrEmpty(arg)) continue;
@@ -155,7 +145,20 @@ public class ProtocGeneratorMain {
 
     String[] argsArray = parsedArgs.toArray(new String[] {});
 
-    return GeneratorMain.createCodeGeneratorOptionsFromProtoc(argsArray);
+    ToolOptions toolOptions = GeneratorMain.createCodeGeneratorOptionsFromProtoc(argsArray);
+
+    // Hand the descriptors to the model builder in memory rather than through a temp file. They
+    // are still serialized once, because the request was parsed without the platform extension
+    // registry and the model builder re-parses them with it.
+    FileDescriptorSet descriptorSet =
+        FileDescriptorSet.newBuilder().addAllFile(request.getProtoFileList()).build();
+    toolOptions.set(
+        ToolOptions.DESCRIPTOR_SET_CONTENTS,
+        FileWrapper.create(DESCRIPTOR_SET_NAME, descriptorSet.toByteString()));
+    // The response is assembled in memory anyway, so there is nothing to gain from holding on to
+    // every rendered file until generation completes; on failure the partial response is dropped.
+    toolOptions.set(GapicGeneratorApp.STREAMING_OUTPUT, true);
+    return toolOptions;
   }
 
   // Return the list of unique proto packages of the proto files to be generated.
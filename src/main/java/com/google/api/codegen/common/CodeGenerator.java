@@ -14,6 +14,7 @@
  */
 package com.google.api.codegen.common;
 
+import com.google.api.tools.framework.model.DiagCollector;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Map;
@@ -33,4 +34,14 @@ public interface CodeGenerator<T> {
 
   /** Runs code generation and returns a map from relative file paths to generated files. */
   Map<String, GeneratedResult<T>> generate() throws IOException;
+
+  /**
+   * Runs code generation like {@link #generate()}, but reports diagnostics to the given collector
+   * rather than to the collector of the model, and checks only it for errors. This lets generators
+   * that share a model run concurrently. Generators which neither report diagnostics nor check for
+   * errors need not override it.
+   */
+  default Map<String, GeneratedResult<T>> generate(DiagCollector diagCollector) throws IOException {
+    return generate();
+  }
 }
@@ -0,0 +1,160 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.common;
+
+import com.google.api.codegen.util.ForkedDiagCollector;
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.SimpleLocation;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a list of independent {@link CodeGenerator}s, optionally concurrently, and merges their
+ * results into a single map.
+ *
+ * <p>Results are merged in generator order regardless of the order in which the generators finish,
+ * so the merged map and any reported conflicts are deterministic. A path emitted by more than one
+ * generator is reported as an error diagnostic naming both generators; the first generator's result
+ * is kept.
+ *
+ * <p>Generators which run concurrently each report to a collector of their own, through {@link
+ * CodeGenerator#generate(DiagCollector)}, which counts the errors reported before the run started.
+ * Their diagnostics are added to the given collector in generator order as their results are
+ * merged, so they are deterministic too. Unlike a serial run, a generator does not see the errors
+ * of the generators before it.
+ */
+public class CodeGeneratorScheduler {
+  private final int threads;
+
+  /**
+   * Creates a scheduler which runs up to {@code threads} generators at a time. A value of 1 runs
+   * the generators serially on the calling thread.
+   */
+  public CodeGeneratorScheduler(int threads) {
+    Preconditions.checkArgument(threads > 0, "threads must be positive");
+    this.threads = threads;
+  }
+
+  /**
+   * Runs all generators and returns the merged results, keyed by output path. Conflicting paths are
+   * reported to the diag collector. A generator which returns null (having reported its own errors)
+   * contributes no results.
+   */
+  public Map<String, GeneratedResult<?>> generate(
+      List<? extends CodeGenerator<?>> generators, DiagCollector diagCollector) throws IOException {
+    Map<String, GeneratedResult<?>> results = new LinkedHashMap<>();
+    generate(generators, diagCollector, results::put);
+    return ImmutableMap.copyOf(results);
+  }
+
+  /**
+   * Runs all generators and hands each merged result to the consumer instead of collecting them.
+   * The results of a generator are handed over, in generator order, as soon as it and every
+   * generator before it have finished, and are not retained afterwards. Conflicts are handled as in
+   * {@link #generate(List, DiagCollector)}.
+   */
+  public void generate(
+      List<? extends CodeGenerator<?>> generators,
+      DiagCollector diagCollector,
+      OutputConsumer consumer)
+      throws IOException {
+    Map<String, CodeGenerator<?>> producers = new HashMap<>();
+    if (threads <= 1 || generators.size() <= 1) {
+      for (CodeGenerator<?> generator : generators) {
+        merge(generator, generator.generate(diagCollector), producers, diagCollector, consumer);
+      }
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, generators.size()));
+    try {
+      List<ForkedDiagCollector> generatorDiagCollectors = new ArrayList<>(generators.size());
+      List<Future<? extends Map<String, ? extends GeneratedResult<?>>>> futures =
+          new ArrayList<>(generators.size());
+      for (CodeGenerator<?> generator : generators) {
+        ForkedDiagCollector generatorDiagCollector = new ForkedDiagCollector(diagCollector);
+        generatorDiagCollectors.add(generatorDiagCollector);
+        futures.add(executor.submit(() -> generator.generate(generatorDiagCollector)));
+      }
+      for (int i = 0; i < generators.size(); ++i) {
+        Map<String, ? extends GeneratedResult<?>> generatorResult = futures.get(i).get();
+        generatorDiagCollectors.get(i).replay(diagCollector);
+        merge(generators.get(i), generatorResult, producers, diagCollector, consumer);
+        // Drop the references so the merged results can be collected.
+        futures.set(i, null);
+        generatorDiagCollectors.set(i, null);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running code generators", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void merge(
+      CodeGenerator<?> generator,
+      Map<String, ? extends GeneratedResult<?>> generatorResult,
+      Map<String, CodeGenerator<?>> producers,
+      DiagCollector diagCollector,
+      OutputConsumer consumer)
+      throws IOException {
+    if (generatorResult == null) {
+      return;
+    }
+    for (Map.Entry<String, ? extends GeneratedResult<?>> entry : generatorResult.entrySet()) {
+      CodeGenerator<?> producer = producers.putIfAbsent(entry.getKey(), generator);
+      if (producer != null) {
+        diagCollector.addDiag(
+            Diag.error(
+                SimpleLocation.TOPLEVEL,
+                "Output file '%s' is generated by both %s and %s.",
+                entry.getKey(),
+                describe(producer),
+                describe(generator)));
+        continue;
+      }
+      consumer.accept(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private static String describe(CodeGenerator<?> generator) {
+    return String.format(
+        "%s(%s)",
+        generator.getClass().getSimpleName(), Joiner.on(", ").join(generator.getInputFileNames()));
+  }
+
+  /** Receives the merged results of {@link #generate(List, DiagCollector, OutputConsumer)}. */
+  public interface OutputConsumer {
+    void accept(String path, GeneratedResult<?> result) throws IOException;
+  }
+}
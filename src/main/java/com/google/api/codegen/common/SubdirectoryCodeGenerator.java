@@ -0,0 +1,58 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.common;
+
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/** A CodeGenerator which places the output of another generator under a subdirectory. */
+public class SubdirectoryCodeGenerator<T> implements CodeGenerator<T> {
+  private final String subdirectory;
+  private final CodeGenerator<T> generator;
+
+  public SubdirectoryCodeGenerator(String subdirectory, CodeGenerator<T> generator) {
+    this.subdirectory = subdirectory;
+    this.generator = generator;
+  }
+
+  @Override
+  public Collection<String> getInputFileNames() {
+    return generator.getInputFileNames();
+  }
+
+  @Override
+  public Map<String, GeneratedResult<T>> generate() throws IOException {
+    return prefix(generator.generate());
+  }
+
+  @Override
+  public Map<String, GeneratedResult<T>> generate(DiagCollector diagCollector) throws IOException {
+    return prefix(generator.generate(diagCollector));
+  }
+
+  private Map<String, GeneratedResult<T>> prefix(Map<String, GeneratedResult<T>> results) {
+    if (results == null) {
+      return null;
+    }
+    ImmutableMap.Builder<String, GeneratedResult<T>> prefixedResults = ImmutableMap.builder();
+    for (Map.Entry<String, GeneratedResult<T>> entry : results.entrySet()) {
+      prefixedResults.put(subdirectory + "/" + entry.getKey(), entry.getValue());
+    }
+    return prefixedResults.build();
+  }
+}
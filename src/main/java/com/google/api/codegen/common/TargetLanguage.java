@@ -14,6 +14,10 @@
  */
 package com.google.api.codegen.common;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
 /** Target languages supported by the code generators */
 public enum TargetLanguage {
   CSHARP,
@@ -27,4 +31,27 @@ public enum TargetLanguage {
   public static TargetLanguage fromString(String language) {
     return Enum.valueOf(TargetLanguage.class, language.toUpperCase());
   }
+
+  /**
+   * Parses a comma-separated list of languages, or "all" for every supported language. Duplicates
+   * are dropped; the order of first occurrence is kept.
+   */
+  public static List<TargetLanguage> listFromString(String languages) {
+    if (languages.trim().equalsIgnoreCase("all")) {
+      return ImmutableList.copyOf(values());
+    }
+    return Splitter.on(',')
+        .trimResults()
+        .omitEmptyStrings()
+        .splitToList(languages)
+        .stream()
+        .map(TargetLanguage::fromString)
+        .distinct()
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the name of the output subdirectory used when generating several languages. */
+  public String getDirectoryName() {
+    return name().toLowerCase();
+  }
 }
@@ -26,11 +26,13 @@ import com.google.api.codegen.transformer.RetryDefinitionsTransformer;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.SimpleLocation;
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -237,24 +239,57 @@ public abstract class DiscoGapicInterfaceConfig implements InterfaceConfig {
     }
   }
 
+  @Override
+  @Memoized
+  public ImmutableList<DiscoGapicMethodConfig> getPageStreamingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isPageStreaming)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<DiscoGapicMethodConfig> getBatchingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isBatching)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<DiscoGapicMethodConfig> getLongRunningMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::hasLroConfig)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<DiscoGapicMethodConfig> getGrpcStreamingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isGrpcStreaming)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Discovery methods are not grouped by grpc streaming type. */
+  @Override
+  public ImmutableList<DiscoGapicMethodConfig> getGrpcStreamingMethodConfigs(
+      GrpcStreamingConfig.GrpcStreamingType streamingType) {
+    return ImmutableList.of();
+  }
+
   @Override
   public boolean hasPageStreamingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isPageStreaming()) {
-        return true;
-      }
-    }
-    return false;
+    return !getPageStreamingMethodConfigs().isEmpty();
   }
 
   @Override
   public boolean hasLongRunningOperations() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.hasLroConfig()) {
-        return true;
-      }
-    }
-    return false;
+    return !getLongRunningMethodConfigs().isEmpty();
   }
 
   @Override
@@ -269,22 +304,12 @@ public abstract class DiscoGapicInterfaceConfig implements InterfaceConfig {
 
   @Override
   public boolean hasBatchingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isBatching()) {
-        return true;
-      }
-    }
-    return false;
+    return !getBatchingMethodConfigs().isEmpty();
   }
 
   @Override
   public boolean hasGrpcStreamingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isGrpcStreaming()) {
-        return true;
-      }
-    }
-    return false;
+    return !getGrpcStreamingMethodConfigs().isEmpty();
   }
 
   @Override
@@ -293,6 +318,7 @@ public abstract class DiscoGapicInterfaceConfig implements InterfaceConfig {
   }
 
   @Override
+  @Memoized
   public boolean hasReroutedInterfaceMethods() {
     for (MethodConfig methodConfig : getMethodConfigs()) {
       if (!Strings.isNullOrEmpty(methodConfig.getRerouteToGrpcInterface())) {
@@ -319,6 +345,25 @@ public abstract class DiscoGapicInterfaceConfig implements InterfaceConfig {
     return methodConfig;
   }
 
+  @Override
+  @Nullable
+  public DiscoGapicMethodConfig getMethodConfig(String methodSimpleName) {
+    return getMethodConfigsBySimpleName().get(methodSimpleName);
+  }
+
+  /**
+   * Returns the method configs keyed by the simple names of their methods. Should two methods share
+   * a simple name, the first one is kept.
+   */
+  @Memoized
+  ImmutableMap<String, DiscoGapicMethodConfig> getMethodConfigsBySimpleName() {
+    Map<String, DiscoGapicMethodConfig> methodConfigs = new LinkedHashMap<>();
+    for (DiscoGapicMethodConfig methodConfig : getMethodConfigs()) {
+      methodConfigs.putIfAbsent(methodConfig.getMethodModel().getSimpleName(), methodConfig);
+    }
+    return ImmutableMap.copyOf(methodConfigs);
+  }
+
   abstract ImmutableMap<String, ? extends MethodConfig> getMethodConfigMap();
 
   @Override
@@ -164,6 +164,28 @@ public abstract class DiscoGapicInterfaceContext implements InterfaceContext {
         getFeatureConfig());
   }
 
+  /**
+   * Returns a context for the same interface whose type table is a fork of this one's, so that what
+   * is saved to either table afterwards is not seen by the other.
+   */
+  public DiscoGapicInterfaceContext withForkedTypeTable() {
+    return withTypeTable(getSchemaTypeTable().fork());
+  }
+
+  @Override
+  public DiscoGapicInterfaceContext withTypeTable(ImportTypeTable typeTable) {
+    DiscoGapicInterfaceContext context =
+        new AutoValue_DiscoGapicInterfaceContext(
+            getProductConfig(),
+            (SchemaTypeTable) typeTable,
+            getDiscoGapicNamer(),
+            getInterfaceModel(),
+            getNamer(),
+            getFeatureConfig());
+    context.interfaceMethods = interfaceMethods;
+    return context;
+  }
+
   @Override
   public DiscoGapicInterfaceContext withNewTypeTable(String packageName) {
     return createWithInterface(
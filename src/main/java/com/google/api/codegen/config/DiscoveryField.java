@@ -32,10 +32,10 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
@@ -66,7 +66,7 @@ public class DiscoveryField implements FieldModel, TypeModel {
 
   // For each namespace, stores the symbol table and table of schemas and their names to
   // ensure unique message type names for each namespace.
-  private static Map<String, SchemaNamer> namespaceToSchemaNamer = new HashMap<>();
+  private static Map<String, SchemaNamer> namespaceToSchemaNamer = new ConcurrentHashMap<>();
 
   /**
    * Create a FieldModel object from a non-null Schema object, and internally dereference the input
@@ -102,8 +102,21 @@ public class DiscoveryField implements FieldModel, TypeModel {
     this.properties = propertiesBuilder.build();
   }
 
+  /**
+   * Returns whether the message type name of schema, if it is a message type, has already been
+   * assigned, so that creating a DiscoveryField of it would not assign a new name.
+   */
+  public static boolean hasSchemaName(Schema schema, DiscoApiModel rootApiModel) {
+    Schema dereferenced = schema.dereference();
+    if (!isTopLevelSchema(dereferenced) || rootApiModel == null) {
+      return true;
+    }
+    SchemaNamer messageNamer = namespaceToSchemaNamer.get(rootApiModel.getDefaultPackageName());
+    return messageNamer != null && messageNamer.hasSchemaName(dereferenced);
+  }
+
   /** Create a FieldModel object from a non-null Schema object. */
-  public static synchronized DiscoveryField create(Schema schema, DiscoApiModel rootApiModel) {
+  public static DiscoveryField create(Schema schema, DiscoApiModel rootApiModel) {
     if (!Strings.isNullOrEmpty(schema.reference()) && rootApiModel != null) {
       // First create a DiscoveryField for the underlying referenced Schema.
       create(schema.dereference(), rootApiModel);
@@ -489,8 +502,12 @@ public class DiscoveryField implements FieldModel, TypeModel {
     // Stores the escaped name for each message-type schema.
     private Map<Schema, String> messageNames = new TreeMap<>(messageSchemaComparator);
 
-    String getSchemaName(Schema schema, String basename) {
+    synchronized String getSchemaName(Schema schema, String basename) {
       return messageNames.computeIfAbsent(schema, k -> idSymbolTable.getNewSymbol(basename));
     }
+
+    synchronized boolean hasSchemaName(Schema schema) {
+      return messageNames.containsKey(schema);
+    }
   }
 }
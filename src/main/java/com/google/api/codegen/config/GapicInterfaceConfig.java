@@ -20,6 +20,7 @@ import com.google.api.codegen.MethodConfigProto;
 import com.google.api.codegen.RetryParamsDefinitionProto;
 import com.google.api.codegen.common.TargetLanguage;
 import com.google.api.codegen.transformer.RetryDefinitionsTransformer;
+import com.google.api.codegen.util.ForkedDiagCollector;
 import com.google.api.codegen.util.ProtoParser;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
@@ -27,16 +28,22 @@ import com.google.api.tools.framework.model.Interface;
 import com.google.api.tools.framework.model.Method;
 import com.google.api.tools.framework.model.SimpleLocation;
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 
 /**
@@ -239,41 +246,44 @@ public abstract class GapicInterfaceConfig implements InterfaceConfig {
       RetryCodesConfig retryCodesConfig,
       ImmutableSet<String> retryParamsConfigNames,
       ProtoParser protoParser) {
-    Map<String, GapicMethodConfig> methodConfigMapBuilder = new LinkedHashMap<>();
+    // Method configs are independent of each other, so they are created in parallel. Each method
+    // reports to its own collector, and the diagnostics are replayed in method order afterwards so
+    // that they come out as if the methods had been processed one by one. The collector of a method
+    // counts the errors reported before the method configs were created, but not those of the other
+    // methods. That only changes what is created for a method after an earlier method failed, which
+    // is dropped since the map is not created then, so the diagnostics are the same either way.
+    List<Entry<Method, MethodConfigProto>> methodEntries =
+        new ArrayList<>(methodsToGenerate.entrySet());
+    List<ForkedDiagCollector> methodDiagCollectors = new ArrayList<>(methodEntries.size());
+    for (int i = 0; i < methodEntries.size(); i++) {
+      methodDiagCollectors.add(new ForkedDiagCollector(diagCollector));
+    }
+    List<Optional<GapicMethodConfig>> methodConfigs =
+        IntStream.range(0, methodEntries.size())
+            .parallel()
+            .mapToObj(
+                i ->
+                    Optional.ofNullable(
+                        createMethodConfig(
+                            methodDiagCollectors.get(i),
+                            language,
+                            defaultPackageName,
+                            methodEntries.get(i).getKey(),
+                            methodEntries.get(i).getValue(),
+                            messageConfigs,
+                            resourceNameConfigs,
+                            retryCodesConfig,
+                            retryParamsConfigNames,
+                            protoParser)))
+            .collect(Collectors.toList());
 
-    for (Entry<Method, MethodConfigProto> methodEntry : methodsToGenerate.entrySet()) {
-      MethodConfigProto methodConfigProto = methodEntry.getValue();
-      Method method = methodEntry.getKey();
-      GapicMethodConfig methodConfig;
-      if (protoParser.isProtoAnnotationsEnabled()) {
-        methodConfig =
-            GapicMethodConfig.createGapicMethodConfigFromProto(
-                diagCollector,
-                language,
-                defaultPackageName,
-                methodConfigProto,
-                method,
-                messageConfigs,
-                resourceNameConfigs,
-                retryCodesConfig,
-                retryParamsConfigNames,
-                protoParser);
-      } else {
-        methodConfig =
-            GapicMethodConfig.createGapicMethodConfigFromGapicYaml(
-                diagCollector,
-                language,
-                methodConfigProto,
-                method,
-                messageConfigs,
-                resourceNameConfigs,
-                retryCodesConfig,
-                retryParamsConfigNames);
-      }
-      if (methodConfig == null) {
-        continue;
+    Map<String, GapicMethodConfig> methodConfigMapBuilder = new LinkedHashMap<>();
+    for (int i = 0; i < methodEntries.size(); i++) {
+      methodDiagCollectors.get(i).replay(diagCollector);
+      if (methodConfigs.get(i).isPresent()) {
+        methodConfigMapBuilder.put(
+            methodEntries.get(i).getKey().getSimpleName(), methodConfigs.get(i).get());
       }
-      methodConfigMapBuilder.put(method.getSimpleName(), methodConfig);
     }
 
     if (diagCollector.getErrorCount() > 0) {
@@ -283,6 +293,43 @@ public abstract class GapicInterfaceConfig implements InterfaceConfig {
     }
   }
 
+  @Nullable
+  private static GapicMethodConfig createMethodConfig(
+      DiagCollector diagCollector,
+      TargetLanguage language,
+      String defaultPackageName,
+      Method method,
+      MethodConfigProto methodConfigProto,
+      ResourceNameMessageConfigs messageConfigs,
+      ImmutableMap<String, ResourceNameConfig> resourceNameConfigs,
+      RetryCodesConfig retryCodesConfig,
+      ImmutableSet<String> retryParamsConfigNames,
+      ProtoParser protoParser) {
+    if (protoParser.isProtoAnnotationsEnabled()) {
+      return GapicMethodConfig.createGapicMethodConfigFromProto(
+          diagCollector,
+          language,
+          defaultPackageName,
+          methodConfigProto,
+          method,
+          messageConfigs,
+          resourceNameConfigs,
+          retryCodesConfig,
+          retryParamsConfigNames,
+          protoParser);
+    } else {
+      return GapicMethodConfig.createGapicMethodConfigFromGapicYaml(
+          diagCollector,
+          language,
+          methodConfigProto,
+          method,
+          messageConfigs,
+          resourceNameConfigs,
+          retryCodesConfig,
+          retryParamsConfigNames);
+    }
+  }
+
   /** Returns the GapicMethodConfig for the given method. */
   @Override
   public GapicMethodConfig getMethodConfig(MethodModel method) {
@@ -294,6 +341,7 @@ public abstract class GapicInterfaceConfig implements InterfaceConfig {
     return getMethodConfig(method.getSimpleName());
   }
 
+  @Override
   public GapicMethodConfig getMethodConfig(String methodSimpleName) {
     return getMethodConfigMap().get(methodSimpleName);
   }
@@ -331,57 +379,82 @@ public abstract class GapicInterfaceConfig implements InterfaceConfig {
     return targetInterface;
   }
 
+  @Override
+  @Memoized
+  public ImmutableList<GapicMethodConfig> getPageStreamingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isPageStreaming)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<GapicMethodConfig> getBatchingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isBatching)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<GapicMethodConfig> getLongRunningMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::hasLroConfig)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  @Memoized
+  public ImmutableList<GapicMethodConfig> getGrpcStreamingMethodConfigs() {
+    return getMethodConfigs()
+        .stream()
+        .filter(MethodConfig::isGrpcStreaming)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the configs of the grpc streaming methods, indexed by their streaming type. */
+  @Memoized
+  ImmutableListMultimap<GrpcStreamingConfig.GrpcStreamingType, GapicMethodConfig>
+      getGrpcStreamingMethodConfigsByType() {
+    return Multimaps.index(getGrpcStreamingMethodConfigs(), MethodConfig::getGrpcStreamingType);
+  }
+
+  @Override
+  public ImmutableList<GapicMethodConfig> getGrpcStreamingMethodConfigs(
+      GrpcStreamingConfig.GrpcStreamingType streamingType) {
+    return getGrpcStreamingMethodConfigsByType().get(streamingType);
+  }
+
   @Override
   public boolean hasPageStreamingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isPageStreaming()) {
-        return true;
-      }
-    }
-    return false;
+    return !getPageStreamingMethodConfigs().isEmpty();
   }
 
   @Override
   public boolean hasBatchingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isBatching()) {
-        return true;
-      }
-    }
-    return false;
+    return !getBatchingMethodConfigs().isEmpty();
   }
 
   @Override
   public boolean hasGrpcStreamingMethods() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isGrpcStreaming()) {
-        return true;
-      }
-    }
-    return false;
+    return !getGrpcStreamingMethodConfigs().isEmpty();
   }
 
   @Override
   public boolean hasGrpcStreamingMethods(GrpcStreamingConfig.GrpcStreamingType streamingType) {
-    for (GapicMethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.isGrpcStreaming() && methodConfig.getGrpcStreamingType() == streamingType) {
-        return true;
-      }
-    }
-    return false;
+    return !getGrpcStreamingMethodConfigs(streamingType).isEmpty();
   }
 
   @Override
   public boolean hasLongRunningOperations() {
-    for (MethodConfig methodConfig : getMethodConfigs()) {
-      if (methodConfig.hasLroConfig()) {
-        return true;
-      }
-    }
-    return false;
+    return !getLongRunningMethodConfigs().isEmpty();
   }
 
   @Override
+  @Memoized
   public boolean hasReroutedInterfaceMethods() {
     for (MethodConfig methodConfig : getMethodConfigs()) {
       if (!Strings.isNullOrEmpty(methodConfig.getRerouteToGrpcInterface())) {
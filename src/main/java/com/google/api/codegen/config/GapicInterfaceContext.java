@@ -16,6 +16,7 @@ package com.google.api.codegen.config;
 
 import com.google.api.codegen.gapic.ProtoModels;
 import com.google.api.codegen.transformer.FeatureConfig;
+import com.google.api.codegen.transformer.ImportTypeTable;
 import com.google.api.codegen.transformer.ModelTypeTable;
 import com.google.api.codegen.transformer.SurfaceNamer;
 import com.google.api.tools.framework.aspects.documentation.model.DocumentationUtil;
@@ -140,6 +141,16 @@ public abstract class GapicInterfaceContext implements InterfaceContext {
         getFeatureConfig());
   }
 
+  @Override
+  public GapicInterfaceContext withTypeTable(ImportTypeTable typeTable) {
+    return create(
+        getInterface(),
+        getProductConfig(),
+        (ModelTypeTable) typeTable,
+        getNamer(),
+        getFeatureConfig());
+  }
+
   @Override
   public GapicInterfaceConfig getInterfaceConfig() {
     return getProductConfig().getInterfaceConfig(getInterface());
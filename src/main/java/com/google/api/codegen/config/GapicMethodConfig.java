@@ -30,8 +30,6 @@ import com.google.api.codegen.transformer.SurfaceNamer;
 import com.google.api.codegen.util.ProtoParser;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
-import com.google.api.tools.framework.model.Field;
-import com.google.api.tools.framework.model.MessageType;
 import com.google.api.tools.framework.model.Method;
 import com.google.api.tools.framework.model.ProtoFile;
 import com.google.api.tools.framework.model.SimpleLocation;
@@ -321,52 +319,7 @@ public abstract class GapicMethodConfig extends MethodConfig {
 
   public static ImmutableMap<String, String> getFieldNamePatterns(
       Method method, ResourceNameMessageConfigs messageConfigs) {
-    ImmutableMap.Builder<String, String> resultCollector = ImmutableMap.builder();
-    // Only look two levels deep in the request object, so fields of fields of the request object.
-    getFieldNamePatterns(messageConfigs, method.getInputMessage(), resultCollector, "", 2);
-    return resultCollector.build();
-  }
-
-  /**
-   * Recursively populates the given map builder with field name patterns, up to a given depth.
-   *
-   * <p>A field name pattern entry maps a field name String, which can be a dot-separated nested
-   * field such as "shelf.name", to the String name of the resource entity that is represented by
-   * that field.
-   *
-   * <p>Note: this method does not check for circular references.
-   *
-   * @param messageConfigs ResourceNameMessageConfigs object
-   * @param messageType the starting messageType from which to parse fields for resource names
-   * @param resultCollector collects the resulting field name patterns
-   * @param fieldNamePrefix a nested field is prefixed by the parents' names, dot-separated
-   * @param depth number of levels deep in which to parse the messageType; must be positive int
-   */
-  private static void getFieldNamePatterns(
-      ResourceNameMessageConfigs messageConfigs,
-      MessageType messageType,
-      ImmutableMap.Builder<String, String> resultCollector,
-      String fieldNamePrefix,
-      int depth) {
-    if (depth < 1) throw new IllegalStateException("depth must be positive");
-    for (Field field : messageType.getFields()) {
-      String fieldNameKey = fieldNamePrefix + field.getSimpleName();
-
-      if (field.getType().isMessage() && depth > 1) {
-        getFieldNamePatterns(
-            messageConfigs,
-            field.getType().getMessageType(),
-            resultCollector,
-            fieldNameKey + ".",
-            depth - 1);
-      }
-
-      if (messageConfigs.fieldHasResourceName(messageType.getFullName(), field.getSimpleName())) {
-        resultCollector.put(
-            fieldNameKey,
-            messageConfigs.getFieldResourceName(messageType.getFullName(), field.getSimpleName()));
-      }
-    }
+    return messageConfigs.getFieldNamePatterns(method.getInputMessage());
   }
 
   /** Return the list of "one of" instances associated with the fields. */
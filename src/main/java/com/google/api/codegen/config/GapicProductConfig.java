@@ -26,7 +26,6 @@ import com.google.api.codegen.VisibilityProto;
 import com.google.api.codegen.common.TargetLanguage;
 import com.google.api.codegen.configgen.mergers.LanguageSettingsMerger;
 import com.google.api.codegen.samplegen.v1.SampleConfigProto;
-import com.google.api.codegen.util.ConfigVersionValidator;
 import com.google.api.codegen.util.LicenseHeaderUtil;
 import com.google.api.codegen.util.ProtoParser;
 import com.google.api.tools.framework.model.*;
@@ -38,7 +37,6 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.protobuf.Api;
-import com.google.protobuf.DescriptorProtos;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -146,99 +144,54 @@ public abstract class GapicProductConfig implements ProductConfig {
       @Nullable String protoPackage,
       @Nullable String clientPackage,
       TargetLanguage language) {
+    return create(
+        model,
+        GapicProductCore.create(model, configProto, protoPackage),
+        sampleConfigProto,
+        clientPackage,
+        language);
+  }
 
-    final String defaultPackage;
+  /**
+   * Creates an instance of GapicProductConfig for the given language from the language-independent
+   * config of the model, which can be shared by the product configs of several languages. On
+   * errors, null will be returned, and diagnostics are reported to the model.
+   *
+   * @param model The protobuf model for which we are creating a config.
+   * @param core The language-independent config created from model.
+   * @param sampleConfigProto The parsed set of sample config files from the input
+   * @param clientPackage The desired package name for the generated client.
+   * @param language The language that this config will be used to generate a client in.
+   */
+  @Nullable
+  public static GapicProductConfig create(
+      Model model,
+      GapicProductCore core,
+      @Nullable SampleConfigProto sampleConfigProto,
+      @Nullable String clientPackage,
+      TargetLanguage language) {
     SymbolTable symbolTable = model.getSymbolTable();
-
-    if (protoPackage != null) {
-      // Default to using --package option for value of default package and first API protoFile.
-      defaultPackage = protoPackage;
-    } else if (configProto != null) {
-      // Otherwise use configProto to get the proto file containing the first interface listed in
-      // the config proto, and use it as
-      // the assigned file for generated resource names, and to get the default message namespace.
-      ProtoFile file =
-          symbolTable.lookupInterface(configProto.getInterfaces(0).getName()).getFile();
-      defaultPackage = file.getProto().getPackage();
-    } else {
-      throw new NullPointerException("configProto and protoPackage cannot both be null.");
-    }
-
-    List<ProtoFile> sourceProtos =
-        model
-            .getFiles()
-            .stream()
-            .filter(f -> f.getProto().getPackage().equals(defaultPackage))
-            .collect(Collectors.toList());
-
-    if (protoPackage != null && configProto == null) {
-      if (sourceProtos.isEmpty()) {
-        model
-            .getDiagReporter()
-            .getDiagCollector()
-            .addDiag(
-                Diag.error(
-                    SimpleLocation.TOPLEVEL,
-                    "There are no source proto files with package %s",
-                    defaultPackage));
-      }
-      sourceProtos.forEach(model::addRoot);
-    }
-
-    // Toggle on/off proto annotations parsing.
-    ProtoParser protoParser;
-    ConfigVersionValidator versionValidator = new ConfigVersionValidator();
-    if (versionValidator.isV2Config(configProto)) {
-      versionValidator.validateV2Config(configProto);
-      protoParser = new ProtoParser(true);
-
-      if (configProto == null) {
-        configProto = ConfigProto.getDefaultInstance();
-      }
-    } else {
-      protoParser = new ProtoParser(false);
-    }
-
+    ConfigProto configProto = core.getConfigProto();
+    String defaultPackage = core.getDefaultPackage();
+    ProtoParser protoParser = core.getProtoParser();
+    ResourceNameMessageConfigs messageConfigs = core.getMessageConfigs();
     DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
 
-    ProtoFile packageProtoFile = sourceProtos.isEmpty() ? null : sourceProtos.get(0);
-
     ImmutableMap<String, ResourceNameConfig> resourceNameConfigs;
-    ResourceNameMessageConfigs messageConfigs;
     if (protoParser.isProtoAnnotationsEnabled()) {
-      Map<String, ResourceDescriptorConfig> descriptorConfigMap =
-          protoParser.getResourceDescriptorConfigMap(sourceProtos, diagCollector);
-
-      Set<String> configsWithChildTypeReferences =
-          sourceProtos
-              .stream()
-              .flatMap(protoFile -> protoFile.getMessages().stream())
-              .flatMap(messageType -> messageType.getFields().stream())
-              .filter(protoParser::hasResourceReference)
-              .map(field -> protoParser.getResourceReference(field).getChildType())
-              .filter(type -> !Strings.isNullOrEmpty(type))
-              .collect(Collectors.toSet());
-
       resourceNameConfigs =
           createResourceNameConfigsFromAnnotationsAndGapicConfig(
               model,
               diagCollector,
               configProto,
-              packageProtoFile,
+              core.getPackageProtoFile(),
               language,
-              descriptorConfigMap,
-              configsWithChildTypeReferences);
-
-      messageConfigs =
-          ResourceNameMessageConfigs.createFromAnnotations(
-              diagCollector, sourceProtos, protoParser, descriptorConfigMap);
+              core.getResourceDescriptorConfigMap(),
+              core.getConfigsWithChildTypeReferences());
     } else {
       resourceNameConfigs =
           createResourceNameConfigsFromGapicConfigOnly(
-              model, diagCollector, configProto, packageProtoFile, language);
-      messageConfigs =
-          ResourceNameMessageConfigs.createFromGapicConfigOnly(
-              sourceProtos, configProto, defaultPackage);
+              model, diagCollector, configProto, core.getPackageProtoFile(), language);
     }
 
     if (resourceNameConfigs == null) {
@@ -256,16 +209,14 @@ public abstract class GapicProductConfig implements ProductConfig {
       if (!Strings.isNullOrEmpty(clientPackage)) {
         clientPackageName = clientPackage;
       } else {
-        String basePackageName = Optional.ofNullable(protoPackage).orElse(getPackageName(model));
         clientPackageName =
-            LanguageSettingsMerger.getFormattedPackageName(language, basePackageName);
+            LanguageSettingsMerger.getFormattedPackageName(language, core.getBasePackageName());
       }
     } else {
       clientPackageName = settings.getPackageName();
     }
 
-    ImmutableMap<String, Interface> protoInterfaces =
-        getInterfacesFromProtoFile(diagCollector, sourceProtos, symbolTable);
+    ImmutableMap<String, Interface> protoInterfaces = core.getProtoInterfaces();
 
     ImmutableList<GapicInterfaceInput> interfaceInputs;
     if (protoParser.isProtoAnnotationsEnabled()) {
@@ -565,28 +516,6 @@ public abstract class GapicProductConfig implements ProductConfig {
     return interfaceInputs.build();
   }
 
-  private static ImmutableMap<String, Interface> getInterfacesFromProtoFile(
-      DiagCollector diagCollector, List<ProtoFile> sourceProtos, SymbolTable symbolTable) {
-    // Maps name of interfaces to found interfaces from proto.
-    ImmutableMap.Builder<String, Interface> protoInterfaces = ImmutableMap.builder();
-
-    // Parse proto file for interfaces.
-    for (ProtoFile file : sourceProtos) {
-      for (DescriptorProtos.ServiceDescriptorProto service : file.getProto().getServiceList()) {
-        String serviceFullName =
-            String.format("%s.%s", file.getProto().getPackage(), service.getName());
-        Interface apiInterface = symbolTable.lookupInterface(serviceFullName);
-        if (apiInterface == null) {
-          diagCollector.addDiag(
-              Diag.error(SimpleLocation.TOPLEVEL, "interface not found: %s", service.getName()));
-          continue;
-        }
-        protoInterfaces.put(serviceFullName, apiInterface);
-      }
-    }
-    return protoInterfaces.build();
-  }
-
   /** Find the methods that should be generated on the surface when a GAPIC config was given. */
   @Nullable
   private static ImmutableMap<Method, MethodConfigProto> findMethodsToGenerateWithConfigYaml(
@@ -0,0 +1,213 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.config;
+
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.util.ConfigVersionValidator;
+import com.google.api.codegen.util.ProtoParser;
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.SimpleLocation;
+import com.google.api.tools.framework.model.SymbolTable;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.DescriptorProtos;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The language-independent part of a {@link GapicProductConfig}: the source protos, the resource
+ * descriptors and resource name messages found in them, and their interfaces.
+ *
+ * <p>It is derived once per model and GAPIC config, and shared by the product configs of each
+ * target language, which only add what depends on the language.
+ */
+@AutoValue
+public abstract class GapicProductCore {
+
+  /** Returns the GAPIC config, which is the default instance for a v2 config that was not given. */
+  public abstract ConfigProto getConfigProto();
+
+  /** Returns the source proto package given by the --package option, if any. */
+  @Nullable
+  public abstract String getProtoPackage();
+
+  /** Returns the proto package of the source protos. */
+  public abstract String getDefaultPackage();
+
+  /** Returns the proto files of the default package, which clients are generated for. */
+  public abstract ImmutableList<ProtoFile> getSourceProtos();
+
+  public abstract ProtoParser getProtoParser();
+
+  /**
+   * Returns the resource descriptors annotated in the source protos, by type. Empty unless proto
+   * annotations are enabled.
+   */
+  public abstract ImmutableMap<String, ResourceDescriptorConfig> getResourceDescriptorConfigMap();
+
+  /** Returns the resource types referenced as the child type of a field in the source protos. */
+  public abstract ImmutableSet<String> getConfigsWithChildTypeReferences();
+
+  public abstract ResourceNameMessageConfigs getMessageConfigs();
+
+  /** Returns the interfaces defined in the source protos, by full name. */
+  public abstract ImmutableMap<String, Interface> getProtoInterfaces();
+
+  /**
+   * Returns the package that client package names are derived from when the language settings do
+   * not name one.
+   */
+  @Nullable
+  public abstract String getBasePackageName();
+
+  /** Returns the proto file that generated resource names are assigned to, if any. */
+  @Nullable
+  public ProtoFile getPackageProtoFile() {
+    return getSourceProtos().isEmpty() ? null : getSourceProtos().get(0);
+  }
+
+  /**
+   * Creates the language-independent config of model. Diagnostics are reported to the model.
+   *
+   * @param model The protobuf model for which we are creating a config.
+   * @param configProto The parsed set of library config files from input
+   * @param protoPackage The source proto package, as opposed to imported protos, that we will
+   *     generate clients for.
+   */
+  public static GapicProductCore create(
+      Model model, @Nullable ConfigProto configProto, @Nullable String protoPackage) {
+    final String defaultPackage;
+    SymbolTable symbolTable = model.getSymbolTable();
+
+    if (protoPackage != null) {
+      // Default to using --package option for value of default package and first API protoFile.
+      defaultPackage = protoPackage;
+    } else if (configProto != null) {
+      // Otherwise use configProto to get the proto file containing the first interface listed in
+      // the config proto, and use it as
+      // the assigned file for generated resource names, and to get the default message namespace.
+      ProtoFile file =
+          symbolTable.lookupInterface(configProto.getInterfaces(0).getName()).getFile();
+      defaultPackage = file.getProto().getPackage();
+    } else {
+      throw new NullPointerException("configProto and protoPackage cannot both be null.");
+    }
+
+    ImmutableList<ProtoFile> sourceProtos =
+        model
+            .getFiles()
+            .stream()
+            .filter(f -> f.getProto().getPackage().equals(defaultPackage))
+            .collect(ImmutableList.toImmutableList());
+
+    if (protoPackage != null && configProto == null) {
+      if (sourceProtos.isEmpty()) {
+        model
+            .getDiagReporter()
+            .getDiagCollector()
+            .addDiag(
+                Diag.error(
+                    SimpleLocation.TOPLEVEL,
+                    "There are no source proto files with package %s",
+                    defaultPackage));
+      }
+      sourceProtos.forEach(model::addRoot);
+    }
+
+    // Toggle on/off proto annotations parsing.
+    ProtoParser protoParser;
+    ConfigVersionValidator versionValidator = new ConfigVersionValidator();
+    if (versionValidator.isV2Config(configProto)) {
+      versionValidator.validateV2Config(configProto);
+      protoParser = new ProtoParser(true);
+
+      if (configProto == null) {
+        configProto = ConfigProto.getDefaultInstance();
+      }
+    } else {
+      protoParser = new ProtoParser(false);
+    }
+
+    DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
+
+    ImmutableMap<String, ResourceDescriptorConfig> descriptorConfigMap = ImmutableMap.of();
+    ImmutableSet<String> configsWithChildTypeReferences = ImmutableSet.of();
+    ResourceNameMessageConfigs messageConfigs;
+    if (protoParser.isProtoAnnotationsEnabled()) {
+      descriptorConfigMap =
+          ImmutableMap.copyOf(
+              protoParser.getResourceDescriptorConfigMap(sourceProtos, diagCollector));
+
+      configsWithChildTypeReferences =
+          sourceProtos
+              .stream()
+              .flatMap(protoFile -> protoFile.getMessages().stream())
+              .flatMap(messageType -> messageType.getFields().stream())
+              .filter(protoParser::hasResourceReference)
+              .map(field -> protoParser.getResourceReference(field).getChildType())
+              .filter(type -> !Strings.isNullOrEmpty(type))
+              .collect(ImmutableSet.toImmutableSet());
+
+      messageConfigs =
+          ResourceNameMessageConfigs.createFromAnnotations(
+              diagCollector, sourceProtos, protoParser, descriptorConfigMap);
+    } else {
+      messageConfigs =
+          ResourceNameMessageConfigs.createFromGapicConfigOnly(
+              sourceProtos, configProto, defaultPackage);
+    }
+
+    return new AutoValue_GapicProductCore(
+        configProto,
+        protoPackage,
+        defaultPackage,
+        sourceProtos,
+        protoParser,
+        descriptorConfigMap,
+        configsWithChildTypeReferences,
+        messageConfigs,
+        getInterfacesFromProtoFile(diagCollector, sourceProtos, symbolTable),
+        protoPackage != null ? protoPackage : GapicProductConfig.getPackageName(model));
+  }
+
+  private static ImmutableMap<String, Interface> getInterfacesFromProtoFile(
+      DiagCollector diagCollector, List<ProtoFile> sourceProtos, SymbolTable symbolTable) {
+    // Maps name of interfaces to found interfaces from proto.
+    ImmutableMap.Builder<String, Interface> protoInterfaces = ImmutableMap.builder();
+
+    // Parse proto file for interfaces.
+    for (ProtoFile file : sourceProtos) {
+      for (DescriptorProtos.ServiceDescriptorProto service : file.getProto().getServiceList()) {
+        String serviceFullName =
+            String.format("%s.%s", file.getProto().getPackage(), service.getName());
+        Interface apiInterface = symbolTable.lookupInterface(serviceFullName);
+        if (apiInterface == null) {
+          diagCollector.addDiag(
+              Diag.error(SimpleLocation.TOPLEVEL, "interface not found: %s", service.getName()));
+          continue;
+        }
+        protoInterfaces.put(serviceFullName, apiInterface);
+      }
+    }
+    return protoInterfaces.build();
+  }
+}
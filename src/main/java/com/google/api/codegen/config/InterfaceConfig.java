@@ -45,6 +45,26 @@ public interface InterfaceConfig {
 
   MethodConfig getMethodConfig(MethodModel method);
 
+  /** Returns the config of the method with the given simple name, or null if there is none. */
+  @Nullable
+  MethodConfig getMethodConfig(String methodSimpleName);
+
+  /** Returns the configs of the page streaming methods, in the order of getMethodConfigs. */
+  List<? extends MethodConfig> getPageStreamingMethodConfigs();
+
+  /** Returns the configs of the batching methods, in the order of getMethodConfigs. */
+  List<? extends MethodConfig> getBatchingMethodConfigs();
+
+  /** Returns the configs of the long running methods, in the order of getMethodConfigs. */
+  List<? extends MethodConfig> getLongRunningMethodConfigs();
+
+  /** Returns the configs of the grpc streaming methods, in the order of getMethodConfigs. */
+  List<? extends MethodConfig> getGrpcStreamingMethodConfigs();
+
+  /** Returns the configs of the grpc streaming methods of the given type. */
+  List<? extends MethodConfig> getGrpcStreamingMethodConfigs(
+      GrpcStreamingConfig.GrpcStreamingType streamingType);
+
   boolean hasPageStreamingMethods();
 
   boolean hasLongRunningOperations();
@@ -54,6 +54,9 @@ public interface InterfaceContext extends TransformationContext {
   @Override
   InterfaceContext withNewTypeTable(String newPackageName);
 
+  /* @return a copy of this context that saves imports to the given type table. */
+  InterfaceContext withTypeTable(ImportTypeTable typeTable);
+
   MethodContext asFlattenedMethodContext(
       MethodContext methodContext, FlatteningConfig flatteningConfig);
 
@@ -35,11 +35,16 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Configuration of the resource name types for all message field. */
 @AutoValue
 public abstract class ResourceNameMessageConfigs {
 
+  // The field name patterns of each request message, which are shared by the methods taking it.
+  private final Map<MessageType, ImmutableMap<String, String>> fieldNamePatterns =
+      new ConcurrentHashMap<>();
+
   abstract ImmutableMap<String, ResourceNameMessageConfig> getResourceTypeConfigMap();
 
   /**
@@ -265,4 +270,55 @@ public abstract class ResourceNameMessageConfigs {
     }
     return messageResourceTypeConfig.getEntityNameForField(fieldSimpleName);
   }
+
+  /**
+   * Returns the field name patterns of the given request message, computed on first use. Only
+   * fields of the request and their fields are searched for resource names.
+   */
+  ImmutableMap<String, String> getFieldNamePatterns(MessageType requestType) {
+    return fieldNamePatterns.computeIfAbsent(
+        requestType,
+        messageType -> {
+          ImmutableMap.Builder<String, String> resultCollector = ImmutableMap.builder();
+          // Only look two levels deep in the request object, so fields of fields of the request
+          // object.
+          collectFieldNamePatterns(messageType, resultCollector, "", 2);
+          return resultCollector.build();
+        });
+  }
+
+  /**
+   * Recursively populates the given map builder with field name patterns, up to a given depth.
+   *
+   * <p>A field name pattern entry maps a field name String, which can be a dot-separated nested
+   * field such as "shelf.name", to the String name of the resource entity that is represented by
+   * that field.
+   *
+   * <p>Note: this method does not check for circular references.
+   *
+   * @param messageType the starting messageType from which to parse fields for resource names
+   * @param resultCollector collects the resulting field name patterns
+   * @param fieldNamePrefix a nested field is prefixed by the parents' names, dot-separated
+   * @param depth number of levels deep in which to parse the messageType; must be positive int
+   */
+  private void collectFieldNamePatterns(
+      MessageType messageType,
+      ImmutableMap.Builder<String, String> resultCollector,
+      String fieldNamePrefix,
+      int depth) {
+    if (depth < 1) throw new IllegalStateException("depth must be positive");
+    for (Field field : messageType.getFields()) {
+      String fieldNameKey = fieldNamePrefix + field.getSimpleName();
+
+      if (field.getType().isMessage() && depth > 1) {
+        collectFieldNamePatterns(
+            field.getType().getMessageType(), resultCollector, fieldNameKey + ".", depth - 1);
+      }
+
+      if (fieldHasResourceName(messageType.getFullName(), field.getSimpleName())) {
+        resultCollector.put(
+            fieldNameKey, getFieldResourceName(messageType.getFullName(), field.getSimpleName()));
+      }
+    }
+  }
 }
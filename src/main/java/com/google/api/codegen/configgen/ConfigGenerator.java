@@ -20,67 +20,83 @@ import com.google.api.codegen.configgen.nodes.ConfigNode;
 import com.google.api.codegen.configgen.nodes.FieldConfigNode;
 import com.google.api.codegen.configgen.nodes.ListItemConfigNode;
 import com.google.api.codegen.configgen.nodes.ScalarConfigNode;
+import com.google.api.codegen.util.LineWrapper;
 import com.google.api.tools.framework.util.VisitsBefore;
 import com.google.common.base.Splitter;
-import com.google.common.base.Strings;
-import java.util.ArrayList;
-import java.util.List;
 
-/** Generates the text of the gapic yaml file from a ConfigNode representation. */
+/**
+ * Generates the text of the gapic yaml file from a ConfigNode representation.
+ *
+ * <p>The text is streamed into a single Appendable as the nodes are visited; nested values are
+ * trimmed and reindented on the way by a {@link ConfigWriter}.
+ */
 public class ConfigGenerator extends NodeVisitor {
   private static final int MAX_LINE_WIDTH = 78;
 
-  private static final int TAB_WIDTH = 2;
+  static final int TAB_WIDTH = 2;
+
+  private static final LineWrapper COMMENT_LINE_WRAPPER = new LineWrapper(whitespace());
+
+  private final Appendable output;
 
-  private final int indent;
+  private final ConfigWriter writer;
 
-  private final StringBuilder configBuilder = new StringBuilder();
+  private int indent;
 
+  /** Creates a generator that generates into a buffer, returned by {@link #toString}. */
   public ConfigGenerator(int indent) {
+    this(new StringBuilder(), indent);
+  }
+
+  /** Creates a generator that generates into output. */
+  public ConfigGenerator(Appendable output, int indent) {
+    this.output = output;
+    this.writer = new ConfigWriter(output);
     this.indent = indent;
   }
 
   @VisitsBefore
   void generate(FieldConfigNode node) {
     appendComment(node.getComment().generate());
-    appendIndent();
+    writer.writeSpaces(indent);
 
+    ConfigNode child = node.getChild();
     if (node.getText().isEmpty()) {
-      configBuilder.append(visitFieldValue(indent, node.getChild()).trim());
+      if (child.isPresent()) {
+        writer.beginTrimmed();
+        visitChild(indent, child);
+        writer.endTrimmed();
+      } else {
+        writer.write("[]");
+      }
     } else {
-      configBuilder
-          .append(node.getText())
-          .append(":")
-          .append(visitFieldValue(indent + TAB_WIDTH, node.getChild()));
+      writer.write(node.getText()).write(":");
+      if (!child.isPresent()) {
+        writer.write(" []").writeLineSeparator();
+      } else if (child instanceof ScalarConfigNode) {
+        writer.write(" ");
+        writer.beginTrimmed();
+        visitChild(indent + TAB_WIDTH, child);
+        writer.endTrimmed();
+        writer.writeLineSeparator();
+      } else {
+        writer.writeLineSeparator();
+        visitChild(indent + TAB_WIDTH, child);
+      }
     }
   }
 
   @VisitsBefore
   void generate(ListItemConfigNode node) {
     appendComment(node.getComment().generate());
-    ConfigGenerator childGenerator = new ConfigGenerator(indent);
-    childGenerator.visit(node.getChild());
-    String child = childGenerator.toString().trim();
-    boolean isFirst = true;
-    for (String line : Splitter.on(System.lineSeparator()).split(child)) {
-      if (!isFirst) {
-        configBuilder.append(whitespace().trimTrailingFrom(line));
-      } else if (line.trim().startsWith("#")) {
-        configBuilder.append(whitespace().trimTrailingFrom(line));
-      } else {
-        configBuilder
-            .append(Strings.repeat(" ", indent - TAB_WIDTH))
-            .append("- ")
-            .append(line.trim());
-        isFirst = false;
-      }
-      configBuilder.append(System.lineSeparator());
-    }
+    writer.beginListItem(indent);
+    visitChild(indent, node.getChild());
+    writer.endListItem();
   }
 
   @VisitsBefore
   void generate(ScalarConfigNode node) {
-    appendIndent().append(node.getText()).append(System.lineSeparator());
+    writer.writeSpaces(indent).write(node.getText()).writeLineSeparator();
   }
 
   private void appendComment(String comment) {
@@ -91,67 +107,36 @@ public class ConfigGenerator extends NodeVisitor {
     for (String commentLine : Splitter.on("\n").split(comment)) {
       int startIndex = whitespace().negate().indexIn(commentLine);
       if (startIndex < 0) {
-        appendIndent().append("#").append(System.lineSeparator());
+        writer.writeSpaces(indent).write("#").writeLineSeparator();
         continue;
       }
 
-      for (String line : breakLine(commentLine.trim(), MAX_LINE_WIDTH - indent - startIndex)) {
-        appendIndent().append("# ");
-        appendIndent(startIndex).append(line).append(System.lineSeparator());
-      }
+      COMMENT_LINE_WRAPPER.wrap(
+          commentLine,
+          0,
+          commentLine.length(),
+          MAX_LINE_WIDTH - indent - startIndex,
+          (line, start, end) ->
+              writer
+                  .writeSpaces(indent)
+                  .write("# ")
+                  .writeSpaces(startIndex)
+                  .write(line, start, end)
+                  .writeLineSeparator());
     }
   }
 
-  private List<String> breakLine(String line, int maxWidth) {
-    List<String> lines = new ArrayList<>();
-    while (line.length() > maxWidth) {
-      int split = lineWrapIndex(line, maxWidth);
-      lines.add(line.substring(0, split).trim());
-      line = line.substring(split).trim();
-    }
-    lines.add(line.trim());
-    return lines;
-  }
-
-  private int lineWrapIndex(String line, int maxWidth) {
-    int index = whitespace().lastIndexIn(line.substring(0, maxWidth + 1));
-    if (index >= 0) {
-      return index;
-    }
-
-    index = whitespace().indexIn(line, maxWidth);
-    if (index >= 0) {
-      return index;
-    }
-
-    return line.length();
-  }
-
-  private StringBuilder appendIndent() {
-    return appendIndent(indent);
-  }
-
-  private StringBuilder appendIndent(int indent) {
-    return configBuilder.append(Strings.repeat(" ", indent));
-  }
-
-  private String visitFieldValue(int indent, ConfigNode childNode) {
-    if (!childNode.isPresent()) {
-      return String.format(" []%n");
-    }
-
-    ConfigGenerator childGenerator = new ConfigGenerator(indent);
-    childGenerator.visit(childNode);
-    String child = childGenerator.toString();
-    if (childNode instanceof ScalarConfigNode) {
-      return String.format(" %s%n", child.trim());
-    }
-
-    return System.lineSeparator() + child;
+  /** Visits child and the nodes following it at the given indent. */
+  private void visitChild(int childIndent, ConfigNode child) {
+    int parentIndent = indent;
+    indent = childIndent;
+    visit(child);
+    indent = parentIndent;
   }
 
+  /** Returns the generated text, if this generator was created to generate into a buffer. */
   @Override
   public String toString() {
-    return configBuilder.toString();
+    return output.toString();
   }
 }
@@ -0,0 +1,268 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.configgen;
+
+import static com.google.common.base.CharMatcher.whitespace;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Streams the text generated by {@link ConfigGenerator} into an Appendable.
+ *
+ * <p>Some values of a gapic yaml file are written trimmed, and list items are reindented behind a
+ * "- " marker. Rather than rendering such values to a string of their own first, the generator
+ * opens a scope around them, and the writer trims and reindents the text as it passes through on
+ * its way to the output. Only whitespace that may still be trimmed, and the current line of each
+ * list item, are held back.
+ */
+class ConfigWriter {
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private static final String SPACES = Strings.repeat(" ", 80);
+
+  private final Sink output;
+
+  // The open scopes, innermost first, and the closed ones kept for reuse.
+  private final Deque<Sink> scopes = new ArrayDeque<>();
+  private final Deque<TrimSink> freeTrimSinks = new ArrayDeque<>();
+  private final Deque<ListItemSink> freeListItemSinks = new ArrayDeque<>();
+
+  private Sink current;
+
+  ConfigWriter(Appendable output) {
+    this.output = new OutputSink(output);
+    this.current = this.output;
+  }
+
+  ConfigWriter write(CharSequence text) {
+    return write(text, 0, text.length());
+  }
+
+  ConfigWriter write(CharSequence text, int start, int end) {
+    current.write(text, start, end);
+    return this;
+  }
+
+  ConfigWriter writeSpaces(int count) {
+    writeSpaces(current, count);
+    return this;
+  }
+
+  ConfigWriter writeLineSeparator() {
+    return write(LINE_SEPARATOR);
+  }
+
+  /** Trims the text written until the matching {@link #endTrimmed}, like {@link String#trim}. */
+  void beginTrimmed() {
+    TrimSink sink = freeTrimSinks.isEmpty() ? new TrimSink() : freeTrimSinks.pop();
+    open(sink.reset(current));
+  }
+
+  void endTrimmed() {
+    freeTrimSinks.push((TrimSink) close());
+  }
+
+  /**
+   * Writes the text written until the matching {@link #endListItem} as a list item at the given
+   * indent.
+   *
+   * <p>The text is trimmed and split into lines. Lines up to the first one that is not a comment
+   * are written with trailing whitespace removed; that line is written trimmed behind the "- "
+   * marker, which takes the place of its indent, and the lines after it again with trailing
+   * whitespace removed. Every line, including the last, is ended by a line separator.
+   */
+  void beginListItem(int indent) {
+    ListItemSink sink = freeListItemSinks.isEmpty() ? new ListItemSink() : freeListItemSinks.pop();
+    open(sink.reset(current, indent));
+    beginTrimmed();
+  }
+
+  void endListItem() {
+    endTrimmed();
+    freeListItemSinks.push((ListItemSink) close());
+  }
+
+  private void open(Sink sink) {
+    scopes.push(sink);
+    current = sink;
+  }
+
+  private Sink close() {
+    Sink sink = scopes.pop();
+    sink.close();
+    current = scopes.isEmpty() ? output : scopes.peek();
+    return sink;
+  }
+
+  private static void writeSpaces(Sink sink, int count) {
+    Preconditions.checkArgument(count >= 0, "invalid count: %s", count);
+    for (; count > SPACES.length(); count -= SPACES.length()) {
+      sink.write(SPACES, 0, SPACES.length());
+    }
+    sink.write(SPACES, 0, count);
+  }
+
+  private abstract static class Sink {
+    abstract void write(CharSequence text, int start, int end);
+
+    void close() {}
+  }
+
+  private static class OutputSink extends Sink {
+    private final Appendable output;
+
+    OutputSink(Appendable output) {
+      this.output = output;
+    }
+
+    @Override
+    void write(CharSequence text, int start, int end) {
+      try {
+        output.append(text, start, end);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /** Drops leading whitespace, and holds back other whitespace until more text follows it. */
+  private static class TrimSink extends Sink {
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+    private Sink parent;
+    private boolean started;
+
+    TrimSink reset(Sink parent) {
+      this.parent = parent;
+      this.started = false;
+      pendingWhitespace.setLength(0);
+      return this;
+    }
+
+    @Override
+    void write(CharSequence text, int start, int end) {
+      int i = start;
+      while (i < end) {
+        int whitespaceStart = i;
+        while (i < end && text.charAt(i) <= ' ') {
+          i++;
+        }
+        if (started) {
+          pendingWhitespace.append(text, whitespaceStart, i);
+        }
+        if (i == end) {
+          return;
+        }
+        int textStart = i;
+        while (i < end && text.charAt(i) > ' ') {
+          i++;
+        }
+        if (pendingWhitespace.length() > 0) {
+          parent.write(pendingWhitespace, 0, pendingWhitespace.length());
+          pendingWhitespace.setLength(0);
+        }
+        started = true;
+        parent.write(text, textStart, i);
+      }
+    }
+
+    @Override
+    void close() {
+      pendingWhitespace.setLength(0);
+      parent = null;
+    }
+  }
+
+  /** Reindents each line behind the list item marker, as described at {@link #beginListItem}. */
+  private static class ListItemSink extends Sink {
+    private static final char LAST_SEPARATOR_CHAR =
+        LINE_SEPARATOR.charAt(LINE_SEPARATOR.length() - 1);
+
+    private static final String MARKER = "- ";
+
+    private final StringBuilder line = new StringBuilder();
+    private Sink parent;
+    private int indent;
+    private boolean markerWritten;
+
+    ListItemSink reset(Sink parent, int indent) {
+      this.parent = parent;
+      this.indent = indent;
+      this.markerWritten = false;
+      line.setLength(0);
+      return this;
+    }
+
+    @Override
+    void write(CharSequence text, int start, int end) {
+      for (int i = start; i < end; i++) {
+        char c = text.charAt(i);
+        line.append(c);
+        if (c == LAST_SEPARATOR_CHAR && endsWithLineSeparator()) {
+          writeLine(line.length() - LINE_SEPARATOR.length());
+          line.setLength(0);
+        }
+      }
+    }
+
+    @Override
+    void close() {
+      writeLine(line.length());
+      line.setLength(0);
+      parent = null;
+    }
+
+    private boolean endsWithLineSeparator() {
+      int offset = line.length() - LINE_SEPARATOR.length();
+      if (offset < 0) {
+        return false;
+      }
+      for (int i = 0; i < LINE_SEPARATOR.length(); i++) {
+        if (line.charAt(offset + i) != LINE_SEPARATOR.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void writeLine(int length) {
+      int trimmedStart = 0;
+      while (trimmedStart < length && line.charAt(trimmedStart) <= ' ') {
+        trimmedStart++;
+      }
+      if (markerWritten || (trimmedStart < length && line.charAt(trimmedStart) == '#')) {
+        int end = length;
+        while (end > 0 && whitespace().matches(line.charAt(end - 1))) {
+          end--;
+        }
+        parent.write(line, 0, end);
+      } else {
+        int trimmedEnd = length;
+        while (trimmedEnd > trimmedStart && line.charAt(trimmedEnd - 1) <= ' ') {
+          trimmedEnd--;
+        }
+        writeSpaces(parent, indent - ConfigGenerator.TAB_WIDTH);
+        parent.write(MARKER, 0, MARKER.length());
+        markerWritten = true;
+        parent.write(line, trimmedStart, trimmedEnd);
+      }
+      parent.write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length());
+    }
+  }
+}
@@ -14,8 +14,6 @@
  */
 package com.google.api.codegen.discogapic;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.api.codegen.ArtifactType;
 import com.google.api.codegen.ConfigProto;
 import com.google.api.codegen.common.CodeGenerator;
@@ -27,9 +25,10 @@ import com.google.api.codegen.config.DiscoApiModel;
 import com.google.api.codegen.config.GapicProductConfig;
 import com.google.api.codegen.config.PackageMetadataConfig;
 import com.google.api.codegen.config.PackagingConfig;
-import com.google.api.codegen.discovery.DiscoveryNode;
 import com.google.api.codegen.discovery.Document;
+import com.google.api.codegen.discovery.DocumentParser;
 import com.google.api.codegen.gapic.ArtifactFlags;
+import com.google.api.codegen.gapic.FileGapicWriter;
 import com.google.api.codegen.util.MultiYamlReader;
 import com.google.api.tools.framework.model.ConfigSource;
 import com.google.api.tools.framework.model.DiagCollector;
@@ -48,7 +47,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -90,6 +88,7 @@ public class DiscoGapicGeneratorApp {
 
   private final ToolOptions options;
   private final ArtifactType artifactType;
+  private final DiagCollector diagCollector = new SimpleDiagCollector();
 
   /** Constructs a code generator api based on given options. */
   public DiscoGapicGeneratorApp(ToolOptions options, ArtifactType artifactType) {
@@ -111,10 +110,9 @@ public class DiscoGapicGeneratorApp {
     if (!new File(discoveryDocPath).exists()) {
       throw new IOException("File not found: " + discoveryDocPath);
     }
-    Reader reader = new InputStreamReader(new FileInputStream(new File(discoveryDocPath)));
-
-    ObjectMapper mapper = new ObjectMapper();
-    JsonNode root = mapper.readTree(reader);
+    Document document =
+        DocumentParser.parse(
+            new InputStreamReader(new FileInputStream(new File(discoveryDocPath))));
 
     // Read the YAML config and convert it to proto.
     if (configFileNames.size() == 0) {
@@ -152,8 +150,7 @@ public class DiscoGapicGeneratorApp {
     String defaultPackageName =
         configProto.getLanguageSettingsMap().get(languageStr).getPackageName();
 
-    DiscoApiModel model =
-        new DiscoApiModel(Document.from(new DiscoveryNode(root)), defaultPackageName);
+    DiscoApiModel model = new DiscoApiModel(document, defaultPackageName);
 
     GapicProductConfig productConfig = GapicProductConfig.create(model, configProto, language);
 
@@ -184,17 +181,10 @@ public class DiscoGapicGeneratorApp {
     for (CodeGenerator<?> generator : generators) {
       outputFiles.putAll(GeneratedResult.extractBodies(generator.generate()));
     }
-    writeCodeGenOutput(outputFiles, options.get(OUTPUT_FILE));
-    return 0;
-  }
-
-  private void writeCodeGenOutput(Map<String, ?> outputFiles, String outputPath)
-      throws IOException {
-    if (outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar")) {
-      ToolUtil.writeJar(outputFiles, outputPath);
-    } else {
-      ToolUtil.writeFiles(outputFiles, outputPath);
-    }
+    // Unlike ToolUtil, the writer pretty-prints each Doc into a reused buffer rather than a String.
+    FileGapicWriter.writeFiles(outputFiles, options.get(OUTPUT_FILE), diagCollector);
+    ToolUtil.reportDiags(diagCollector, true);
+    return diagCollector.hasErrors() ? 1 : 0;
   }
 
   private static List<File> pathsToFiles(List<String> configFileNames) {
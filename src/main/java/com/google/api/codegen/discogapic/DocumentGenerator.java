@@ -14,10 +14,8 @@
  */
 package com.google.api.codegen.discogapic;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.api.codegen.discovery.DiscoveryNode;
 import com.google.api.codegen.discovery.Document;
+import com.google.api.codegen.discovery.DocumentParser;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.SimpleLocation;
@@ -26,7 +24,6 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.Reader;
 
 /** Generates an in-memory Document model object from a Discovery document filepath. */
 public class DocumentGenerator {
@@ -35,10 +32,8 @@ public class DocumentGenerator {
       throw new FileNotFoundException("Discovery document filepath not found.");
     }
 
-    Reader reader = new InputStreamReader(new FileInputStream(new File(discoveryDocPath)));
-    ObjectMapper mapper = new ObjectMapper();
-    JsonNode root = mapper.readTree(reader);
-    return Document.from(new DiscoveryNode(root));
+    return DocumentParser.parse(
+        new InputStreamReader(new FileInputStream(new File(discoveryDocPath))));
   }
 
   public static Document createDocumentAndLog(String discoveryDocPath, DiagCollector diagCollector)
@@ -63,6 +63,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /* Creates the ViewModel for a Discovery Doc request object Java class. */
 public class JavaDiscoGapicRequestToViewTransformer
@@ -126,15 +127,15 @@ public class JavaDiscoGapicRequestToViewTransformer
               surfaceNamer,
               createTypeTable(productConfig.getPackageName()));
 
-      for (DiscoveryMethodModel method : context.getSupportedMethods()) {
-        RequestObjectParamView params = getRequestObjectParams(context, method);
-
-        SchemaTransformationContext requestContext =
-            SchemaTransformationContext.create(
-                method.getFullName(), context.getSchemaTypeTable(), context);
-        StaticLangApiMessageView requestView = generateRequestClass(requestContext, method, params);
-        surfaceRequests.add(generateRequestFile(requestContext, requestView));
-      }
+      // Each request class is generated with its own fork of the interface's type table, so the
+      // methods are transformed in parallel, and their files collected in method order.
+      List<DiscoveryMethodModel> methods = new ArrayList<>();
+      context.getSupportedMethods().forEach(methods::add);
+      surfaceRequests.addAll(
+          methods
+              .parallelStream()
+              .map(method -> generateRequest(context.withForkedTypeTable(), method))
+              .collect(Collectors.toList()));
     }
     surfaceRequests.sort(
         (ViewModel o1, ViewModel o2) ->
@@ -142,6 +143,18 @@ public class JavaDiscoGapicRequestToViewTransformer
     return surfaceRequests;
   }
 
+  /* Creates the file view of the request object class of method. */
+  private StaticLangApiMessageFileView generateRequest(
+      DiscoGapicInterfaceContext context, DiscoveryMethodModel method) {
+    RequestObjectParamView params = getRequestObjectParams(context, method);
+
+    SchemaTransformationContext requestContext =
+        SchemaTransformationContext.create(
+            method.getFullName(), context.getSchemaTypeTable(), context);
+    StaticLangApiMessageView requestView = generateRequestClass(requestContext, method, params);
+    return generateRequestFile(requestContext, requestView);
+  }
+
   private RequestObjectParamView getRequestObjectParams(
       DiscoGapicInterfaceContext context, MethodModel method) {
     MethodConfig methodConfig = context.getMethodConfig(method);
@@ -40,6 +40,7 @@ import com.google.api.codegen.util.java.JavaTypeTable;
 import com.google.api.codegen.viewmodel.StaticLangApiMessageFileView;
 import com.google.api.codegen.viewmodel.StaticLangApiMessageView;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.common.base.Preconditions;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /* Creates the ViewModel for a Discovery Doc Schema Java class. */
 public class JavaDiscoGapicSchemaToViewTransformer
@@ -80,7 +82,6 @@ public class JavaDiscoGapicSchemaToViewTransformer
 
   @Override
   public List<ViewModel> transform(DiscoApiModel model, GapicProductConfig productConfig) {
-    List<ViewModel> surfaceSchemas = new ArrayList<>();
     String packageName = productConfig.getPackageName();
     JavaSurfaceNamer surfaceNamer = new JavaSurfaceNamer(packageName, packageName, nameFormatter);
     DiscoGapicInterfaceContext context =
@@ -91,15 +92,21 @@ public class JavaDiscoGapicSchemaToViewTransformer
             surfaceNamer,
             JavaFeatureConfig.create(productConfig));
 
-    for (Schema schema : context.getDocument().schemas().values()) {
-      Map<SchemaTransformationContext, StaticLangApiMessageView> contextViews =
-          new TreeMap<>(SchemaTransformationContext.comparator);
-      generateSchemaClasses(contextViews, context, schema);
-      for (Map.Entry<SchemaTransformationContext, StaticLangApiMessageView> contextView :
-          contextViews.entrySet()) {
-        surfaceSchemas.add(generateSchemaFile(contextView.getKey(), contextView.getValue()));
-      }
+    // Message type names are handed out first come, first served, so they are assigned in
+    // document order before the schemas are transformed concurrently.
+    List<Schema> schemas = new ArrayList<>(context.getDocument().schemas().values());
+    for (Schema schema : schemas) {
+      nameSchemaClasses(context, context.getSchemaTypeTable().cloneEmpty(), schema);
     }
+
+    // Each schema is transformed with its own type tables and views, so the schemas are
+    // transformed in parallel, and their files collected in document order.
+    List<ViewModel> surfaceSchemas =
+        schemas
+            .parallelStream()
+            .map(schema -> generateSchemaFiles(context, schema))
+            .flatMap(List::stream)
+            .collect(Collectors.toList());
     Collections.sort(
         surfaceSchemas,
         new Comparator<ViewModel>() {
@@ -111,6 +118,19 @@ public class JavaDiscoGapicSchemaToViewTransformer
     return surfaceSchemas;
   }
 
+  /* Creates the file views of a schema of the document and the top-level schemas it contains. */
+  private List<ViewModel> generateSchemaFiles(DiscoGapicInterfaceContext context, Schema schema) {
+    Map<SchemaTransformationContext, StaticLangApiMessageView> contextViews =
+        new TreeMap<>(SchemaTransformationContext.comparator);
+    generateSchemaClasses(contextViews, context, schema);
+    List<ViewModel> schemaFiles = new ArrayList<>();
+    for (Map.Entry<SchemaTransformationContext, StaticLangApiMessageView> contextView :
+        contextViews.entrySet()) {
+      schemaFiles.add(generateSchemaFile(contextView.getKey(), contextView.getValue()));
+    }
+    return schemaFiles;
+  }
+
   private SchemaTypeTable createTypeTable(String implicitPackageName, SurfaceNamer namer) {
     return new SchemaTypeTable(
         new JavaTypeTable(implicitPackageName, IGNORE_JAVA_LANG_CLASH),
@@ -140,6 +160,11 @@ public class JavaDiscoGapicSchemaToViewTransformer
       DiscoGapicInterfaceContext documentContext,
       Schema schema) {
 
+    // Names assigned here would depend on which thread got to them first.
+    Preconditions.checkState(
+        DiscoveryField.hasSchemaName(schema, documentContext.getApiModel()),
+        "Schema %s was not named by nameSchemaClasses",
+        schema.getIdentifier());
     DiscoveryField schemaModel = DiscoveryField.create(schema, documentContext.getApiModel());
     SchemaTypeTable schemaTypeTable = documentContext.getSchemaTypeTable().cloneEmpty();
 
@@ -207,6 +232,32 @@ public class JavaDiscoGapicSchemaToViewTransformer
     return messageView;
   }
 
+  /*
+   * Creates the DiscoveryFields of schema and its properties, and resolves their type names, in
+   * the same order as generateSchemaClasses, so that their message names are assigned as they would
+   * be by generating the schemas one after another.
+   */
+  private void nameSchemaClasses(
+      DiscoGapicInterfaceContext documentContext, SchemaTypeTable schemaTypeTable, Schema schema) {
+    DiscoveryField schemaModel = DiscoveryField.create(schema, documentContext.getApiModel());
+    schemaTypeTable.getAndSaveNicknameFor(schemaModel);
+    if (schema.repeated() || schema.type() == Type.ARRAY) {
+      schemaTypeTable.getInnerTypeNameFor(schemaModel);
+    }
+
+    List<Schema> schemaProperties = new ArrayList<>(schema.properties().values());
+    if (schema.items() != null) {
+      schemaProperties.addAll(schema.items().properties().values());
+    }
+    for (Schema property : schemaProperties) {
+      nameSchemaClasses(documentContext, schemaTypeTable, property);
+      if (DiscoveryField.isTopLevelSchema(property)) {
+        schemaTypeTable.getAndSaveNicknameFor(
+            DiscoveryField.create(property, schemaModel.getDiscoApiModel()));
+      }
+    }
+  }
+
   private void addApiImports(ImportTypeTable typeTable) {
     typeTable.getAndSaveNicknameFor("com.google.api.core.BetaApi");
     typeTable.getAndSaveNicknameFor("com.google.api.gax.httpjson.ApiMessage");
@@ -19,7 +19,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableList.Builder;
 import com.google.gson.internal.LinkedTreeMap;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -49,31 +48,15 @@ public abstract class Document implements Node {
    * @return a document.
    */
   public static Document from(DiscoveryNode root) {
-    AuthType authType;
-    DiscoveryNode scopesNode = root.getObject("auth").getObject("oauth2").getObject("scopes");
-
-    ImmutableList.Builder<String> authScopes = new Builder<>();
-    if (scopesNode.isEmpty()) {
-      authType = AuthType.API_KEY;
-    } else {
-      authScopes.addAll(scopesNode.getFieldNames());
-      if (scopesNode.has(CLOUD_PLATFORM_SCOPE)) {
-        authType = AuthType.ADC;
-      } else {
-        authType = AuthType.OAUTH_3L;
-      }
-    }
+    List<String> authScopes =
+        root.getObject("auth").getObject("oauth2").getObject("scopes").getFieldNames();
     String canonicalName = root.getString("canonicalName");
     String description = root.getString("description");
     String id = root.getString("id");
     Map<String, Schema> schemas = parseSchemas(root);
     List<Method> methods = parseMethods(root);
-    Collections.sort(methods); // Ensure methods are ordered alphabetically by their ID.
     String ownerDomain = root.getString("ownerDomain");
     String name = root.getString("name");
-    if (canonicalName.isEmpty()) {
-      canonicalName = name;
-    }
     Map<String, List<Method>> resources = parseResources(root);
     String revision = root.getString("revision");
     String rootUrl = root.getString("rootUrl");
@@ -87,10 +70,66 @@ public abstract class Document implements Node {
             ? root.getString("baseUrl")
             : (rootUrl + Strings.nullToEmpty(root.getString("basePath")));
 
+    return create(
+        authScopes,
+        baseUrl,
+        canonicalName,
+        description,
+        id,
+        methods,
+        name,
+        ownerDomain,
+        resources,
+        revision,
+        rootUrl,
+        schemas,
+        servicePath,
+        title,
+        version,
+        versionModule);
+  }
+
+  /**
+   * Returns a document constructed from its parsed properties, and sets it as the parent of its
+   * methods and schemas.
+   *
+   * @param authScopes the OAuth2 scopes, in the order they are defined.
+   * @param methods all methods, including those of the resources, which are sorted by ID.
+   */
+  static Document create(
+      List<String> authScopes,
+      String baseUrl,
+      String canonicalName,
+      String description,
+      String id,
+      List<Method> methods,
+      String name,
+      String ownerDomain,
+      Map<String, List<Method>> resources,
+      String revision,
+      String rootUrl,
+      Map<String, Schema> schemas,
+      String servicePath,
+      String title,
+      String version,
+      boolean versionModule) {
+    AuthType authType;
+    if (authScopes.isEmpty()) {
+      authType = AuthType.API_KEY;
+    } else if (authScopes.contains(CLOUD_PLATFORM_SCOPE)) {
+      authType = AuthType.ADC;
+    } else {
+      authType = AuthType.OAUTH_3L;
+    }
+    Collections.sort(methods); // Ensure methods are ordered alphabetically by their ID.
+    if (canonicalName.isEmpty()) {
+      canonicalName = name;
+    }
+
     Document thisDocument =
         new AutoValue_Document(
             "", // authInstructionsUrl (only intended to be overridden).
-            authScopes.build(),
+            ImmutableList.copyOf(authScopes),
             authType,
             baseUrl,
             canonicalName,
@@ -120,6 +159,7 @@ public abstract class Document implements Node {
         method.setParent(thisDocument);
       }
     }
+    SchemaGraph.index(thisDocument);
 
     return thisDocument;
   }
@@ -0,0 +1,465 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.api.codegen.discovery.Schema.Format;
+import com.google.api.codegen.discovery.Schema.Type;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.internal.LinkedTreeMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses a Discovery document into a {@link Document} in a single pass over its JSON tokens.
+ *
+ * <p>This builds the same document as {@link Document#from(DiscoveryNode)}, without first reading
+ * the whole JSON into a tree of {@link com.fasterxml.jackson.databind.JsonNode}s: each {@link
+ * Schema} and {@link Method} is built as soon as its object has been read, and the members the
+ * model has no use for are skipped over.
+ */
+public class DocumentParser {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final JsonParser parser;
+
+  private DocumentParser(JsonParser parser) {
+    this.parser = parser;
+  }
+
+  /**
+   * Returns the document read from reader, which is closed afterwards.
+   *
+   * @throws IllegalArgumentException if a member of the document has an unexpected JSON type.
+   */
+  public static Document parse(Reader reader) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(reader)) {
+      parser.nextToken();
+      return new DocumentParser(parser).parseDocument();
+    }
+  }
+
+  private Document parseDocument() throws IOException {
+    List<String> authScopes = new ArrayList<>();
+    String baseUrl = null;
+    String basePath = "";
+    String canonicalName = "";
+    String description = "";
+    String id = "";
+    List<Method> methods = new ArrayList<>();
+    String name = "";
+    String ownerDomain = "";
+    Map<String, List<Method>> resources = new LinkedTreeMap<>();
+    String revision = "";
+    String rootUrl = "";
+    Map<String, Schema> schemas = new HashMap<>();
+    String servicePath = "";
+    String title = "";
+    String version = "";
+    boolean versionModule = false;
+
+    startObject();
+    while (nextField()) {
+      switch (parser.getCurrentName()) {
+        case "auth":
+          parseAuth(authScopes);
+          break;
+        case "baseUrl":
+          baseUrl = readString();
+          break;
+        case "basePath":
+          basePath = readString();
+          break;
+        case "canonicalName":
+          canonicalName = readString();
+          break;
+        case "description":
+          description = readString();
+          break;
+        case "id":
+          id = readString();
+          break;
+        case "methods":
+          parseMethods(methods);
+          break;
+        case "name":
+          name = readString();
+          break;
+        case "ownerDomain":
+          ownerDomain = readString();
+          break;
+        case "resources":
+          parseResources(resources);
+          break;
+        case "revision":
+          revision = readString();
+          break;
+        case "rootUrl":
+          rootUrl = readString();
+          break;
+        case "schemas":
+          startObject();
+          while (nextField()) {
+            String schemaName = parser.getCurrentName();
+            schemas.put(schemaName, parseSchema(schemaName));
+          }
+          break;
+        case "servicePath":
+          servicePath = readString();
+          break;
+        case "title":
+          title = readString();
+          break;
+        case "version":
+          version = readString();
+          break;
+        case "version_module":
+          versionModule = readBoolean();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    // The methods of the document come before those of its resources.
+    for (List<Method> resourceMethods : resources.values()) {
+      methods.addAll(resourceMethods);
+    }
+    if (baseUrl == null) {
+      baseUrl = rootUrl + basePath;
+    }
+    return Document.create(
+        authScopes,
+        baseUrl,
+        canonicalName,
+        description,
+        id,
+        methods,
+        name,
+        ownerDomain,
+        resources,
+        revision,
+        rootUrl,
+        schemas,
+        servicePath,
+        title,
+        version,
+        versionModule);
+  }
+
+  /** Adds the names of the members of auth.oauth2.scopes to authScopes. */
+  private void parseAuth(List<String> authScopes) throws IOException {
+    startObject();
+    while (nextField()) {
+      if (!parser.getCurrentName().equals("oauth2")) {
+        parser.skipChildren();
+        continue;
+      }
+      startObject();
+      while (nextField()) {
+        if (!parser.getCurrentName().equals("scopes")) {
+          parser.skipChildren();
+          continue;
+        }
+        startObject();
+        while (nextField()) {
+          authScopes.add(parser.getCurrentName());
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+
+  /** Adds the methods of the current "methods" object to methods. */
+  private void parseMethods(List<Method> methods) throws IOException {
+    startObject();
+    while (nextField()) {
+      methods.add(parseMethod());
+    }
+  }
+
+  /**
+   * Adds the methods of each resource of the current "resources" object to resources, including
+   * those of its nested resources.
+   */
+  private void parseResources(Map<String, List<Method>> resources) throws IOException {
+    startObject();
+    while (nextField()) {
+      String resourceName = parser.getCurrentName();
+      resources.put(resourceName, parseResource());
+    }
+  }
+
+  /** Returns the methods of the current resource, followed by those of its nested resources. */
+  private List<Method> parseResource() throws IOException {
+    List<Method> methods = new ArrayList<>();
+    Map<String, List<Method>> nestedResources = new LinkedHashMap<>();
+    startObject();
+    while (nextField()) {
+      switch (parser.getCurrentName()) {
+        case "methods":
+          parseMethods(methods);
+          break;
+        case "resources":
+          parseResources(nestedResources);
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+    for (List<Method> nestedMethods : nestedResources.values()) {
+      methods.addAll(nestedMethods);
+    }
+    return methods;
+  }
+
+  private Method parseMethod() throws IOException {
+    String description = "";
+    String flatPath = null;
+    String httpMethod = "";
+    String id = "";
+    Map<String, Schema> parameters = new LinkedHashMap<>();
+    String path = "";
+    Schema request = null;
+    Schema response = null;
+    List<String> scopes = new ArrayList<>();
+    boolean supportsMediaDownload = false;
+    boolean supportsMediaUpload = false;
+
+    startObject();
+    while (nextField()) {
+      switch (parser.getCurrentName()) {
+        case "description":
+          description = readString();
+          break;
+        case "flatPath":
+          flatPath = readString();
+          break;
+        case "httpMethod":
+          httpMethod = readString();
+          break;
+        case "id":
+          id = readString();
+          break;
+        case "parameters":
+          startObject();
+          while (nextField()) {
+            String parameterName = parser.getCurrentName();
+            parameters.put(parameterName, parseSchema(parameterName));
+          }
+          break;
+        case "path":
+          path = readString();
+          break;
+        case "request":
+          request = parseSchema("request");
+          break;
+        case "response":
+          response = parseSchema("response");
+          break;
+        case "scopes":
+          startArray();
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            scopes.add(readString());
+          }
+          break;
+        case "supportsMediaDownload":
+          supportsMediaDownload = readBoolean();
+          break;
+        case "supportsMediaUpload":
+          supportsMediaUpload = readBoolean();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    return Method.create(
+        description,
+        flatPath != null ? flatPath : path,
+        httpMethod,
+        id,
+        parameters,
+        path,
+        request,
+        response,
+        scopes,
+        supportsMediaDownload,
+        supportsMediaUpload,
+        null);
+  }
+
+  /**
+   * Returns the schema of the current object, or an empty schema if it has no members.
+   *
+   * @param key in the parent node's schema map, the key that maps to this schema.
+   */
+  private Schema parseSchema(String key) throws IOException {
+    Schema additionalProperties = null;
+    Schema items = null;
+    Map<String, Schema> properties = new LinkedHashMap<>();
+    String format = "";
+    String type = "";
+    Schema.Builder builder =
+        Schema.newBuilder()
+            .setId("")
+            .setIsEnum(false)
+            .setKey(key)
+            .setRepeated(false)
+            .setRequired(false);
+    boolean empty = true;
+
+    startObject();
+    while (nextField()) {
+      empty = false;
+      switch (parser.getCurrentName()) {
+        case "additionalProperties":
+          additionalProperties = parseSchema("");
+          break;
+        case "default":
+          builder.setDefaultValue(readString());
+          break;
+        case "description":
+          builder.setDescription(readString());
+          break;
+        case "enum":
+          startArray();
+          boolean isEnum = false;
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            isEnum = true;
+            parser.skipChildren();
+          }
+          builder.setIsEnum(isEnum);
+          break;
+        case "format":
+          format = readString();
+          break;
+        case "id":
+          builder.setId(readString());
+          break;
+        case "items":
+          items = parseSchema(key);
+          break;
+        case "location":
+          builder.setLocation(readString());
+          break;
+        case "pattern":
+          builder.setPattern(readString());
+          break;
+        case "properties":
+          startObject();
+          while (nextField()) {
+            String propertyName = parser.getCurrentName();
+            properties.put(propertyName, parseSchema(propertyName));
+          }
+          break;
+        case "$ref":
+          builder.setReference(readString());
+          break;
+        case "repeated":
+          builder.setRepeated(readBoolean());
+          break;
+        case "required":
+          builder.setRequired(readBoolean());
+          break;
+        case "type":
+          type = readString();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+
+    if (empty) {
+      return Schema.empty();
+    }
+    builder
+        .setFormat(Format.getEnum(format))
+        .setProperties(ImmutableMap.copyOf(properties))
+        .setType(Type.getEnum(type));
+    return Schema.build(builder, additionalProperties, items, null);
+  }
+
+  /**
+   * Advances past the name of the next member of the current object to its value, and returns true,
+   * or returns false at the end of the object.
+   */
+  private boolean nextField() throws IOException {
+    if (parser.nextToken() != JsonToken.FIELD_NAME) {
+      return false;
+    }
+    parser.nextToken();
+    return true;
+  }
+
+  private void startObject() throws IOException {
+    expect(JsonToken.START_OBJECT);
+  }
+
+  private void startArray() throws IOException {
+    expect(JsonToken.START_ARRAY);
+  }
+
+  /**
+   * Returns the current scalar value as text, as {@link
+   * com.fasterxml.jackson.databind.JsonNode#asText()} would, so a number or boolean given where a
+   * string is expected is read as written.
+   */
+  private String readString() throws IOException {
+    if (!parser.getCurrentToken().isScalarValue()) {
+      throw unexpected("a string");
+    }
+    return parser.getText();
+  }
+
+  /**
+   * Returns the current scalar value as a boolean, as {@link
+   * com.fasterxml.jackson.databind.JsonNode#asBoolean()} would: "true" and non-zero integers are
+   * true, and other scalars are false. As in {@link DiscoveryNode#getBoolean(String)}, the string
+   * "True" is also true.
+   */
+  private boolean readBoolean() throws IOException {
+    if (!parser.getCurrentToken().isScalarValue()) {
+      throw unexpected("a boolean");
+    }
+    if (parser.getCurrentToken() == JsonToken.VALUE_STRING && parser.getText().equals("True")) {
+      return true;
+    }
+    return parser.getValueAsBoolean();
+  }
+
+  private void expect(JsonToken token) throws IOException {
+    if (parser.getCurrentToken() != token) {
+      throw unexpected(token.toString());
+    }
+  }
+
+  private IllegalArgumentException unexpected(String expected) throws IOException {
+    return new IllegalArgumentException(
+        String.format(
+            "Expected %s for \"%s\" but found %s at %s",
+            expected,
+            parser.getCurrentName(),
+            parser.getCurrentToken(),
+            parser.getTokenLocation()));
+  }
+}
@@ -18,6 +18,7 @@ import com.google.auto.value.AutoValue;
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -44,12 +45,63 @@ public abstract class Method implements Comparable<Method>, Node {
     String flatPath = root.has("flatPath") ? root.getString("flatPath") : path;
 
     DiscoveryNode parametersNode = root.getObject("parameters");
+    Map<String, Schema> parameters = new LinkedHashMap<>();
+    for (String name : parametersNode.getFieldNames()) {
+      parameters.put(name, Schema.from(parametersNode.getObject(name), name, null));
+    }
+
+    Schema request = Schema.from(root.getObject("request"), "request", null);
+    Schema response = Schema.from(root.getObject("response"), "response", null);
+    List<String> scopes = new ArrayList<>();
+    for (DiscoveryNode scopeNode : root.getArray("scopes").getElements()) {
+      scopes.add(scopeNode.asText());
+    }
+    boolean supportsMediaDownload = root.getBoolean("supportsMediaDownload");
+    boolean supportsMediaUpload = root.getBoolean("supportsMediaUpload");
+
+    return create(
+        description,
+        flatPath,
+        httpMethod,
+        id,
+        parameters,
+        path,
+        request,
+        response,
+        scopes,
+        supportsMediaDownload,
+        supportsMediaUpload,
+        parent);
+  }
+
+  /**
+   * Returns a method constructed from its parsed properties, and sets it as the parent of its
+   * schemas.
+   *
+   * @param parsedParameters the parameter schemas, in the order they are defined.
+   * @param request the request schema, or null or an empty schema if none.
+   * @param response the response schema, or null or an empty schema if none.
+   */
+  static Method create(
+      String description,
+      String flatPath,
+      String httpMethod,
+      String id,
+      Map<String, Schema> parsedParameters,
+      String path,
+      @Nullable Schema request,
+      @Nullable Schema response,
+      List<String> scopes,
+      boolean supportsMediaDownload,
+      boolean supportsMediaUpload,
+      Node parent) {
     Map<String, Schema> parameters = new HashMap<>();
     Map<String, Schema> queryParams = new HashMap<>();
     Map<String, Schema> pathParams = new HashMap<>();
 
-    for (String name : root.getObject("parameters").getFieldNames()) {
-      Schema schema = Schema.from(parametersNode.getObject(name), name, null);
+    for (Map.Entry<String, Schema> entry : parsedParameters.entrySet()) {
+      String name = entry.getKey();
+      Schema schema = entry.getValue();
       // TODO: Remove these checks once we're sure that parameters can't be objects/arrays.
       // This is based on the assumption that these types can't be serialized as a query or path
       // parameter.
@@ -64,20 +116,12 @@ public abstract class Method implements Comparable<Method>, Node {
       }
     }
 
-    Schema request = Schema.from(root.getObject("request"), "request", null);
-    if (request.reference().isEmpty()) {
+    if (request != null && request.reference().isEmpty()) {
       request = null;
     }
-    Schema response = Schema.from(root.getObject("response"), "response", null);
-    if (response.reference().isEmpty()) {
+    if (response != null && response.reference().isEmpty()) {
       response = null;
     }
-    List<String> scopes = new ArrayList<>();
-    for (DiscoveryNode scopeNode : root.getArray("scopes").getElements()) {
-      scopes.add(scopeNode.asText());
-    }
-    boolean supportsMediaDownload = root.getBoolean("supportsMediaDownload");
-    boolean supportsMediaUpload = root.getBoolean("supportsMediaUpload");
 
     Method thisMethod =
         new AutoValue_Method(
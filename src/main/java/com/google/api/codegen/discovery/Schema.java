@@ -19,14 +19,8 @@ import com.google.auto.value.AutoValue;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
-import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -47,20 +41,14 @@ public abstract class Schema implements Node {
    * @return the first non-reference schema, or this if this schema references no other.
    */
   public Schema dereference() {
-    if (!Strings.isNullOrEmpty(reference())) {
-      Node document = parent;
-      while (document != null && !(document instanceof Document)) {
-        document = document.parent();
-      }
-      if (document != null) {
-        Schema schema = ((Document) document).schemas().get(reference());
-        // If a document is an eventual parent of this schema, then reference() must be a key in the
-        // document's "schemas" object.
-        Preconditions.checkState(schema != null);
-        return schema;
-      }
+    if (graph != null) {
+      return graph.dereference(graphIndex);
     }
-    return this;
+    Schema schema = SchemaGraph.resolve(this);
+    // If a document is an eventual parent of this schema, then reference() must be a key in the
+    // document's "schemas" object.
+    Preconditions.checkState(schema != null);
+    return schema;
   }
 
   /**
@@ -69,55 +57,11 @@ public abstract class Schema implements Node {
    * Returns an empty list if the target is not found.
    */
   public List<Schema> findChild(String childName) {
-    Set<Schema> visitedNodes = new HashSet<>();
-    Map<Schema, Schema> nodeToPrevNode = new HashMap<>();
-
-    Schema currentNode = this;
-    Queue<Schema> queue = new LinkedList<>();
-    queue.add(this);
-    visitedNodes.add(this);
-
-    // BFS to find the target node.
-    while (queue.size() != 0 && !currentNode.getIdentifier().equals(childName)) {
-      currentNode = queue.poll().dereference();
-
-      // Add all direct children of current node to local queue.
-      Queue<Schema> localQueue = new LinkedList<>();
-      if (currentNode.properties() != null && currentNode.properties().size() > 0) {
-        localQueue.addAll(currentNode.properties().values());
-      }
-      if (currentNode.additionalProperties() != null) {
-        localQueue.add(currentNode.additionalProperties());
-      }
-
-      while (localQueue.peek() != null) {
-        Schema next = localQueue.poll().dereference();
-
-        if (next.getIdentifier().equals(childName)) {
-          // Success.
-          nodeToPrevNode.put(next, currentNode);
-          currentNode = next;
-          break;
-        }
-        if (!visitedNodes.contains(next)) {
-          nodeToPrevNode.put(next, currentNode);
-          visitedNodes.add(next);
-          queue.add(next);
-        }
-      }
-    }
-
-    // Get the path to the schema.
-    List<Schema> pathToChild = new LinkedList<>();
-    if (currentNode.getIdentifier().equals(childName)) {
-      while (!currentNode.equals(this)) {
-        pathToChild.add(0, currentNode);
-        currentNode = nodeToPrevNode.get(currentNode);
-      }
-      pathToChild.add(0, currentNode);
+    if (graph != null) {
+      return graph.findChild(graphIndex, childName);
     }
-
-    return pathToChild;
+    // The root of a detached graph has index 0.
+    return SchemaGraph.detached(this).findChild(0, childName);
   }
 
   /**
@@ -133,18 +77,12 @@ public abstract class Schema implements Node {
       return empty();
     }
     Schema additionalProperties = Schema.from(root.getObject("additionalProperties"), "", null);
-    if (additionalProperties.type() == Type.EMPTY && additionalProperties.reference().isEmpty()) {
-      additionalProperties = null;
-    }
     String defaultValue = root.getString("default");
     String description = root.getString("description");
     Format format = Format.getEnum(root.getString("format"));
     String id = root.getString("id");
     boolean isEnum = !root.getArray("enum").isEmpty();
     Schema items = Schema.from(root.getObject("items"), key, null);
-    if (items.type() == Type.EMPTY && items.reference().isEmpty()) {
-      items = null;
-    }
     String location = root.getString("location");
     String pattern = root.getString("pattern");
 
@@ -160,19 +98,13 @@ public abstract class Schema implements Node {
     boolean required = root.getBoolean("required");
     Type type = Type.getEnum(root.getString("type"));
 
-    // additionalProperties is a dynamically-keyed map in Discovery docs.
-    boolean isMap = additionalProperties != null;
-
-    Schema thisSchema =
+    Schema.Builder builder =
         Schema.newBuilder()
-            .setAdditionalProperties(additionalProperties)
             .setDefaultValue(defaultValue)
             .setDescription(description)
             .setFormat(format)
             .setId(id)
             .setIsEnum(isEnum)
-            .setIsMap(isMap)
-            .setItems(items)
             .setKey(key)
             .setLocation(location)
             .setPattern(pattern)
@@ -180,13 +112,40 @@ public abstract class Schema implements Node {
             .setReference(reference)
             .setRepeated(repeated)
             .setRequired(required)
-            .setType(type)
+            .setType(type);
+    return build(builder, additionalProperties, items, parent);
+  }
+
+  /**
+   * Returns a schema built from builder, which must have all properties but additionalProperties,
+   * isMap and items set, and sets it as the parent of its child schemas.
+   *
+   * @param additionalProperties the parsed additionalProperties, if any.
+   * @param items the parsed items, if any.
+   * @param parent the parent of this schema.
+   */
+  static Schema build(
+      Builder builder, @Nullable Schema additionalProperties, @Nullable Schema items, Node parent) {
+    if (additionalProperties != null && isEmpty(additionalProperties)) {
+      additionalProperties = null;
+    }
+    if (items != null && isEmpty(items)) {
+      items = null;
+    }
+    // additionalProperties is a dynamically-keyed map in Discovery docs.
+    boolean isMap = additionalProperties != null;
+
+    Schema thisSchema =
+        builder
+            .setAdditionalProperties(additionalProperties)
+            .setIsMap(isMap)
+            .setItems(items)
             .build();
     thisSchema.parent = parent;
     if (items != null) {
       items.setParent(thisSchema);
     }
-    for (Schema schema : properties.values()) {
+    for (Schema schema : thisSchema.properties().values()) {
       schema.setParent(thisSchema);
     }
     if (additionalProperties != null) {
@@ -196,6 +155,10 @@ public abstract class Schema implements Node {
     return thisSchema;
   }
 
+  private static boolean isEmpty(Schema schema) {
+    return schema.type() == Type.EMPTY && schema.reference().isEmpty();
+  }
+
   /** @return a non-null identifier for this schema. */
   public String getIdentifier() {
     return Strings.isNullOrEmpty(id()) ? key() : id();
@@ -216,6 +179,11 @@ public abstract class Schema implements Node {
 
   @JsonIgnore @Nullable private Node parent;
 
+  /** The index of the document's schemas, once this schema has been indexed. */
+  @JsonIgnore @Nullable private SchemaGraph graph;
+
+  private int graphIndex;
+
   /** @return the {@link Node} that contains this Schema. */
   @Nullable
   public Node parent() {
@@ -226,6 +194,11 @@ public abstract class Schema implements Node {
     this.parent = parent;
   }
 
+  void setGraph(SchemaGraph graph, int graphIndex) {
+    this.graph = graph;
+    this.graphIndex = graphIndex;
+  }
+
   /** @return the schema of the additionalProperties, or null if none. */
   @Nullable
   public abstract Schema additionalProperties();
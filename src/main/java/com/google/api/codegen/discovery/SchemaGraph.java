@@ -0,0 +1,260 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * An index of the schemas of a {@link Document}, built once the document is complete, which turns
+ * {@link Schema#dereference()} and {@link Schema#findChild(String)} into array lookups.
+ *
+ * <p>Each schema reachable from the document is given an integer index. The index of the schema it
+ * references, and the indexes of the (dereferenced) children searched by findChild, are resolved up
+ * front, and the paths found by findChild are memoized.
+ */
+class SchemaGraph {
+  /** The index of a schema whose reference cannot be resolved. */
+  private static final int UNRESOLVED = -1;
+
+  private final Schema[] schemas;
+
+  /** The index of the schema each schema references, or its own index if it references none. */
+  private final int[] dereferenced;
+
+  /**
+   * The children findChild visits from each schema: the dereferenced properties and
+   * additionalProperties of the schema it dereferences to.
+   */
+  private final int[][] children;
+
+  /**
+   * For each schema, a number shared by the schemas {@link Schema#equals} to it. findChild marks
+   * schemas as visited by equality, not identity, so equal schemas share their visited state.
+   */
+  private final int[] equalityClasses;
+
+  private final Map<ChildQuery, List<Schema>> childPaths = new ConcurrentHashMap<>();
+
+  private SchemaGraph(List<Schema> schemas) {
+    int size = schemas.size();
+    this.schemas = schemas.toArray(new Schema[size]);
+    Map<Schema, Integer> indexes = new IdentityHashMap<>();
+    for (int i = 0; i < size; ++i) {
+      indexes.put(this.schemas[i], i);
+    }
+
+    dereferenced = new int[size];
+    for (int i = 0; i < size; ++i) {
+      Schema target = resolve(this.schemas[i]);
+      dereferenced[i] = target == null ? UNRESOLVED : indexes.get(target);
+    }
+
+    children = new int[size][];
+    for (int i = 0; i < size; ++i) {
+      if (dereferenced[i] == UNRESOLVED) {
+        continue;
+      }
+      Schema schema = this.schemas[dereferenced[i]];
+      List<Schema> childSchemas = new ArrayList<>(schema.properties().values());
+      if (schema.additionalProperties() != null) {
+        childSchemas.add(schema.additionalProperties());
+      }
+      children[i] = new int[childSchemas.size()];
+      for (int j = 0; j < childSchemas.size(); ++j) {
+        children[i][j] = dereferenced[indexes.get(childSchemas.get(j))];
+      }
+    }
+
+    equalityClasses = new int[size];
+    Map<Schema, Integer> firstEqual = new HashMap<>();
+    for (int i = 0; i < size; ++i) {
+      equalityClasses[i] = firstEqual.computeIfAbsent(this.schemas[i], k -> firstEqual.size());
+    }
+  }
+
+  /**
+   * Indexes the schemas of document: its top-level schemas, the parameter, request and response
+   * schemas of its methods, and all of their descendants.
+   */
+  static void index(Document document) {
+    List<Schema> schemas = new ArrayList<>();
+    Map<Schema, Boolean> visited = new IdentityHashMap<>();
+    for (Schema schema : document.schemas().values()) {
+      collect(schema, schemas, visited);
+    }
+    List<Method> methods = new ArrayList<>(document.methods());
+    for (List<Method> resourceMethods : document.resources().values()) {
+      methods.addAll(resourceMethods);
+    }
+    for (Method method : methods) {
+      for (Schema schema : method.parameters().values()) {
+        collect(schema, schemas, visited);
+      }
+      collect(method.request(), schemas, visited);
+      collect(method.response(), schemas, visited);
+    }
+
+    SchemaGraph graph = new SchemaGraph(schemas);
+    for (int i = 0; i < schemas.size(); ++i) {
+      schemas.get(i).setGraph(graph, i);
+    }
+  }
+
+  /**
+   * Returns a graph of root, the schemas it references and their descendants, for a schema which
+   * was not indexed with a document. The graph is not kept by the schemas.
+   */
+  static SchemaGraph detached(Schema root) {
+    List<Schema> schemas = new ArrayList<>();
+    collect(root, schemas, new IdentityHashMap<>());
+    return new SchemaGraph(schemas);
+  }
+
+  /**
+   * Returns the schema that schema references, found in its eventual parent document; schema itself
+   * if it references none or has no document; or null if the reference is not in the document.
+   */
+  @Nullable
+  static Schema resolve(Schema schema) {
+    if (Strings.isNullOrEmpty(schema.reference())) {
+      return schema;
+    }
+    Node document = schema.parent();
+    while (document != null && !(document instanceof Document)) {
+      document = document.parent();
+    }
+    if (document == null) {
+      return schema;
+    }
+    return ((Document) document).schemas().get(schema.reference());
+  }
+
+  private static void collect(Schema schema, List<Schema> schemas, Map<Schema, Boolean> visited) {
+    if (schema == null || visited.put(schema, true) != null) {
+      return;
+    }
+    schemas.add(schema);
+    collect(resolve(schema), schemas, visited);
+    collect(schema.items(), schemas, visited);
+    for (Schema property : schema.properties().values()) {
+      collect(property, schemas, visited);
+    }
+    collect(schema.additionalProperties(), schemas, visited);
+  }
+
+  /** Returns the schema the schema at index references, or that schema if it references none. */
+  Schema dereference(int index) {
+    // If a document is an eventual parent of this schema, then reference() must be a key in the
+    // document's "schemas" object.
+    Preconditions.checkState(dereferenced[index] != UNRESOLVED);
+    return schemas[dereferenced[index]];
+  }
+
+  /** Returns {@link Schema#findChild(String)} of the schema at index. */
+  List<Schema> findChild(int index, String childName) {
+    ChildQuery query = new ChildQuery(index, childName);
+    List<Schema> path = childPaths.get(query);
+    if (path == null) {
+      path = search(index, childName);
+      childPaths.put(query, path);
+    }
+    return path;
+  }
+
+  private List<Schema> search(int start, String childName) {
+    BitSet visited = new BitSet();
+    int[] previous = new int[schemas.length];
+    Arrays.fill(previous, -1);
+
+    int current = start;
+    int[] queue = new int[schemas.length + 1];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    visited.set(equalityClasses[start]);
+
+    // BFS to find the target node.
+    while (head != tail && !schemas[current].getIdentifier().equals(childName)) {
+      int polled = queue[head++];
+      current = dereferenced[polled];
+      Preconditions.checkState(current != UNRESOLVED);
+
+      for (int next : children[polled]) {
+        Preconditions.checkState(next != UNRESOLVED);
+        if (schemas[next].getIdentifier().equals(childName)) {
+          // Success.
+          previous[equalityClasses[next]] = current;
+          current = next;
+          break;
+        }
+        if (!visited.get(equalityClasses[next])) {
+          previous[equalityClasses[next]] = current;
+          visited.set(equalityClasses[next]);
+          queue[tail++] = next;
+        }
+      }
+    }
+
+    // Get the path to the schema.
+    if (!schemas[current].getIdentifier().equals(childName)) {
+      return ImmutableList.of();
+    }
+    List<Schema> pathToChild = new ArrayList<>();
+    while (equalityClasses[current] != equalityClasses[start]) {
+      pathToChild.add(schemas[current]);
+      current = previous[equalityClasses[current]];
+      // A path that never leads back to start, such as when start references another schema.
+      Preconditions.checkState(current != -1 && pathToChild.size() <= schemas.length);
+    }
+    pathToChild.add(schemas[current]);
+    return ImmutableList.copyOf(pathToChild).reverse();
+  }
+
+  private static class ChildQuery {
+    private final int index;
+    private final String childName;
+
+    private ChildQuery(int index, String childName) {
+      this.index = index;
+      this.childName = childName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ChildQuery)) {
+        return false;
+      }
+      ChildQuery other = (ChildQuery) o;
+      return index == other.index && childName.equals(other.childName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(index, childName);
+    }
+  }
+}
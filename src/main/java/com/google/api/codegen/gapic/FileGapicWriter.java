@@ -18,24 +18,65 @@ import com.google.api.codegen.common.GeneratedResult;
 import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.SimpleLocation;
-import com.google.api.tools.framework.tools.ToolUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import javax.annotation.Nonnull;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.annotation.Nullable;
 
-/** A class that writes Gapic output to disk. */
+/**
+ * A class that writes Gapic output to disk.
+ *
+ * <p>In incremental mode, a manifest of the SHA-256 hash of every generated file is kept in the
+ * output directory. A file whose content on disk already matches the generated content is not
+ * rewritten, so its modification time is preserved, and files generated by the previous run but not
+ * by this one are deleted. Incremental mode has no effect on jar output.
+ */
 public class FileGapicWriter implements GapicWriter {
 
+  /** The name of the manifest file kept in the output directory in incremental mode. */
+  public static final String MANIFEST_FILE_NAME = ".gapic_manifest";
+
+  private static final String MANIFEST_SEPARATOR = "  ";
+
   private final String outputPath;
+  private final boolean incremental;
+  private final GeneratedBodyWriter bodyWriter = new GeneratedBodyWriter();
+  private final Set<String> executables = new LinkedHashSet<>();
+  private JarOutputStream jarOutput;
   private boolean isDone = false;
 
+  // Incremental mode state.
+  private Map<String, String> previousHashes;
+  private final Map<String, String> hashes = new TreeMap<>();
+  private final List<String> added = new ArrayList<>();
+  private final List<String> changed = new ArrayList<>();
+  private int unchangedCount = 0;
+  private OutputChanges outputChanges;
+
   public FileGapicWriter(String outputPath) {
+    this(outputPath, false);
+  }
+
+  public FileGapicWriter(String outputPath, boolean incremental) {
     this.outputPath = outputPath;
+    this.incremental = incremental && !isJarOutput(outputPath);
   }
 
   @Override
@@ -44,33 +85,187 @@ public class FileGapicWriter implements GapicWriter {
   }
 
   @Override
-  public void writeCodeGenOutput(
-      @Nonnull Map<String, GeneratedResult<?>> generatedResults, DiagCollector diagCollector)
-      throws IOException {
-    Map<String, Object> outputFiles = GeneratedResult.extractBodiesGeneric(generatedResults);
+  public void writeOutputFile(String path, GeneratedResult<?> result) throws IOException {
+    Object body = result.getBody();
+    if (result.isExecutable()) {
+      executables.add(path);
+    }
 
-    writeCodeGenOutput(outputFiles, outputPath);
+    // TODO: Support zip output.
+    if (isJarOutput(outputPath)) {
+      if (jarOutput == null) {
+        jarOutput = new JarOutputStream(new FileOutputStream(outputPath));
+      }
+      jarOutput.putNextEntry(new JarEntry(path));
+      bodyWriter.write(body, jarOutput);
+      jarOutput.closeEntry();
+    } else if (incremental) {
+      writeIfChanged(path, body);
+    } else {
+      File file = outputFile(path);
+      createParentDirectories(file);
+      try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+        bodyWriter.write(body, output);
+      }
+    }
+  }
 
-    Set<String> executables =
-        generatedResults
-            .entrySet()
-            .stream()
-            .filter(e -> e.getValue().isExecutable())
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toSet());
+  @Override
+  public void finish(DiagCollector diagCollector) throws IOException {
+    closeOutput();
+    if (incremental) {
+      finishIncremental();
+    }
     setOutputFilesPermissions(executables, outputPath, diagCollector);
-
     isDone = true;
   }
 
-  @VisibleForTesting
-  void writeCodeGenOutput(Map<String, Object> outputFiles, String outputPath) throws IOException {
-    // TODO: Support zip output.
-    if (outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar")) {
-      ToolUtil.writeJar(outputFiles, outputPath);
+  /**
+   * Closes the output without completing it. A partially written jar is deleted; files written to a
+   * directory are left in place, and in incremental mode the manifest is not updated.
+   */
+  @Override
+  public void abort() throws IOException {
+    if (jarOutput != null) {
+      try {
+        jarOutput.close();
+      } finally {
+        jarOutput = null;
+        Files.deleteIfExists(new File(outputPath).toPath());
+      }
+    }
+  }
+
+  /**
+   * Returns the files added, changed and removed by an incremental run, or null if the writer is
+   * not in incremental mode or has not finished.
+   */
+  @Nullable
+  public OutputChanges getOutputChanges() {
+    return outputChanges;
+  }
+
+  private void writeIfChanged(String path, Object body) throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    bodyWriter.write(body, buffer);
+    byte[] content = buffer.toByteArray();
+    String hash = Hashing.sha256().hashBytes(content).toString();
+    hashes.put(path, hash);
+
+    File file = outputFile(path);
+    if (!file.isFile()) {
+      added.add(path);
+    } else if (isUnchanged(file, content, previousHashes().get(path), hash)) {
+      ++unchangedCount;
+      return;
     } else {
-      ToolUtil.writeFiles(outputFiles, outputPath);
+      changed.add(path);
+    }
+    createParentDirectories(file);
+    Files.write(file.toPath(), content);
+  }
+
+  private static boolean isUnchanged(
+      File file, byte[] content, @Nullable String previousHash, String hash) throws IOException {
+    if (file.length() != content.length) {
+      return false;
+    }
+    // Content generated differently than in the previous run is rewritten without reading the
+    // file. Otherwise the file itself is compared, as it may have been edited since.
+    if (previousHash != null && !previousHash.equals(hash)) {
+      return false;
+    }
+    return Arrays.equals(Files.readAllBytes(file.toPath()), content);
+  }
+
+  private void finishIncremental() throws IOException {
+    List<String> removed = new ArrayList<>();
+    for (String path : previousHashes().keySet()) {
+      if (!hashes.containsKey(path)) {
+        Files.deleteIfExists(outputFile(path).toPath());
+        removed.add(path);
+      }
+    }
+
+    List<String> manifest = new ArrayList<>(hashes.size());
+    for (Map.Entry<String, String> entry : hashes.entrySet()) {
+      manifest.add(entry.getValue() + MANIFEST_SEPARATOR + entry.getKey());
     }
+    File manifestFile = outputFile(MANIFEST_FILE_NAME);
+    createParentDirectories(manifestFile);
+    Files.write(manifestFile.toPath(), manifest, StandardCharsets.UTF_8);
+
+    outputChanges = OutputChanges.create(added, changed, removed, unchangedCount);
+  }
+
+  /** Reads the manifest of the previous run, in the "{hash} {path}" format of sha256sum. */
+  private Map<String, String> previousHashes() throws IOException {
+    if (previousHashes == null) {
+      previousHashes = new TreeMap<>();
+      File manifestFile = outputFile(MANIFEST_FILE_NAME);
+      if (manifestFile.isFile()) {
+        for (String line : Files.readAllLines(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+          int separator = line.indexOf(MANIFEST_SEPARATOR);
+          if (separator > 0) {
+            previousHashes.put(
+                line.substring(separator + MANIFEST_SEPARATOR.length()),
+                line.substring(0, separator));
+          }
+        }
+      }
+    }
+    return previousHashes;
+  }
+
+  private File outputFile(String path) {
+    return Strings.isNullOrEmpty(outputPath) ? new File(path) : new File(outputPath, path);
+  }
+
+  private static void createParentDirectories(File file) {
+    File parent = file.getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+  }
+
+  /**
+   * Writes the given file bodies, none of them executable, to outputPath, which is a directory or a
+   * jar file. The bodies can be of any type handled by {@link #writeOutputFile}. If a body fails to
+   * be written, the output is aborted (see {@link #abort}) and the failure is rethrown.
+   */
+  public static void writeFiles(
+      Map<String, ?> outputFiles, String outputPath, DiagCollector diagCollector)
+      throws IOException {
+    FileGapicWriter writer = new FileGapicWriter(outputPath);
+    try {
+      for (Map.Entry<String, ?> entry : outputFiles.entrySet()) {
+        writer.writeOutputFile(entry.getKey(), GeneratedResult.create(entry.getValue(), false));
+      }
+      writer.finish(diagCollector);
+    } catch (IOException | RuntimeException e) {
+      try {
+        writer.abort();
+      } catch (IOException abortFailure) {
+        e.addSuppressed(abortFailure);
+      }
+      throw e;
+    }
+  }
+
+  private void closeOutput() throws IOException {
+    if (!isJarOutput(outputPath)) {
+      return;
+    }
+    // An empty jar is still written when nothing was generated.
+    if (jarOutput == null) {
+      jarOutput = new JarOutputStream(new FileOutputStream(outputPath));
+    }
+    jarOutput.close();
+    jarOutput = null;
+  }
+
+  private static boolean isJarOutput(String outputPath) {
+    return outputPath.endsWith(".jar") || outputPath.endsWith(".srcjar");
   }
 
   @VisibleForTesting
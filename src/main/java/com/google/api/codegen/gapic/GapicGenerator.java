@@ -17,17 +17,37 @@ package com.google.api.codegen.gapic;
 import com.google.api.codegen.common.CodeGenerator;
 import com.google.api.codegen.common.GeneratedResult;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.InterfaceModel;
 import com.google.api.codegen.config.ProtoApiModel;
+import com.google.api.codegen.config.ProtoInterfaceModel;
 import com.google.api.codegen.rendering.CommonSnippetSetRunner;
+import com.google.api.codegen.transformer.IncrementalModelToViewTransformer;
+import com.google.api.codegen.transformer.InterfaceViewModels;
 import com.google.api.codegen.transformer.ModelToViewTransformer;
 import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.Model;
 import com.google.api.tools.framework.model.stages.Merged;
 import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 
 /* CodeGenerator for proto-based GAPIC libraries that uses ViewModels to render the templates. */
 public class GapicGenerator implements CodeGenerator<Doc> {
@@ -35,16 +55,22 @@ public class GapicGenerator implements CodeGenerator<Doc> {
   private final GapicProductConfig productConfig;
   private final CommonSnippetSetRunner snippetSetRunner;
   private final ModelToViewTransformer<ProtoApiModel> modelToViewTransformer;
+  private final int renderingThreads;
+  @Nullable private final InterfaceOutputCache interfaceOutputCache;
 
   private GapicGenerator(
       Model model,
       GapicProductConfig productConfig,
       CommonSnippetSetRunner snippetSetRunner,
-      ModelToViewTransformer<ProtoApiModel> modelToViewTransformer) {
+      ModelToViewTransformer<ProtoApiModel> modelToViewTransformer,
+      int renderingThreads,
+      @Nullable InterfaceOutputCache interfaceOutputCache) {
     this.model = model;
     this.productConfig = productConfig;
     this.snippetSetRunner = snippetSetRunner;
     this.modelToViewTransformer = modelToViewTransformer;
+    this.renderingThreads = renderingThreads;
+    this.interfaceOutputCache = interfaceOutputCache;
   }
 
   @Override
@@ -52,28 +78,155 @@ public class GapicGenerator implements CodeGenerator<Doc> {
     return modelToViewTransformer.getTemplateFileNames();
   }
 
+  @VisibleForTesting
+  ModelToViewTransformer<ProtoApiModel> getModelToViewTransformer() {
+    return modelToViewTransformer;
+  }
+
+  @VisibleForTesting
+  CommonSnippetSetRunner getSnippetSetRunner() {
+    return snippetSetRunner;
+  }
+
   @Override
   public Map<String, GeneratedResult<Doc>> generate() {
+    return generate(model.getDiagReporter().getDiagCollector());
+  }
+
+  @Override
+  public Map<String, GeneratedResult<Doc>> generate(DiagCollector diagCollector) {
     // Establish required stage for generation.
     model.establishStage(Merged.KEY);
-    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+    if (diagCollector.getErrorCount() > 0) {
       return null;
     }
 
+    if (interfaceOutputCache != null
+        && modelToViewTransformer instanceof IncrementalModelToViewTransformer) {
+      return generateIncrementally(
+          (IncrementalModelToViewTransformer<ProtoApiModel>) modelToViewTransformer, diagCollector);
+    }
+
     List<ViewModel> surfaceDocs =
         modelToViewTransformer.transform(new ProtoApiModel(model), productConfig);
-    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+    if (diagCollector.getErrorCount() > 0) {
       return null;
     }
 
     Map<String, GeneratedResult<Doc>> results = new TreeMap<>();
-    for (ViewModel surfaceDoc : surfaceDocs) {
-      results.putAll(snippetSetRunner.generate(surfaceDoc));
+    for (Map<String, GeneratedResult<Doc>> rendered : render(surfaceDocs)) {
+      results.putAll(rendered);
     }
 
     return results;
   }
 
+  /**
+   * Generates the output of interfaces whose inputs are unchanged from the interface output cache,
+   * and transforms and renders only the remaining interfaces, adding their output to the cache.
+   */
+  private Map<String, GeneratedResult<Doc>> generateIncrementally(
+      IncrementalModelToViewTransformer<ProtoApiModel> transformer, DiagCollector diagCollector) {
+    ProtoApiModel apiModel = new ProtoApiModel(model);
+    String generatorId =
+        transformer.getClass().getName() + transformer.getTemplateFileNames().toString();
+
+    Map<String, GeneratedResult<Doc>> results = new TreeMap<>();
+    Map<String, String> cacheKeys = new HashMap<>();
+    Set<String> skippedInterfaces = new HashSet<>();
+    for (InterfaceModel apiInterface : apiModel.getInterfaces(productConfig)) {
+      if (!productConfig.hasInterfaceConfig(apiInterface)) {
+        continue;
+      }
+      String cacheKey =
+          interfaceOutputCache.getKey(
+              ((ProtoInterfaceModel) apiInterface).getInterface(), generatorId);
+      Map<String, GeneratedResult<Doc>> cached = interfaceOutputCache.get(cacheKey);
+      if (cached != null) {
+        results.putAll(cached);
+        skippedInterfaces.add(apiInterface.getFullName());
+      } else {
+        cacheKeys.put(apiInterface.getFullName(), cacheKey);
+      }
+    }
+
+    InterfaceViewModels surfaceDocs =
+        transformer.transformInterfaces(apiModel, productConfig, skippedInterfaces);
+    if (diagCollector.getErrorCount() > 0) {
+      return null;
+    }
+
+    for (Map<String, GeneratedResult<Doc>> rendered : render(surfaceDocs.getSharedViewModels())) {
+      results.putAll(rendered);
+    }
+    ImmutableListMultimap<String, ViewModel> interfaceDocs = surfaceDocs.getInterfaceViewModels();
+    for (String interfaceName : interfaceDocs.keySet()) {
+      Map<String, GeneratedResult<Doc>> interfaceResults = new TreeMap<>();
+      for (Map<String, GeneratedResult<Doc>> rendered : render(interfaceDocs.get(interfaceName))) {
+        interfaceResults.putAll(rendered);
+      }
+      interfaceOutputCache.put(cacheKeys.get(interfaceName), interfaceResults);
+      results.putAll(interfaceResults);
+    }
+
+    return results;
+  }
+
+  /**
+   * Renders the given view models, returning the results in the same order as the input. View
+   * models are independent of each other, so when more than one rendering thread is configured they
+   * are rendered concurrently, and each result is also pretty-printed on its rendering thread;
+   * merging the results in input order keeps the output identical to the serial path. If rendering
+   * fails, the failure of the first failing view model is rethrown.
+   */
+  private List<Map<String, GeneratedResult<Doc>>> render(List<ViewModel> surfaceDocs) {
+    List<Map<String, GeneratedResult<Doc>>> rendered = new ArrayList<>(surfaceDocs.size());
+    if (renderingThreads <= 1 || surfaceDocs.size() <= 1) {
+      for (ViewModel surfaceDoc : surfaceDocs) {
+        rendered.add(snippetSetRunner.generate(surfaceDoc));
+      }
+      return rendered;
+    }
+
+    List<Callable<Map<String, GeneratedResult<Doc>>>> tasks = new ArrayList<>(surfaceDocs.size());
+    for (ViewModel surfaceDoc : surfaceDocs) {
+      tasks.add(() -> prettyPrint(snippetSetRunner.generate(surfaceDoc)));
+    }
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(renderingThreads, surfaceDocs.size()));
+    try {
+      for (Future<Map<String, GeneratedResult<Doc>>> future : executor.invokeAll(tasks)) {
+        rendered.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while rendering view models", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    return rendered;
+  }
+
+  /**
+   * Returns the results with each body replaced by its pretty-printed text, which the writers
+   * output verbatim.
+   */
+  private static Map<String, GeneratedResult<Doc>> prettyPrint(
+      Map<String, GeneratedResult<Doc>> results) {
+    Map<String, GeneratedResult<Doc>> printed = new LinkedHashMap<>();
+    for (Map.Entry<String, GeneratedResult<Doc>> entry : results.entrySet()) {
+      StringBuilder text = new StringBuilder();
+      entry.getValue().getBody().prettyPrint(text);
+      printed.put(
+          entry.getKey(),
+          GeneratedResult.create(Doc.text(text.toString()), entry.getValue().isExecutable()));
+    }
+    return printed;
+  }
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -83,6 +236,8 @@ public class GapicGenerator implements CodeGenerator<Doc> {
     private GapicProductConfig productConfig;
     private CommonSnippetSetRunner snippetSetRunner;
     private ModelToViewTransformer<ProtoApiModel> modelToViewTransformer;
+    private int renderingThreads = 1;
+    private InterfaceOutputCache interfaceOutputCache;
 
     private Builder() {}
 
@@ -107,8 +262,33 @@ public class GapicGenerator implements CodeGenerator<Doc> {
       return this;
     }
 
+    /**
+     * Sets the number of threads used to render view models. The default of 1 renders serially; any
+     * larger value renders view models concurrently with identical output.
+     */
+    public Builder setRenderingThreads(int renderingThreads) {
+      Preconditions.checkArgument(renderingThreads > 0, "renderingThreads must be positive");
+      this.renderingThreads = renderingThreads;
+      return this;
+    }
+
+    /**
+     * Sets the cache holding the output of previously generated interfaces. It is only used with an
+     * {@link IncrementalModelToViewTransformer}; the default of null disables caching.
+     */
+    public Builder setInterfaceOutputCache(@Nullable InterfaceOutputCache interfaceOutputCache) {
+      this.interfaceOutputCache = interfaceOutputCache;
+      return this;
+    }
+
     public GapicGenerator build() {
-      return new GapicGenerator(model, productConfig, snippetSetRunner, modelToViewTransformer);
+      return new GapicGenerator(
+          model,
+          productConfig,
+          snippetSetRunner,
+          modelToViewTransformer,
+          renderingThreads,
+          interfaceOutputCache);
     }
   }
 }
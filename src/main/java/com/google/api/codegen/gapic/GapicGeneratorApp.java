@@ -17,11 +17,14 @@ package com.google.api.codegen.gapic;
 import com.google.api.codegen.ArtifactType;
 import com.google.api.codegen.ConfigProto;
 import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.CodeGeneratorScheduler;
 import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.common.SubdirectoryCodeGenerator;
 import com.google.api.codegen.common.TargetLanguage;
 import com.google.api.codegen.config.ApiDefaultsConfig;
 import com.google.api.codegen.config.DependenciesConfig;
 import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.GapicProductCore;
 import com.google.api.codegen.config.PackageMetadataConfig;
 import com.google.api.codegen.config.PackagingConfig;
 import com.google.api.codegen.samplegen.v1.SampleConfigProto;
@@ -29,6 +32,7 @@ import com.google.api.codegen.util.MultiYamlReader;
 import com.google.api.codegen.util.ProtoParser;
 import com.google.api.tools.framework.model.ConfigSource;
 import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.SimpleLocation;
 import com.google.api.tools.framework.model.stages.Merged;
 import com.google.api.tools.framework.tools.ToolDriverBase;
@@ -49,7 +53,13 @@ import java.util.Map;
 /** Main class for the code generator. */
 public class GapicGeneratorApp extends ToolDriverBase {
   public static final Option<String> LANGUAGE =
-      ToolOptions.createOption(String.class, "language", "The target language.", "");
+      ToolOptions.createOption(
+          String.class,
+          "language",
+          "The target language, a comma-separated list of target languages, or 'all'. When more "
+              + "than one language is given, the output of each language is put in its own "
+              + "subdirectory.",
+          "");
   public static final Option<String> OUTPUT_FILE =
       ToolOptions.createOption(
           String.class,
@@ -101,6 +111,42 @@ public class GapicGeneratorApp extends ToolDriverBase {
           "Whether to generate samples in non-production-ready languages.",
           false);
 
+  public static final Option<Integer> RENDERING_THREADS =
+      ToolOptions.createOption(
+          Integer.class,
+          "rendering_threads",
+          "The number of threads used to render the view models of each generator. "
+              + "The default of 1 renders serially.",
+          1);
+
+  public static final Option<Integer> GENERATOR_THREADS =
+      ToolOptions.createOption(
+          Integer.class,
+          "generator_threads",
+          "The number of code generators to run concurrently. The default of 0 runs one per target "
+              + "language, so a single language is generated serially.",
+          0);
+
+  public static final Option<Boolean> STREAMING_OUTPUT =
+      ToolOptions.createOption(
+          Boolean.class,
+          "streaming_output",
+          "Whether to write each generated file as soon as its generator finishes, instead of "
+              + "after all generators have finished. Files are still buffered in memory one at a "
+              + "time while they are written. If generation fails, a jar output file is "
+              + "deleted, while the files written to an output folder up to that point are left "
+              + "in place.",
+          false);
+
+  public static final Option<String> INTERFACE_CACHE_DIR =
+      ToolOptions.createOption(
+          String.class,
+          "interface_cache_dir",
+          "A directory in which to cache the generated files of each interface. Interfaces whose "
+              + "protos and configuration are unchanged since a previous run are not regenerated. "
+              + "Currently used by the Java surface generator.",
+          "");
+
   private ArtifactType artifactType;
 
   private final GapicWriter gapicWriter;
@@ -126,6 +172,18 @@ public class GapicGeneratorApp extends ToolDriverBase {
 
   @Override
   protected void process() throws Exception {
+    if (options.get(RENDERING_THREADS) < 1) {
+      error(
+          "--%s must be a positive integer, but was %s.",
+          RENDERING_THREADS.name(), options.get(RENDERING_THREADS));
+      return;
+    }
+    if (options.get(GENERATOR_THREADS) < 0) {
+      error(
+          "--%s must not be negative, but was %s.",
+          GENERATOR_THREADS.name(), options.get(GENERATOR_THREADS));
+      return;
+    }
 
     String protoPackage = Strings.emptyToNull(options.get(PROTO_PACKAGE));
 
@@ -186,40 +244,108 @@ public class GapicGeneratorApp extends ToolDriverBase {
         PackageMetadataConfig.createFromPackaging(
             apiDefaultsConfig, dependenciesConfig, packagingConfig);
 
-    TargetLanguage language;
+    List<TargetLanguage> languages;
     if (!Strings.isNullOrEmpty(options.get(LANGUAGE))) {
-      language = TargetLanguage.fromString(options.get(LANGUAGE).toUpperCase());
+      languages = TargetLanguage.listFromString(options.get(LANGUAGE));
     } else {
       throw new IllegalArgumentException("Language not set by --language option.");
     }
 
     String clientPackage = Strings.emptyToNull(options.get(CLIENT_PACKAGE));
 
-    GapicProductConfig productConfig =
-        GapicProductConfig.create(
-            model, configProto, sampleConfigProto, protoPackage, clientPackage, language);
-    if (productConfig == null) {
-      ToolUtil.reportDiags(model.getDiagReporter().getDiagCollector(), true);
-      return;
-    }
-
     // TODO(hzyi-google): Once we switch to sample configs, require an
     // additional check to generate samples:
     // `sampleConfigProto != null`
     ArtifactFlags artifactFlags =
         new ArtifactFlags(options.get(ENABLED_ARTIFACTS), artifactType, options.get(DEV_SAMPLES));
-    List<CodeGenerator<?>> generators =
-        GapicGeneratorFactory.create(language, model, productConfig, packageConfig, artifactFlags);
-    ImmutableMap.Builder<String, GeneratedResult<?>> generatedResults = ImmutableMap.builder();
-    for (CodeGenerator<?> generator : generators) {
-      Map<String, ? extends GeneratedResult<?>> generatorResult = generator.generate();
-      for (Map.Entry<String, ? extends GeneratedResult<?>> entry : generatorResult.entrySet()) {
-        generatedResults.put(entry.getKey(), entry.getValue());
+
+    // The model, configs and packaging metadata loaded above, and the language-independent part of
+    // the product config, are shared by all languages; only the rest of the product config and the
+    // generators are created per language.
+    GapicProductCore productCore = GapicProductCore.create(model, configProto, protoPackage);
+    List<CodeGenerator<?>> generators = new ArrayList<>();
+    for (TargetLanguage language : languages) {
+      GapicProductConfig productConfig =
+          GapicProductConfig.create(model, productCore, sampleConfigProto, clientPackage, language);
+      if (productConfig == null) {
+        ToolUtil.reportDiags(model.getDiagReporter().getDiagCollector(), true);
+        return;
+      }
+
+      InterfaceOutputCache interfaceOutputCache = null;
+      if (!Strings.isNullOrEmpty(options.get(INTERFACE_CACHE_DIR))) {
+        interfaceOutputCache =
+            InterfaceOutputCache.create(
+                new File(options.get(INTERFACE_CACHE_DIR)),
+                model,
+                configProto,
+                sampleConfigProto,
+                packagingConfig,
+                ImmutableList.of(
+                    language.name(),
+                    artifactType.name(),
+                    Strings.nullToEmpty(protoPackage),
+                    Strings.nullToEmpty(clientPackage),
+                    options.get(ENABLED_ARTIFACTS).toString(),
+                    options.get(DEV_SAMPLES).toString()));
+      }
+
+      List<CodeGenerator<?>> languageGenerators =
+          GapicGeneratorFactory.create(
+              language,
+              model,
+              productConfig,
+              packageConfig,
+              artifactFlags,
+              options.get(RENDERING_THREADS),
+              interfaceOutputCache);
+      if (languages.size() == 1) {
+        generators.addAll(languageGenerators);
+      } else {
+        for (CodeGenerator<?> generator : languageGenerators) {
+          generators.add(inSubdirectory(language.getDirectoryName(), generator));
+        }
       }
     }
 
-    gapicWriter.writeCodeGenOutput(
-        generatedResults.build(), model.getDiagReporter().getDiagCollector());
+    int generatorThreads = options.get(GENERATOR_THREADS);
+    if (generatorThreads == 0) {
+      generatorThreads = languages.size();
+    }
+    CodeGeneratorScheduler scheduler = new CodeGeneratorScheduler(generatorThreads);
+    DiagCollector diagCollector = model.getDiagReporter().getDiagCollector();
+    if (options.get(STREAMING_OUTPUT)) {
+      boolean finished = false;
+      try {
+        scheduler.generate(generators, diagCollector, gapicWriter::writeOutputFile);
+        if (diagCollector.getErrorCount() == 0) {
+          gapicWriter.finish(diagCollector);
+          finished = true;
+        }
+      } finally {
+        if (!finished) {
+          gapicWriter.abort();
+        }
+      }
+      if (!finished) {
+        ToolUtil.reportDiags(diagCollector, true);
+      }
+      return;
+    }
+
+    Map<String, GeneratedResult<?>> generatedResults =
+        scheduler.generate(generators, diagCollector);
+    if (diagCollector.getErrorCount() > 0) {
+      ToolUtil.reportDiags(diagCollector, true);
+      return;
+    }
+
+    gapicWriter.writeCodeGenOutput(generatedResults, diagCollector);
+  }
+
+  private static <T> CodeGenerator<T> inSubdirectory(
+      String subdirectory, CodeGenerator<T> generator) {
+    return new SubdirectoryCodeGenerator<>(subdirectory, generator);
   }
 
   private ConfigSource loadConfigFromFiles(
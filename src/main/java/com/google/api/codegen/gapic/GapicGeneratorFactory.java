@@ -84,6 +84,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 
 /** GapicGeneratorFactory creates CodeGenerator instances based on an id. */
 public class GapicGeneratorFactory {
@@ -100,6 +101,37 @@ public class GapicGeneratorFactory {
       GapicProductConfig productConfig,
       PackageMetadataConfig packageConfig,
       ArtifactFlags artifactFlags) {
+    return create(language, model, productConfig, packageConfig, artifactFlags, 1);
+  }
+
+  /**
+   * Create the GapicGenerators based on the given id, rendering the view models of each generator
+   * with up to {@code renderingThreads} threads.
+   */
+  public static List<CodeGenerator<?>> create(
+      TargetLanguage language,
+      Model model,
+      GapicProductConfig productConfig,
+      PackageMetadataConfig packageConfig,
+      ArtifactFlags artifactFlags,
+      int renderingThreads) {
+    return create(
+        language, model, productConfig, packageConfig, artifactFlags, renderingThreads, null);
+  }
+
+  /**
+   * Create the GapicGenerators based on the given id, rendering the view models of each generator
+   * with up to {@code renderingThreads} threads, and taking the output of unchanged interfaces from
+   * the given cache where the generator supports it.
+   */
+  public static List<CodeGenerator<?>> create(
+      TargetLanguage language,
+      Model model,
+      GapicProductConfig productConfig,
+      PackageMetadataConfig packageConfig,
+      ArtifactFlags artifactFlags,
+      int renderingThreads,
+      @Nullable InterfaceOutputCache interfaceOutputCache) {
 
     ArrayList<CodeGenerator<?>> generators = new ArrayList<>();
     // Please keep the following IDs in alphabetical order
@@ -116,6 +148,8 @@ public class GapicGeneratorFactory {
       Function<ModelToViewTransformer<ProtoApiModel>, CodeGenerator> newCsharpGenerator =
           transformer ->
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CSharpRenderingUtil()))
@@ -182,6 +216,8 @@ public class GapicGeneratorFactory {
       if (artifactFlags.surfaceGeneratorEnabled()) {
         CodeGenerator generator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -193,6 +229,8 @@ public class GapicGeneratorFactory {
       if (artifactFlags.testGeneratorEnabled()) {
         CodeGenerator testGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -205,6 +243,8 @@ public class GapicGeneratorFactory {
       Function<ModelToViewTransformer<ProtoApiModel>, CodeGenerator> newJavaGenerator =
           transformer ->
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new JavaRenderingUtil()))
@@ -265,6 +305,8 @@ public class GapicGeneratorFactory {
         GapicCodePathMapper nodeJSPathMapper = new NodeJSCodePathMapper();
         CodeGenerator mainGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -274,6 +316,8 @@ public class GapicGeneratorFactory {
 
         CodeGenerator metadataGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -296,6 +340,8 @@ public class GapicGeneratorFactory {
         if (artifactFlags.devSamplesEnabled()) {
           CodeGenerator sampleGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -304,6 +350,8 @@ public class GapicGeneratorFactory {
                   .build();
           CodeGenerator sampleMetadataGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -316,6 +364,8 @@ public class GapicGeneratorFactory {
 
         CodeGenerator messageGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -327,6 +377,8 @@ public class GapicGeneratorFactory {
       if (artifactFlags.testGeneratorEnabled()) {
         CodeGenerator testGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -342,6 +394,8 @@ public class GapicGeneratorFactory {
               PhpGapicCodePathMapper.newBuilder().setPrefix("src").build();
           CodeGenerator generator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -366,6 +420,8 @@ public class GapicGeneratorFactory {
         if (artifactFlags.packagingFilesEnabled()) {
           CodeGenerator metadataGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -378,6 +434,8 @@ public class GapicGeneratorFactory {
               PhpGapicCodePathMapper.newBuilder().setPrefix("samples").build();
           CodeGenerator sampleGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -390,6 +448,8 @@ public class GapicGeneratorFactory {
       if (artifactFlags.testGeneratorEnabled()) {
         CodeGenerator testGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -403,6 +463,8 @@ public class GapicGeneratorFactory {
             CommonGapicCodePathMapper.newBuilder().setShouldAppendPackage(true).build();
         CodeGenerator mainGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
@@ -429,6 +491,8 @@ public class GapicGeneratorFactory {
                   .build();
           CodeGenerator sampleGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
@@ -440,6 +504,8 @@ public class GapicGeneratorFactory {
 
         CodeGenerator metadataGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new PythonRenderingUtil()))
@@ -455,6 +521,8 @@ public class GapicGeneratorFactory {
                 .build();
         CodeGenerator testGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -474,6 +542,8 @@ public class GapicGeneratorFactory {
                 .build();
         CodeGenerator mainGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -491,6 +561,8 @@ public class GapicGeneratorFactory {
                 .build();
         CodeGenerator metadataGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -505,6 +577,8 @@ public class GapicGeneratorFactory {
                   .build();
           CodeGenerator sampleGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -513,6 +587,8 @@ public class GapicGeneratorFactory {
                   .build();
           CodeGenerator sampleMetadataGenerator =
               GapicGenerator.newBuilder()
+                  .setRenderingThreads(renderingThreads)
+                  .setInterfaceOutputCache(interfaceOutputCache)
                   .setModel(model)
                   .setProductConfig(productConfig)
                   .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -528,6 +604,8 @@ public class GapicGeneratorFactory {
 
         CodeGenerator messageGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
@@ -543,6 +621,8 @@ public class GapicGeneratorFactory {
                 .setPackageFilePathNameFormatter(new RubyNameFormatter());
         CodeGenerator testGenerator =
             GapicGenerator.newBuilder()
+                .setRenderingThreads(renderingThreads)
+                .setInterfaceOutputCache(interfaceOutputCache)
                 .setModel(model)
                 .setProductConfig(productConfig)
                 .setSnippetSetRunner(new CommonSnippetSetRunner(new CommonRenderingUtil()))
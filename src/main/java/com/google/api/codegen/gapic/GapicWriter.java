@@ -20,14 +20,36 @@ import java.io.IOException;
 import java.util.Map;
 import javax.annotation.Nonnull;
 
-/** Interface for classes that write out generator output. */
+/**
+ * Writes out generator output. Output can either be handed over all at once with {@link
+ * #writeCodeGenOutput}, or streamed one file at a time with {@link #writeOutputFile} followed by a
+ * single call to {@link #finish}, which lets each file be released as soon as it is written. If
+ * streaming fails, {@link #abort} is called instead of {@link #finish}.
+ */
 public interface GapicWriter {
 
   /** Returns whether the writer has finished writing. */
   boolean isDone();
 
   /** Write out the generator output. */
-  void writeCodeGenOutput(
+  default void writeCodeGenOutput(
       @Nonnull Map<String, GeneratedResult<?>> outputFiles, DiagCollector diagCollector)
-      throws IOException;
+      throws IOException {
+    for (Map.Entry<String, GeneratedResult<?>> entry : outputFiles.entrySet()) {
+      writeOutputFile(entry.getKey(), entry.getValue());
+    }
+    finish(diagCollector);
+  }
+
+  /** Writes out a single generated file. */
+  void writeOutputFile(String path, GeneratedResult<?> result) throws IOException;
+
+  /** Completes the output after the last file has been written. */
+  void finish(DiagCollector diagCollector) throws IOException;
+
+  /**
+   * Releases the output instead of completing it, when generation fails after some files have been
+   * written. Output which would be unusable when incomplete is discarded.
+   */
+  default void abort() throws IOException {}
 }
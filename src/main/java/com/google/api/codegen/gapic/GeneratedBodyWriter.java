@@ -0,0 +1,86 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes generated file bodies ({@link Doc}, {@link String} or {@code byte[]}) as UTF-8 bytes.
+ *
+ * <p>Files are buffered one at a time: a {@link Doc} is pretty-printed in full into a {@link
+ * StringBuilder}, which is reused from one file to the next, and then copied to the output in
+ * fixed-size chunks. This saves creating a {@link String} per file, but the whole file is still
+ * held in memory while it is written. Byte array bodies are written as they are. Instances are not
+ * thread-safe.
+ */
+final class GeneratedBodyWriter {
+  private static final int CHUNK_SIZE = 8192;
+
+  private final StringBuilder docBuffer = new StringBuilder();
+  private final char[] chunk = new char[CHUNK_SIZE];
+
+  /** Writes the body to the output stream. The stream is flushed but not closed. */
+  void write(Object body, OutputStream output) throws IOException {
+    if (body instanceof byte[]) {
+      output.write((byte[]) body);
+      output.flush();
+      return;
+    }
+
+    Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+    if (body instanceof Doc) {
+      docBuffer.setLength(0);
+      ((Doc) body).prettyPrint(docBuffer);
+      writeChunked(docBuffer, writer);
+      // Don't let a single huge file pin its buffer for the rest of the run.
+      if (docBuffer.length() > 16 * CHUNK_SIZE) {
+        docBuffer.setLength(0);
+        docBuffer.trimToSize();
+      }
+    } else if (body instanceof String) {
+      writer.write((String) body);
+    } else {
+      throw new IllegalArgumentException("Expected one of Doc, String, or byte[]");
+    }
+    writer.flush();
+  }
+
+  /** Returns the body as a byte string. Byte array bodies are wrapped without copying. */
+  ByteString toByteString(Object body) throws IOException {
+    if (body instanceof byte[]) {
+      // Generated results are not modified once generated, so the array can be shared.
+      return UnsafeByteOperations.unsafeWrap((byte[]) body);
+    }
+    ByteString.Output output = ByteString.newOutput();
+    write(body, output);
+    return output.toByteString();
+  }
+
+  private void writeChunked(StringBuilder text, Writer writer) throws IOException {
+    int length = text.length();
+    for (int start = 0; start < length; start += CHUNK_SIZE) {
+      int end = Math.min(start + CHUNK_SIZE, length);
+      text.getChars(start, end, chunk, 0);
+      writer.write(chunk, 0, end - start);
+    }
+  }
+}
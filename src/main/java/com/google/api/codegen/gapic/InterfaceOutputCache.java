@@ -0,0 +1,276 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.api.Service;
+import com.google.api.codegen.CollectionConfigProto;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.InterfaceConfigProto;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.config.PackagingConfig;
+import com.google.api.codegen.samplegen.v1.SampleConfigProto;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Message;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * An on-disk cache of the files rendered for each interface by a {@link GapicGenerator}, keyed by a
+ * fingerprint of everything those files are derived from.
+ *
+ * <p>The fingerprint of an interface covers the generator version, the product-wide inputs (the
+ * GAPIC config without its interface configs, the resource name collections of every interface,
+ * which are shared by the whole product, the sample config, the service config without its API and
+ * type descriptors, the packaging config, and the generation options), the interface's own {@link
+ * InterfaceConfigProto}, and the descriptors of every file of the interface's proto package and of
+ * every file they transitively import. Sibling files of the package are included because resource
+ * descriptors and long-running operation types are looked up across all of them. Changes to the
+ * generator which are not reflected in its version are not detected, so the cache directory should
+ * be cleared when working on the generator itself.
+ *
+ * <p>Each entry is stored in its own file, written atomically, so the cache can be shared by
+ * generators running concurrently.
+ */
+public class InterfaceOutputCache {
+  private static final String VERSION_RESOURCE = "/com/google/api/codegen/codegen.properties";
+  private static final int FORMAT_VERSION = 1;
+
+  private final File directory;
+  private final Map<String, InterfaceConfigProto> interfaceConfigs;
+  private final Map<String, ProtoFile> filesByName;
+  private final ImmutableListMultimap<String, ProtoFile> filesByPackage;
+  private final String productFingerprint;
+
+  private InterfaceOutputCache(
+      File directory,
+      Model model,
+      Map<String, InterfaceConfigProto> interfaceConfigs,
+      String productFingerprint) {
+    this.directory = directory;
+    this.interfaceConfigs = interfaceConfigs;
+    this.productFingerprint = productFingerprint;
+
+    ImmutableMap.Builder<String, ProtoFile> filesByName = ImmutableMap.builder();
+    ImmutableListMultimap.Builder<String, ProtoFile> filesByPackage =
+        ImmutableListMultimap.builder();
+    for (ProtoFile file : model.getFiles()) {
+      filesByName.put(file.getProto().getName(), file);
+      filesByPackage.put(file.getProto().getPackage(), file);
+    }
+    this.filesByName = filesByName.build();
+    this.filesByPackage = filesByPackage.build();
+  }
+
+  /**
+   * Creates a cache in the given directory.
+   *
+   * @param options the generation options the output depends on, such as the target language and
+   *     package names
+   */
+  public static InterfaceOutputCache create(
+      File directory,
+      Model model,
+      @Nullable ConfigProto configProto,
+      @Nullable SampleConfigProto sampleConfigProto,
+      @Nullable PackagingConfig packagingConfig,
+      List<String> options) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putString(hasher, getGeneratorVersion());
+    for (String option : options) {
+      putString(hasher, option);
+    }
+
+    Map<String, InterfaceConfigProto> interfaceConfigs = new TreeMap<>();
+    if (configProto != null) {
+      for (InterfaceConfigProto interfaceConfig : configProto.getInterfacesList()) {
+        interfaceConfigs.put(interfaceConfig.getName(), interfaceConfig);
+        putString(hasher, interfaceConfig.getName());
+        for (CollectionConfigProto collection : interfaceConfig.getCollectionsList()) {
+          putMessage(hasher, collection);
+        }
+      }
+      putMessage(hasher, configProto.toBuilder().clearInterfaces().build());
+    }
+    // The packaging config holds only strings, lists and enums, so its string form is stable.
+    putString(hasher, packagingConfig != null ? packagingConfig.toString() : "");
+    putMessage(
+        hasher,
+        sampleConfigProto != null ? sampleConfigProto : SampleConfigProto.getDefaultInstance());
+    Service serviceConfig = model.getServiceConfig();
+    if (serviceConfig != null) {
+      putMessage(hasher, serviceConfig.toBuilder().clearApis().clearTypes().clearEnums().build());
+    }
+
+    return new InterfaceOutputCache(
+        directory, model, ImmutableMap.copyOf(interfaceConfigs), hasher.hash().toString());
+  }
+
+  /** Returns the key of the output generated for the given interface by the given generator. */
+  public String getKey(Interface apiInterface, String generatorId) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    putString(hasher, productFingerprint);
+    putString(hasher, generatorId);
+    putString(hasher, apiInterface.getFullName());
+    putMessage(
+        hasher,
+        interfaceConfigs.getOrDefault(
+            apiInterface.getFullName(), InterfaceConfigProto.getDefaultInstance()));
+    for (FileDescriptorProto file :
+        getTransitiveFiles(filesByPackage.get(apiInterface.getFile().getProto().getPackage()))) {
+      putMessage(hasher, file);
+    }
+    return hasher.hash().toString();
+  }
+
+  /** Returns the cached output for the given key, or null if there is none. */
+  @Nullable
+  public Map<String, GeneratedResult<Doc>> get(String key) {
+    File file = new File(directory, key);
+    if (!file.isFile()) {
+      return null;
+    }
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+      if (input.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      Map<String, GeneratedResult<Doc>> results = new TreeMap<>();
+      int count = input.readInt();
+      for (int i = 0; i < count; ++i) {
+        String path = input.readUTF();
+        boolean executable = input.readBoolean();
+        byte[] content = new byte[input.readInt()];
+        input.readFully(content);
+        results.put(
+            path,
+            GeneratedResult.create(
+                Doc.text(new String(content, StandardCharsets.UTF_8)), executable));
+      }
+      return results;
+    } catch (IOException e) {
+      // A truncated or otherwise unreadable entry is treated as a miss, and replaced.
+      return null;
+    }
+  }
+
+  /** Stores the output for the given key. */
+  public void put(String key, Map<String, GeneratedResult<Doc>> results) {
+    try {
+      Files.createDirectories(directory.toPath());
+      Path tempFile = Files.createTempFile(directory.toPath(), key, ".tmp");
+      try (DataOutputStream output =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(results.size());
+        GeneratedBodyWriter bodyWriter = new GeneratedBodyWriter();
+        for (Map.Entry<String, GeneratedResult<Doc>> entry : results.entrySet()) {
+          ByteString content = bodyWriter.toByteString(entry.getValue().getBody());
+          output.writeUTF(entry.getKey());
+          output.writeBoolean(entry.getValue().isExecutable());
+          output.writeInt(content.size());
+          content.writeTo(output);
+        }
+      }
+      Files.move(
+          tempFile,
+          new File(directory, key).toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write interface output cache entry " + key, e);
+    }
+  }
+
+  private List<FileDescriptorProto> getTransitiveFiles(List<ProtoFile> roots) {
+    Map<String, FileDescriptorProto> files = new TreeMap<>();
+    Deque<FileDescriptorProto> pending = new ArrayDeque<>();
+    for (ProtoFile root : roots) {
+      pending.add(root.getProto());
+    }
+    while (!pending.isEmpty()) {
+      FileDescriptorProto file = pending.remove();
+      if (files.put(file.getName(), file) != null) {
+        continue;
+      }
+      for (String dependency : file.getDependencyList()) {
+        ProtoFile dependencyFile = filesByName.get(dependency);
+        if (dependencyFile != null && !files.containsKey(dependency)) {
+          pending.add(dependencyFile.getProto());
+        }
+      }
+    }
+    return ImmutableList.copyOf(files.values());
+  }
+
+  private static String getGeneratorVersion() {
+    try (InputStream input = InterfaceOutputCache.class.getResourceAsStream(VERSION_RESOURCE)) {
+      if (input == null) {
+        return "unknown";
+      }
+      Properties properties = new Properties();
+      properties.load(input);
+      return properties.getProperty("version", "unknown");
+    } catch (IOException e) {
+      return "unknown";
+    }
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    hasher.putInt(bytes.length).putBytes(bytes);
+  }
+
+  private static void putMessage(Hasher hasher, Message message) {
+    try {
+      byte[] bytes = new byte[message.getSerializedSize()];
+      CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+      // Map fields, such as the language settings, must hash the same regardless of entry order.
+      output.useDeterministicSerialization();
+      message.writeTo(output);
+      output.checkNoSpaceLeft();
+      hasher.putInt(bytes.length).putBytes(bytes);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.google.api.codegen.gapic;
 import com.google.api.codegen.SnippetSetRunner;
 import com.google.api.codegen.common.CodeGenerator;
 import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.tools.framework.model.DiagCollector;
 import com.google.api.tools.framework.model.Interface;
 import com.google.api.tools.framework.model.Model;
 import com.google.api.tools.framework.model.stages.Merged;
@@ -55,20 +56,26 @@ public class LegacyGapicGenerator implements CodeGenerator<Doc> {
 
   @Override
   public Map<String, GeneratedResult<Doc>> generate() {
+    return generate(model.getDiagReporter().getDiagCollector());
+  }
+
+  @Override
+  public Map<String, GeneratedResult<Doc>> generate(DiagCollector diagCollector) {
     Map<String, GeneratedResult<Doc>> docs = new TreeMap<>();
 
     for (String snippetFileName : snippetFileNames) {
-      Map<String, GeneratedResult<Doc>> snippetDocs = generate(snippetFileName);
+      Map<String, GeneratedResult<Doc>> snippetDocs = generate(snippetFileName, diagCollector);
       docs.putAll(snippetDocs);
     }
 
     return docs;
   }
 
-  private Map<String, GeneratedResult<Doc>> generate(String snippetFileName) {
+  private Map<String, GeneratedResult<Doc>> generate(
+      String snippetFileName, DiagCollector diagCollector) {
     // Establish required stage for generation.
     model.establishStage(Merged.KEY);
-    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+    if (diagCollector.getErrorCount() > 0) {
       return ImmutableMap.of();
     }
 
@@ -97,7 +104,7 @@ public class LegacyGapicGenerator implements CodeGenerator<Doc> {
     }
 
     // Return result.
-    if (model.getDiagReporter().getDiagCollector().getErrorCount() > 0) {
+    if (diagCollector.getErrorCount() > 0) {
       return ImmutableMap.of();
     }
 
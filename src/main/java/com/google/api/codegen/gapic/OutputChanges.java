@@ -0,0 +1,55 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+
+/** The files touched by an incremental run of {@link FileGapicWriter}, by output path. */
+@AutoValue
+public abstract class OutputChanges {
+
+  /** Files which did not exist before. */
+  public abstract ImmutableList<String> getAdded();
+
+  /** Files which existed before and whose content changed. */
+  public abstract ImmutableList<String> getChanged();
+
+  /** Files which were generated by the previous run but not by this one, and have been deleted. */
+  public abstract ImmutableList<String> getRemoved();
+
+  /** The number of files left untouched because their content did not change. */
+  public abstract int getUnchangedCount();
+
+  public static OutputChanges create(
+      Collection<String> added,
+      Collection<String> changed,
+      Collection<String> removed,
+      int unchangedCount) {
+    return new AutoValue_OutputChanges(
+        ImmutableList.sortedCopyOf(added),
+        ImmutableList.sortedCopyOf(changed),
+        ImmutableList.sortedCopyOf(removed),
+        unchangedCount);
+  }
+
+  /** Returns a one-line summary, e.g. "2 added, 1 changed, 0 removed, 40 unchanged". */
+  public String summary() {
+    return String.format(
+        "%d added, %d changed, %d removed, %d unchanged",
+        getAdded().size(), getChanged().size(), getRemoved().size(), getUnchangedCount());
+  }
+}
@@ -16,13 +16,13 @@ package com.google.api.codegen.gapic;
 
 import com.google.api.codegen.common.GeneratedResult;
 import com.google.api.tools.framework.model.DiagCollector;
-import com.google.api.tools.framework.snippet.Doc;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
-import java.util.Map;
-import javax.annotation.Nonnull;
+import java.io.IOException;
 
 public class ProtocGapicWriter implements GapicWriter {
 
+  private final GeneratedBodyWriter bodyWriter = new GeneratedBodyWriter();
+  private final CodeGeneratorResponse.Builder responseBuilder = CodeGeneratorResponse.newBuilder();
   private boolean isDone = false;
   private CodeGeneratorResponse response;
 
@@ -40,38 +40,19 @@ public class ProtocGapicWriter implements GapicWriter {
   }
 
   @Override
-  public void writeCodeGenOutput(
-      @Nonnull Map<String, GeneratedResult<?>> generatedResults, DiagCollector diagCollector) {
-    Map<String, Object> outputFiles = GeneratedResult.extractBodiesGeneric(generatedResults);
-    this.response = writeCodeGenOutputToProtoc(outputFiles);
-    this.isDone = true;
+  public void writeOutputFile(String path, GeneratedResult<?> result) throws IOException {
+    Object body = result.getBody();
+    // The content is set as bytes so that it is encoded only once, straight from the rendered
+    // Doc, and byte[] resources are passed through as they are.
+    responseBuilder.addFile(
+        CodeGeneratorResponse.File.newBuilder()
+            .setName(path)
+            .setContentBytes(bodyWriter.toByteString(body)));
   }
 
-  private CodeGeneratorResponse writeCodeGenOutputToProtoc(Map<String, ?> outputFiles) {
-    CodeGeneratorResponse.Builder protocResponse = CodeGeneratorResponse.newBuilder();
-
-    for (Map.Entry<String, ?> entry : outputFiles.entrySet()) {
-      com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File.Builder protoOutFile =
-          com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File.newBuilder();
-
-      StringBuilder outputStream = new StringBuilder();
-
-      Object value = entry.getValue();
-      if (value instanceof Doc) {
-        outputStream.append(((Doc) value).prettyPrint());
-      } else if (value instanceof String) {
-        outputStream.append((String) value);
-      } else if (value instanceof byte[]) {
-        outputStream.append((byte[]) value);
-      } else {
-        throw new IllegalArgumentException("Expected one of Doc, String, or byte[]");
-      }
-
-      protoOutFile.setContent(outputStream.toString());
-      protoOutFile.setName(entry.getKey());
-      protocResponse.addFile(protoOutFile.build());
-    }
-
-    return protocResponse.build();
+  @Override
+  public void finish(DiagCollector diagCollector) {
+    this.response = responseBuilder.build();
+    this.isDone = true;
   }
 }
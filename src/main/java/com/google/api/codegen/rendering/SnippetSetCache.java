@@ -0,0 +1,110 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.rendering;
+
+import com.google.api.tools.framework.snippet.SnippetSet;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Map;
+
+/**
+ * A process-wide, thread-safe cache of parsed snippet sets, keyed by resource root and snippet file
+ * name.
+ *
+ * <p>Parsing a snippet file (including every file it extends) does not depend on the globals the
+ * snippets are later evaluated with, so only the parsed {@link SnippetSet} is cached. Binding it to
+ * an interface is cheap and happens on every call, since a bound interface carries mutable
+ * evaluation state and must not be shared between renderings.
+ */
+public final class SnippetSetCache {
+
+  /** The maximum number of parsed snippet sets kept before the least recently used is evicted. */
+  private static final long MAXIMUM_SIZE = 512;
+
+  private static final LoadingCache<SnippetSetKey, SnippetSet> SNIPPET_SETS =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAXIMUM_SIZE)
+          .recordStats()
+          .build(CacheLoader.from(SnippetSetCache::parse));
+
+  private SnippetSetCache() {}
+
+  /**
+   * Returns an implementation of the given snippet interface backed by the (possibly cached)
+   * snippet set at resourceRoot/snippetFileName, bound to the given globals. This is a caching
+   * equivalent of {@link SnippetSet#createSnippetInterface(Class, String, String, Map)}.
+   */
+  public static <T> T createSnippetInterface(
+      Class<T> snippetInterface,
+      String resourceRoot,
+      String snippetFileName,
+      Map<String, Object> globals) {
+    Preconditions.checkNotNull(snippetInterface);
+    Preconditions.checkNotNull(globals);
+    return getSnippetSet(resourceRoot, snippetFileName).bind(snippetInterface, globals);
+  }
+
+  /** Returns the parsed snippet set at resourceRoot/snippetFileName, parsing it on a miss. */
+  public static SnippetSet getSnippetSet(String resourceRoot, String snippetFileName) {
+    try {
+      return SNIPPET_SETS.getUnchecked(SnippetSetKey.create(resourceRoot, snippetFileName));
+    } catch (UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /** Returns the hit, miss, load and eviction counters of the cache. */
+  public static CacheStats stats() {
+    return SNIPPET_SETS.stats();
+  }
+
+  /** Returns the number of parsed snippet sets currently held. */
+  public static long size() {
+    return SNIPPET_SETS.size();
+  }
+
+  /** Discards all cached snippet sets, e.g. after snippet resources have changed. */
+  public static void invalidateAll() {
+    SNIPPET_SETS.invalidateAll();
+  }
+
+  private static SnippetSet parse(SnippetSetKey key) {
+    try {
+      return SnippetSet.parse(
+          SnippetSet.resourceInputSupplier(key.resourceRoot()), key.snippetFileName());
+    } catch (SnippetSet.ParseException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @AutoValue
+  abstract static class SnippetSetKey {
+    abstract String resourceRoot();
+
+    abstract String snippetFileName();
+
+    static SnippetSetKey create(String resourceRoot, String snippetFileName) {
+      return new AutoValue_SnippetSetCache_SnippetSetKey(
+          Preconditions.checkNotNull(resourceRoot), Preconditions.checkNotNull(snippetFileName));
+    }
+  }
+}
@@ -38,6 +38,12 @@ public interface ImportTypeTable extends TypeFormatter {
   /** Creates a new ModelTypeTable of the same concrete type, but with an empty import set. */
   ImportTypeTable cloneEmpty(String packageName);
 
+  /**
+   * Creates a new ImportTypeTable of the same concrete type and with the same import set, which
+   * from then on is independent of this one.
+   */
+  ImportTypeTable fork();
+
   /** Compute the nickname for the given fullName and save it in the import set. */
   void saveNicknameFor(String fullName);
 
@@ -0,0 +1,35 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.transformer;
+
+import com.google.api.codegen.config.ApiModel;
+import com.google.api.codegen.config.GapicProductConfig;
+import java.util.Set;
+
+/**
+ * A ModelToViewTransformer which can tell which ViewModels belong to which interface, and can leave
+ * out the ViewModels of interfaces whose output is already known.
+ */
+public interface IncrementalModelToViewTransformer<ApiModelT extends ApiModel>
+    extends ModelToViewTransformer<ApiModelT> {
+
+  /**
+   * Generate the ViewModels from a given ApiModel, grouped by interface. No ViewModels are
+   * generated for the interfaces in skippedInterfaces (by full name), but ViewModels which are not
+   * tied to a single interface still reflect all interfaces.
+   */
+  InterfaceViewModels transformInterfaces(
+      ApiModelT model, GapicProductConfig productConfig, Set<String> skippedInterfaces);
+}
@@ -0,0 +1,45 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.transformer;
+
+import com.google.api.codegen.viewmodel.ViewModel;
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+
+/** The ViewModels generated by an {@link IncrementalModelToViewTransformer}. */
+@AutoValue
+public abstract class InterfaceViewModels {
+
+  /** The ViewModels generated for a single interface, keyed by the interface's full name. */
+  public abstract ImmutableListMultimap<String, ViewModel> getInterfaceViewModels();
+
+  /** The ViewModels which are not tied to a single interface, such as package-level files. */
+  public abstract ImmutableList<ViewModel> getSharedViewModels();
+
+  public static InterfaceViewModels create(
+      ImmutableListMultimap<String, ViewModel> interfaceViewModels,
+      ImmutableList<ViewModel> sharedViewModels) {
+    return new AutoValue_InterfaceViewModels(interfaceViewModels, sharedViewModels);
+  }
+
+  /** Returns all ViewModels, interface ViewModels first. */
+  public ImmutableList<ViewModel> getAllViewModels() {
+    return ImmutableList.<ViewModel>builder()
+        .addAll(getInterfaceViewModels().values())
+        .addAll(getSharedViewModels())
+        .build();
+  }
+}
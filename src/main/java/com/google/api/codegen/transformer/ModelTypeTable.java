@@ -128,6 +128,11 @@ public class ModelTypeTable implements ImportTypeTable, ModelTypeFormatter {
     return new ModelTypeTable(typeTable.cloneEmpty(packageName), typeNameConverter);
   }
 
+  @Override
+  public ModelTypeTable fork() {
+    return new ModelTypeTable(typeTable.fork(), typeNameConverter);
+  }
+
   /** Compute the nickname for the given fullName and save it in the import set. */
   @Override
   public void saveNicknameFor(String fullName) {
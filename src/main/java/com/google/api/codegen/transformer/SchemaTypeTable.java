@@ -117,6 +117,12 @@ public class SchemaTypeTable implements ImportTypeTable, SchemaTypeFormatter {
         typeTable.cloneEmpty(packageName), typeNameConverter, languageNamer, discoGapicNamer);
   }
 
+  /** Creates a new SchemaTypeTable of the same concrete type, with a copy of the import set. */
+  @Override
+  public SchemaTypeTable fork() {
+    return new SchemaTypeTable(typeTable.fork(), typeNameConverter, languageNamer, discoGapicNamer);
+  }
+
   /** Compute the nickname for the given fullName and save it in the import set. */
   @Override
   public void saveNicknameFor(String fullName) {
@@ -34,6 +34,7 @@ import com.google.api.codegen.config.TypeModel;
 import com.google.api.codegen.config.VisibilityConfig;
 import com.google.api.codegen.discovery.Document;
 import com.google.api.codegen.discovery.Schema;
+import com.google.api.codegen.util.CachingCommentReformatter;
 import com.google.api.codegen.util.CommentReformatter;
 import com.google.api.codegen.util.CommonRenderingUtil;
 import com.google.api.codegen.util.Name;
@@ -122,7 +123,7 @@ public class SurfaceNamer extends NameFormatterDelegator {
     super(languageNamer);
     this.typeFormatter = typeFormatter;
     this.typeNameConverter = typeNameConverter;
-    this.commentReformatter = commentReformatter;
+    this.commentReformatter = CachingCommentReformatter.of(commentReformatter);
     this.rootPackageName = rootPackageName;
     this.packageName = packageName;
     this.nameFormatter = languageNamer;
@@ -138,7 +139,7 @@ public class SurfaceNamer extends NameFormatterDelegator {
       String packageName) {
     super(languageNamer);
     this.typeNameConverter = typeNameConverter;
-    this.commentReformatter = commentReformatter;
+    this.commentReformatter = CachingCommentReformatter.of(commentReformatter);
     this.packageName = packageName;
     this.rootPackageName = rootPackageName;
     this.typeFormatter = typeFormatter;
@@ -20,7 +20,8 @@ import com.google.api.codegen.config.InterfaceModel;
 import com.google.api.codegen.config.ProtoApiModel;
 import com.google.api.codegen.gapic.GapicCodePathMapper;
 import com.google.api.codegen.transformer.ImportTypeTable;
-import com.google.api.codegen.transformer.ModelToViewTransformer;
+import com.google.api.codegen.transformer.IncrementalModelToViewTransformer;
+import com.google.api.codegen.transformer.InterfaceViewModels;
 import com.google.api.codegen.transformer.ModelTypeTable;
 import com.google.api.codegen.transformer.SurfaceNamer;
 import com.google.api.codegen.transformer.SurfaceTransformer;
@@ -29,12 +30,13 @@ import com.google.api.codegen.viewmodel.ViewModel;
 import com.google.common.base.Preconditions;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The ModelToViewTransformer to transform a ProtoApiModel into the standard GAPIC surface in Java.
  */
 public class JavaGapicSurfaceTransformer
-    implements ModelToViewTransformer<ProtoApiModel>, SurfaceTransformer {
+    implements IncrementalModelToViewTransformer<ProtoApiModel>, SurfaceTransformer {
 
   private final GapicCodePathMapper pathMapper;
 
@@ -68,10 +70,19 @@ public class JavaGapicSurfaceTransformer
 
   @Override
   public List<ViewModel> transform(ProtoApiModel model, GapicProductConfig productConfig) {
-    JavaSurfaceTransformer commonSurfaceTransformer =
-        new JavaSurfaceTransformer(
-            pathMapper, this, GRPC_STUB_TEMPLATE_FILENAME, GRPC_CALLABLE_FACTORY_TEMPLATE_FILENAME);
-    return commonSurfaceTransformer.transform(model, productConfig);
+    return createCommonSurfaceTransformer().transform(model, productConfig);
+  }
+
+  @Override
+  public InterfaceViewModels transformInterfaces(
+      ProtoApiModel model, GapicProductConfig productConfig, Set<String> skippedInterfaces) {
+    return createCommonSurfaceTransformer()
+        .transformInterfaces(model, productConfig, skippedInterfaces);
+  }
+
+  private JavaSurfaceTransformer createCommonSurfaceTransformer() {
+    return new JavaSurfaceTransformer(
+        pathMapper, this, GRPC_STUB_TEMPLATE_FILENAME, GRPC_CALLABLE_FACTORY_TEMPLATE_FILENAME);
   }
 
   @Override
@@ -34,6 +34,7 @@ import com.google.api.codegen.transformer.ApiCallableTransformer;
 import com.google.api.codegen.transformer.BatchingTransformer;
 import com.google.api.codegen.transformer.FileHeaderTransformer;
 import com.google.api.codegen.transformer.ImportTypeTable;
+import com.google.api.codegen.transformer.InterfaceViewModels;
 import com.google.api.codegen.transformer.PageStreamingTransformer;
 import com.google.api.codegen.transformer.PathTemplateTransformer;
 import com.google.api.codegen.transformer.RetryDefinitionsTransformer;
@@ -62,9 +63,14 @@ import com.google.api.codegen.viewmodel.StaticLangStubSettingsView;
 import com.google.api.codegen.viewmodel.ViewModel;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /** A transformer to transform an ApiModel into the standard GAPIC surface in Java. */
 public class JavaSurfaceTransformer {
@@ -111,10 +117,21 @@ public class JavaSurfaceTransformer {
   }
 
   public List<ViewModel> transform(ApiModel model, GapicProductConfig productConfig) {
-    List<ViewModel> surfaceDocs = new ArrayList<>();
+    return transformInterfaces(model, productConfig, ImmutableSet.of()).getAllViewModels();
+  }
+
+  /**
+   * Transforms the model, leaving out the files of the interfaces in skippedInterfaces. The API
+   * class of a skipped interface is still generated, since the package info documents it.
+   */
+  public InterfaceViewModels transformInterfaces(
+      ApiModel model, GapicProductConfig productConfig, Set<String> skippedInterfaces) {
+    ImmutableListMultimap.Builder<String, ViewModel> interfaceDocs =
+        ImmutableListMultimap.builder();
     SurfaceNamer namer = surfaceTransformer.createSurfaceNamer(productConfig);
 
     List<ServiceDocView> serviceDocs = new ArrayList<>();
+    Map<List<String>, ImportTypeTable> importTables = new HashMap<>();
     for (InterfaceModel apiInterface : model.getInterfaces(productConfig)) {
       if (!productConfig.hasInterfaceConfig(apiInterface)) {
         continue;
@@ -124,19 +141,27 @@ public class JavaSurfaceTransformer {
           surfaceTransformer.createTypeTable(productConfig.getPackageName());
       InterfaceContext context =
           surfaceTransformer.createInterfaceContext(apiInterface, productConfig, namer, typeTable);
+      context = withImports(context, getApiImports(context), importTables);
       StaticLangFileView<StaticLangApiView> apiFile = generateApiFile(context, productConfig);
-      surfaceDocs.add(apiFile);
 
       serviceDocs.add(apiFile.classView().doc());
+      if (skippedInterfaces.contains(apiInterface.getFullName())) {
+        continue;
+      }
+
+      List<ViewModel> surfaceDocs = new ArrayList<>();
+      surfaceDocs.add(apiFile);
 
       StaticLangApiMethodView exampleApiMethod =
           getExampleApiMethod(apiFile.classView().apiMethods());
 
       context = context.withNewTypeTable(namer.getStubPackageName());
+      context = withImports(context, getSettingsImports(context), importTables);
       StaticLangFileView<StaticLangStubSettingsView> stubSettingsFile =
           generateStubSettingsFile(context, productConfig, exampleApiMethod);
 
       context = context.withNewTypeTable(namer.getRootPackageName());
+      context = withImports(context, getSettingsImports(context), importTables);
       StaticLangFileView<StaticLangSettingsView> settingsFile =
           generateSettingsFile(
               context, productConfig, exampleApiMethod, stubSettingsFile.classView());
@@ -144,21 +169,22 @@ public class JavaSurfaceTransformer {
       surfaceDocs.add(stubSettingsFile);
 
       context = context.withNewTypeTable(namer.getStubPackageName());
+      context = withImports(context, getStubInterfaceImports(context), importTables);
       StaticLangFileView<StaticLangStubInterfaceView> stubInterfaceFile =
           generateStubInterfaceFile(context, productConfig);
       surfaceDocs.add(stubInterfaceFile);
 
       context = context.withNewTypeTable(namer.getStubPackageName());
+      context = withImports(context, getRpcStubImports(context), importTables);
       StaticLangFileView<StaticLangRpcStubView> grpcStubFile =
           generateRpcStubClassFile(context, productConfig);
       surfaceDocs.add(grpcStubFile);
       surfaceDocs.add(generateCallableFactoryClassFile(context, productConfig));
+      interfaceDocs.putAll(apiInterface.getFullName(), surfaceDocs);
     }
 
     PackageInfoView packageInfo = generatePackageInfo(model, productConfig, namer, serviceDocs);
-    surfaceDocs.add(packageInfo);
-
-    return surfaceDocs;
+    return InterfaceViewModels.create(interfaceDocs.build(), ImmutableList.of(packageInfo));
   }
 
   private StaticLangFileView<StaticLangApiView> generateApiFile(
@@ -186,8 +212,6 @@ public class JavaSurfaceTransformer {
     SurfaceNamer namer = context.getNamer();
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
 
-    addApiImports(context);
-
     List<StaticLangApiMethodView> methods = methodGenerator.generateApiMethods(context);
 
     StaticLangApiView.Builder xapiClass = StaticLangApiView.newBuilder();
@@ -378,8 +402,6 @@ public class JavaSurfaceTransformer {
       GapicProductConfig productConfig,
       StaticLangApiMethodView exampleApiMethod,
       StaticLangStubSettingsView stubSettingsView) {
-    addSettingsImports(context);
-
     SurfaceNamer namer = context.getNamer();
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
 
@@ -423,8 +445,6 @@ public class JavaSurfaceTransformer {
       InterfaceContext context,
       GapicProductConfig productConfig,
       StaticLangApiMethodView exampleApiMethod) {
-    addSettingsImports(context);
-
     SurfaceNamer namer = context.getNamer();
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
     ApiModel model = context.getApiModel();
@@ -513,8 +533,6 @@ public class JavaSurfaceTransformer {
       InterfaceContext context, GapicProductConfig productConfig) {
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
 
-    addStubInterfaceImports(context);
-
     // Stub class has different default package name from methods classes.
     InterfaceContext apiMethodsContext =
         context.withNewTypeTable(context.getNamer().getRootPackageName());
@@ -567,8 +585,6 @@ public class JavaSurfaceTransformer {
     SurfaceNamer namer = context.getNamer();
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
 
-    addRpcStubImports(context);
-
     // Stub class has different default package name from method, request, and resource classes.
     InterfaceContext apiMethodsContext =
         context.withNewTypeTable(context.getNamer().getRootPackageName());
@@ -640,7 +656,7 @@ public class JavaSurfaceTransformer {
     SurfaceNamer namer = context.getNamer();
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
 
-    addCallableFactoryImports(context);
+    saveImports(context.getImportTypeTable(), getCallableFactoryImports(context));
 
     StaticLangCallableFactoryView.Builder callableFactory =
         StaticLangCallableFactoryView.newBuilder();
@@ -663,6 +679,35 @@ public class JavaSurfaceTransformer {
     return callableFactory.build();
   }
 
+  /**
+   * Returns a context whose type table, which must be empty in context, starts with the given
+   * imports. The files of every interface that start with the same imports in the same package get
+   * forks of one table holding them, so that the imports are resolved once rather than per file.
+   */
+  private static InterfaceContext withImports(
+      InterfaceContext context,
+      List<String> imports,
+      Map<List<String>, ImportTypeTable> importTables) {
+    List<String> key =
+        ImmutableList.<String>builder()
+            .add(context.getNamer().getPackageName())
+            .addAll(imports)
+            .build();
+    ImportTypeTable importTable = importTables.get(key);
+    if (importTable == null) {
+      importTable = context.getImportTypeTable().cloneEmpty();
+      saveImports(importTable, imports);
+      importTables.put(key, importTable);
+    }
+    return context.withTypeTable(importTable.fork());
+  }
+
+  private static void saveImports(ImportTypeTable typeTable, List<String> imports) {
+    for (String fullName : imports) {
+      typeTable.saveNicknameFor(fullName);
+    }
+  }
+
   private String getAndSaveNicknameForRootType(InterfaceContext context, String nickname) {
     SurfaceNamer namer = context.getNamer();
     ImportTypeTable typeTable = context.getImportTypeTable();
@@ -729,221 +774,225 @@ public class JavaSurfaceTransformer {
     return packageInfo.build();
   }
 
-  private void addApiImports(InterfaceContext context) {
-    ImportTypeTable typeTable = context.getImportTypeTable();
-    typeTable.saveNicknameFor("com.google.api.core.BetaApi");
-    typeTable.saveNicknameFor("com.google.api.gax.core.BackgroundResource");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallable");
-    typeTable.saveNicknameFor("com.google.api.pathtemplate.PathTemplate");
-    typeTable.saveNicknameFor("java.io.Closeable");
-    typeTable.saveNicknameFor("java.io.IOException");
-    typeTable.saveNicknameFor("java.util.concurrent.TimeUnit");
-    typeTable.saveNicknameFor("javax.annotation.Generated");
+  private List<String> getApiImports(InterfaceContext context) {
+    List<String> imports = new ArrayList<>();
+    imports.add("com.google.api.core.BetaApi");
+    imports.add("com.google.api.gax.core.BackgroundResource");
+    imports.add("com.google.api.gax.rpc.UnaryCallable");
+    imports.add("com.google.api.pathtemplate.PathTemplate");
+    imports.add("java.io.Closeable");
+    imports.add("java.io.IOException");
+    imports.add("java.util.concurrent.TimeUnit");
+    imports.add("javax.annotation.Generated");
 
     if (context.getInterfaceConfig().hasLongRunningOperations()) {
-      typeTable.saveNicknameFor("com.google.api.gax.longrunning.OperationFuture");
-      typeTable.saveNicknameFor("com.google.longrunning.Operation");
-      typeTable.saveNicknameFor("com.google.longrunning.OperationsClient");
+      imports.add("com.google.api.gax.longrunning.OperationFuture");
+      imports.add("com.google.longrunning.Operation");
+      imports.add("com.google.longrunning.OperationsClient");
     }
 
     switch (context.getProductConfig().getTransportProtocol()) {
       case HTTP:
-        typeTable.saveNicknameFor("java.util.List");
-        typeTable.saveNicknameFor("java.util.ArrayList");
-        typeTable.saveNicknameFor("java.util.concurrent.ScheduledExecutorService");
+        imports.add("java.util.List");
+        imports.add("java.util.ArrayList");
+        imports.add("java.util.concurrent.ScheduledExecutorService");
     }
+    return imports;
   }
 
-  private void addSettingsImports(InterfaceContext context) {
-    ImportTypeTable typeTable = context.getImportTypeTable();
-    typeTable.saveNicknameFor("com.google.api.core.ApiFunction");
-    typeTable.saveNicknameFor("com.google.api.core.BetaApi");
-    typeTable.saveNicknameFor("com.google.api.gax.core.CredentialsProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.core.ExecutorProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.core.GaxProperties");
-    typeTable.saveNicknameFor("com.google.api.gax.core.GoogleCredentialsProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.core.InstantiatingExecutorProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.retrying.RetrySettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ApiClientHeaderProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientContext");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.StubSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.HeaderProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.StatusCode");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.TransportChannelProvider");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallSettings");
-    typeTable.saveNicknameFor("com.google.auth.Credentials");
-    typeTable.saveNicknameFor("com.google.common.collect.ImmutableList");
-    typeTable.saveNicknameFor("com.google.common.collect.ImmutableMap");
-    typeTable.saveNicknameFor("com.google.common.collect.ImmutableSet");
-    typeTable.saveNicknameFor("com.google.common.collect.Lists");
-    typeTable.saveNicknameFor("com.google.common.collect.Sets");
-    typeTable.saveNicknameFor("java.io.IOException");
-    typeTable.saveNicknameFor("java.util.List");
-    typeTable.saveNicknameFor("java.util.concurrent.ScheduledExecutorService");
-    typeTable.saveNicknameFor("javax.annotation.Generated");
-    typeTable.saveNicknameFor("org.threeten.bp.Duration");
+  private List<String> getSettingsImports(InterfaceContext context) {
+    List<String> imports = new ArrayList<>();
+    imports.add("com.google.api.core.ApiFunction");
+    imports.add("com.google.api.core.BetaApi");
+    imports.add("com.google.api.gax.core.CredentialsProvider");
+    imports.add("com.google.api.gax.core.ExecutorProvider");
+    imports.add("com.google.api.gax.core.GaxProperties");
+    imports.add("com.google.api.gax.core.GoogleCredentialsProvider");
+    imports.add("com.google.api.gax.core.InstantiatingExecutorProvider");
+    imports.add("com.google.api.gax.retrying.RetrySettings");
+    imports.add("com.google.api.gax.rpc.ApiClientHeaderProvider");
+    imports.add("com.google.api.gax.rpc.ClientContext");
+    imports.add("com.google.api.gax.rpc.ClientSettings");
+    imports.add("com.google.api.gax.rpc.StubSettings");
+    imports.add("com.google.api.gax.rpc.HeaderProvider");
+    imports.add("com.google.api.gax.rpc.StatusCode");
+    imports.add("com.google.api.gax.rpc.TransportChannelProvider");
+    imports.add("com.google.api.gax.rpc.UnaryCallSettings");
+    imports.add("com.google.auth.Credentials");
+    imports.add("com.google.common.collect.ImmutableList");
+    imports.add("com.google.common.collect.ImmutableMap");
+    imports.add("com.google.common.collect.ImmutableSet");
+    imports.add("com.google.common.collect.Lists");
+    imports.add("com.google.common.collect.Sets");
+    imports.add("java.io.IOException");
+    imports.add("java.util.List");
+    imports.add("java.util.concurrent.ScheduledExecutorService");
+    imports.add("javax.annotation.Generated");
+    imports.add("org.threeten.bp.Duration");
 
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
     if (interfaceConfig.hasPageStreamingMethods()) {
-      typeTable.saveNicknameFor("com.google.api.core.ApiFuture");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.ApiCallContext");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.PageContext");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.PagedCallSettings");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.PagedListDescriptor");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.PagedListResponseFactory");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallable");
+      imports.add("com.google.api.core.ApiFuture");
+      imports.add("com.google.api.gax.rpc.ApiCallContext");
+      imports.add("com.google.api.gax.rpc.PageContext");
+      imports.add("com.google.api.gax.rpc.PagedCallSettings");
+      imports.add("com.google.api.gax.rpc.PagedListDescriptor");
+      imports.add("com.google.api.gax.rpc.PagedListResponseFactory");
+      imports.add("com.google.api.gax.rpc.UnaryCallable");
     }
     if (interfaceConfig.hasBatchingMethods()) {
-      typeTable.saveNicknameFor("com.google.api.gax.batching.BatchingSettings");
-      typeTable.saveNicknameFor("com.google.api.gax.batching.FlowController");
-      typeTable.saveNicknameFor("com.google.api.gax.batching.FlowController.LimitExceededBehavior");
-      typeTable.saveNicknameFor("com.google.api.gax.batching.FlowControlSettings");
-      typeTable.saveNicknameFor("com.google.api.gax.batching.PartitionKey");
-      typeTable.saveNicknameFor("com.google.api.gax.batching.RequestBuilder");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.BatchedRequestIssuer");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.BatchingCallSettings");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.BatchingDescriptor");
-      typeTable.saveNicknameFor("java.util.ArrayList");
-      typeTable.saveNicknameFor("java.util.Collection");
+      imports.add("com.google.api.gax.batching.BatchingSettings");
+      imports.add("com.google.api.gax.batching.FlowController");
+      imports.add("com.google.api.gax.batching.FlowController.LimitExceededBehavior");
+      imports.add("com.google.api.gax.batching.FlowControlSettings");
+      imports.add("com.google.api.gax.batching.PartitionKey");
+      imports.add("com.google.api.gax.batching.RequestBuilder");
+      imports.add("com.google.api.gax.rpc.BatchedRequestIssuer");
+      imports.add("com.google.api.gax.rpc.BatchingCallSettings");
+      imports.add("com.google.api.gax.rpc.BatchingDescriptor");
+      imports.add("java.util.ArrayList");
+      imports.add("java.util.Collection");
     }
 
     if (interfaceConfig.hasGrpcStreamingMethods(GrpcStreamingType.ServerStreaming)) {
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.ServerStreamingCallSettings");
+      imports.add("com.google.api.gax.rpc.ServerStreamingCallSettings");
     }
     if (interfaceConfig.hasGrpcStreamingMethods(GrpcStreamingType.ClientStreaming)
         || interfaceConfig.hasGrpcStreamingMethods(GrpcStreamingType.BidiStreaming)) {
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.StreamingCallSettings");
+      imports.add("com.google.api.gax.rpc.StreamingCallSettings");
     }
     if (interfaceConfig.hasLongRunningOperations()) {
-      typeTable.saveNicknameFor("com.google.api.gax.longrunning.OperationSnapshot");
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.OperationCallSettings");
-      typeTable.saveNicknameFor("com.google.longrunning.Operation");
-      typeTable.saveNicknameFor("com.google.api.gax.longrunning.OperationTimedPollAlgorithm");
+      imports.add("com.google.api.gax.longrunning.OperationSnapshot");
+      imports.add("com.google.api.gax.rpc.OperationCallSettings");
+      imports.add("com.google.longrunning.Operation");
+      imports.add("com.google.api.gax.longrunning.OperationTimedPollAlgorithm");
     }
     switch (context.getProductConfig().getTransportProtocol()) {
       case GRPC:
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcTransportChannel");
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.InstantiatingGrpcChannelProvider");
+        imports.add("com.google.api.gax.grpc.GrpcTransportChannel");
+        imports.add("com.google.api.gax.grpc.InstantiatingGrpcChannelProvider");
         if (interfaceConfig.hasLongRunningOperations()) {
-          typeTable.saveNicknameFor("com.google.api.gax.grpc.ProtoOperationTransformers");
+          imports.add("com.google.api.gax.grpc.ProtoOperationTransformers");
         }
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GaxGrpcProperties");
+        imports.add("com.google.api.gax.grpc.GaxGrpcProperties");
         break;
       case HTTP:
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.HttpJsonTransportChannel");
-        typeTable.saveNicknameFor(
-            "com.google.api.gax.httpjson.InstantiatingHttpJsonChannelProvider");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.GaxHttpJsonProperties");
-        typeTable.saveNicknameFor("java.lang.Void");
+        imports.add("com.google.api.gax.httpjson.HttpJsonTransportChannel");
+        imports.add("com.google.api.gax.httpjson.InstantiatingHttpJsonChannelProvider");
+        imports.add("com.google.api.gax.httpjson.GaxHttpJsonProperties");
+        imports.add("java.lang.Void");
         break;
     }
+    return imports;
   }
 
-  private void addRpcStubImports(InterfaceContext context) {
-    ImportTypeTable typeTable = context.getImportTypeTable();
-
-    typeTable.saveNicknameFor("com.google.api.core.BetaApi");
-    typeTable.saveNicknameFor("com.google.api.gax.core.BackgroundResource");
-    typeTable.saveNicknameFor("com.google.api.gax.core.BackgroundResourceAggregation");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientContext");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallable");
-    typeTable.saveNicknameFor("java.io.IOException");
-    typeTable.saveNicknameFor("java.util.ArrayList");
-    typeTable.saveNicknameFor("java.util.List");
-    typeTable.saveNicknameFor("java.util.Map");
-    typeTable.saveNicknameFor("java.util.concurrent.TimeUnit");
-    typeTable.saveNicknameFor("javax.annotation.Generated");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.RequestParamsExtractor");
-    typeTable.saveNicknameFor("com.google.common.collect.ImmutableMap");
+  private List<String> getRpcStubImports(InterfaceContext context) {
+    List<String> imports = new ArrayList<>();
+
+    imports.add("com.google.api.core.BetaApi");
+    imports.add("com.google.api.gax.core.BackgroundResource");
+    imports.add("com.google.api.gax.core.BackgroundResourceAggregation");
+    imports.add("com.google.api.gax.rpc.ClientContext");
+    imports.add("com.google.api.gax.rpc.UnaryCallable");
+    imports.add("java.io.IOException");
+    imports.add("java.util.ArrayList");
+    imports.add("java.util.List");
+    imports.add("java.util.Map");
+    imports.add("java.util.concurrent.TimeUnit");
+    imports.add("javax.annotation.Generated");
+    imports.add("com.google.api.gax.rpc.RequestParamsExtractor");
+    imports.add("com.google.common.collect.ImmutableMap");
 
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
     if (interfaceConfig.hasGrpcStreamingMethods(
         GrpcStreamingConfig.GrpcStreamingType.BidiStreaming)) {
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.BidiStreamingCallable");
+      imports.add("com.google.api.gax.rpc.BidiStreamingCallable");
     }
     if (interfaceConfig.hasGrpcStreamingMethods(
         GrpcStreamingConfig.GrpcStreamingType.ServerStreaming)) {
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.ServerStreamingCallable");
+      imports.add("com.google.api.gax.rpc.ServerStreamingCallable");
     }
     if (interfaceConfig.hasGrpcStreamingMethods(
         GrpcStreamingConfig.GrpcStreamingType.ClientStreaming)) {
-      typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientStreamingCallable");
+      imports.add("com.google.api.gax.rpc.ClientStreamingCallable");
     }
     if (interfaceConfig.hasLongRunningOperations()) {
-      typeTable.saveNicknameFor("com.google.api.gax.longrunning.OperationSnapshot");
+      imports.add("com.google.api.gax.longrunning.OperationSnapshot");
     }
     switch (context.getProductConfig().getTransportProtocol()) {
       case GRPC:
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcStubCallableFactory");
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcCallableFactory");
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcCallSettings");
-        typeTable.saveNicknameFor("io.grpc.MethodDescriptor");
-        typeTable.saveNicknameFor("io.grpc.protobuf.ProtoUtils");
+        imports.add("com.google.api.gax.grpc.GrpcStubCallableFactory");
+        imports.add("com.google.api.gax.grpc.GrpcCallableFactory");
+        imports.add("com.google.api.gax.grpc.GrpcCallSettings");
+        imports.add("io.grpc.MethodDescriptor");
+        imports.add("io.grpc.protobuf.ProtoUtils");
         if (interfaceConfig.hasLongRunningOperations()) {
-          typeTable.saveNicknameFor("com.google.longrunning.Operation");
-          typeTable.saveNicknameFor("com.google.longrunning.stub.GrpcOperationsStub");
+          imports.add("com.google.longrunning.Operation");
+          imports.add("com.google.longrunning.stub.GrpcOperationsStub");
         }
         break;
       case HTTP:
-        typeTable.saveNicknameFor("com.google.api.client.http.HttpMethods");
-        typeTable.saveNicknameFor("com.google.api.core.InternalApi");
-        typeTable.saveNicknameFor("com.google.api.pathtemplate.PathTemplate");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.ApiMessageHttpRequestFormatter");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.ApiMessageHttpResponseParser");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.ApiMethodDescriptor");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.HttpJsonCallSettings");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.HttpJsonStubCallableFactory");
-        typeTable.saveNicknameFor("com.google.common.collect.Sets");
-        typeTable.saveNicknameFor("java.lang.Void");
+        imports.add("com.google.api.client.http.HttpMethods");
+        imports.add("com.google.api.core.InternalApi");
+        imports.add("com.google.api.pathtemplate.PathTemplate");
+        imports.add("com.google.api.gax.httpjson.ApiMessageHttpRequestFormatter");
+        imports.add("com.google.api.gax.httpjson.ApiMessageHttpResponseParser");
+        imports.add("com.google.api.gax.httpjson.ApiMethodDescriptor");
+        imports.add("com.google.api.gax.httpjson.HttpJsonCallSettings");
+        imports.add("com.google.api.gax.httpjson.HttpJsonStubCallableFactory");
+        imports.add("com.google.common.collect.Sets");
+        imports.add("java.lang.Void");
         break;
     }
+    return imports;
   }
 
-  private void addCallableFactoryImports(InterfaceContext context) {
-    ImportTypeTable typeTable = context.getImportTypeTable();
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.OperationCallable");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.OperationCallSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.BidiStreamingCallable");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.StreamingCallSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ServerStreamingCallSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ServerStreamingCallable");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientStreamingCallable");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.ClientContext");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallable");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.PagedCallSettings");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.BatchingCallSettings");
+  private List<String> getCallableFactoryImports(InterfaceContext context) {
+    List<String> imports = new ArrayList<>();
+    imports.add("com.google.api.gax.rpc.OperationCallable");
+    imports.add("com.google.api.gax.rpc.OperationCallSettings");
+    imports.add("com.google.api.gax.rpc.BidiStreamingCallable");
+    imports.add("com.google.api.gax.rpc.StreamingCallSettings");
+    imports.add("com.google.api.gax.rpc.ServerStreamingCallSettings");
+    imports.add("com.google.api.gax.rpc.ServerStreamingCallable");
+    imports.add("com.google.api.gax.rpc.ClientStreamingCallable");
+    imports.add("com.google.api.gax.rpc.ClientContext");
+    imports.add("com.google.api.gax.rpc.UnaryCallable");
+    imports.add("com.google.api.gax.rpc.UnaryCallSettings");
+    imports.add("com.google.api.gax.rpc.PagedCallSettings");
+    imports.add("com.google.api.gax.rpc.BatchingCallSettings");
 
     switch (context.getProductConfig().getTransportProtocol()) {
       case GRPC:
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcCallableFactory");
-        typeTable.saveNicknameFor("com.google.api.gax.grpc.GrpcStubCallableFactory");
-        typeTable.saveNicknameFor("com.google.longrunning.Operation");
-        typeTable.saveNicknameFor("com.google.longrunning.stub.OperationsStub");
+        imports.add("com.google.api.gax.grpc.GrpcCallableFactory");
+        imports.add("com.google.api.gax.grpc.GrpcStubCallableFactory");
+        imports.add("com.google.longrunning.Operation");
+        imports.add("com.google.longrunning.stub.OperationsStub");
         break;
       case HTTP:
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.HttpJsonCallableFactory");
-        typeTable.saveNicknameFor("com.google.api.gax.httpjson.HttpJsonStubCallableFactory");
-        typeTable.saveNicknameFor("javax.annotation.Nullable");
+        imports.add("com.google.api.gax.httpjson.HttpJsonCallableFactory");
+        imports.add("com.google.api.gax.httpjson.HttpJsonStubCallableFactory");
+        imports.add("javax.annotation.Nullable");
         break;
     }
+    return imports;
   }
 
-  private void addStubInterfaceImports(InterfaceContext context) {
-    ImportTypeTable typeTable = context.getImportTypeTable();
+  private List<String> getStubInterfaceImports(InterfaceContext context) {
+    List<String> imports = new ArrayList<>();
 
-    typeTable.saveNicknameFor("com.google.api.core.BetaApi");
-    typeTable.saveNicknameFor("com.google.api.gax.core.BackgroundResource");
-    typeTable.saveNicknameFor("com.google.api.gax.rpc.UnaryCallable");
-    typeTable.saveNicknameFor("javax.annotation.Generated");
-    typeTable.saveNicknameFor("java.lang.Void");
+    imports.add("com.google.api.core.BetaApi");
+    imports.add("com.google.api.gax.core.BackgroundResource");
+    imports.add("com.google.api.gax.rpc.UnaryCallable");
+    imports.add("javax.annotation.Generated");
+    imports.add("java.lang.Void");
 
     InterfaceConfig interfaceConfig = context.getInterfaceConfig();
     if (interfaceConfig.hasLongRunningOperations()) {
-      typeTable.saveNicknameFor("com.google.longrunning.Operation");
-      typeTable.saveNicknameFor("com.google.longrunning.stub.OperationsStub");
+      imports.add("com.google.longrunning.Operation");
+      imports.add("com.google.longrunning.stub.OperationsStub");
     }
+    return imports;
   }
 
   private void addPagedResponseWrapperImports(ImportTypeTable typeTable) {
@@ -161,43 +161,23 @@ public class PythonGapicSurfaceTestTransformer implements ModelToViewTransformer
   }
 
   private boolean hasUnaryUnary(GapicInterfaceConfig interfaceConfig) {
-    return interfaceConfig
-        .getMethodConfigs()
-        .stream()
-        .anyMatch(method -> !method.isGrpcStreaming());
+    return interfaceConfig.getGrpcStreamingMethodConfigs().size()
+        < interfaceConfig.getMethodConfigs().size();
   }
 
   private boolean hasUnaryStreaming(GapicInterfaceConfig interfaceConfig) {
-    return interfaceConfig
-        .getMethodConfigs()
-        .stream()
-        .anyMatch(
-            method ->
-                method.isGrpcStreaming()
-                    && method.getGrpcStreaming().getType()
-                        == GrpcStreamingConfig.GrpcStreamingType.ServerStreaming);
+    return interfaceConfig.hasGrpcStreamingMethods(
+        GrpcStreamingConfig.GrpcStreamingType.ServerStreaming);
   }
 
   private boolean hasStreamingUnary(GapicInterfaceConfig interfaceConfig) {
-    return interfaceConfig
-        .getMethodConfigs()
-        .stream()
-        .anyMatch(
-            method ->
-                method.isGrpcStreaming()
-                    && method.getGrpcStreaming().getType()
-                        == GrpcStreamingConfig.GrpcStreamingType.ClientStreaming);
+    return interfaceConfig.hasGrpcStreamingMethods(
+        GrpcStreamingConfig.GrpcStreamingType.ClientStreaming);
   }
 
   private boolean hasStreamingStreaming(GapicInterfaceConfig interfaceConfig) {
-    return interfaceConfig
-        .getMethodConfigs()
-        .stream()
-        .anyMatch(
-            method ->
-                method.isGrpcStreaming()
-                    && method.getGrpcStreaming().getType()
-                        == GrpcStreamingConfig.GrpcStreamingType.BidiStreaming);
+    return interfaceConfig.hasGrpcStreamingMethods(
+        GrpcStreamingConfig.GrpcStreamingType.BidiStreaming);
   }
 
   private List<TestCaseView> createTestCaseViews(GapicInterfaceContext context) {
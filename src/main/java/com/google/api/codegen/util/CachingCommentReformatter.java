@@ -0,0 +1,97 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A {@link CommentReformatter} that reuses the comments reformatted by a process-wide, thread-safe
+ * cache, keyed by the class of the wrapped reformatter and the raw comment.
+ *
+ * <p>The same proto comment is reformatted for the client, settings, stubs, samples, tests and doc
+ * files of a language, each by a freshly created namer. The reformatters of all languages are
+ * stateless, so their class is enough to tell which language a cached comment was reformatted for.
+ * A reformatter whose result depends on its instance state must not be wrapped.
+ */
+public final class CachingCommentReformatter implements CommentReformatter {
+
+  /** The maximum number of reformatted comments kept before the least recently used is evicted. */
+  private static final long MAXIMUM_SIZE = 16384;
+
+  private static final Cache<CommentKey, String> COMMENTS =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).recordStats().build();
+
+  private final CommentReformatter reformatter;
+
+  private CachingCommentReformatter(CommentReformatter reformatter) {
+    this.reformatter = reformatter;
+  }
+
+  /** Returns a reformatter that caches the comments reformatted by the given one. */
+  public static CommentReformatter of(CommentReformatter reformatter) {
+    Preconditions.checkNotNull(reformatter);
+    if (reformatter instanceof CachingCommentReformatter) {
+      return reformatter;
+    }
+    return new CachingCommentReformatter(reformatter);
+  }
+
+  @Override
+  public String reformat(String comment) {
+    if (comment == null) {
+      return reformatter.reformat(comment);
+    }
+    try {
+      return COMMENTS.get(
+          CommentKey.create(reformatter.getClass(), comment), () -> reformatter.reformat(comment));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** Returns the hit, miss, load and eviction counters of the cache. */
+  public static CacheStats stats() {
+    return COMMENTS.stats();
+  }
+
+  /** Returns the number of reformatted comments currently held. */
+  public static long size() {
+    return COMMENTS.size();
+  }
+
+  /** Discards all cached comments. */
+  public static void invalidateAll() {
+    COMMENTS.invalidateAll();
+  }
+
+  @AutoValue
+  abstract static class CommentKey {
+    abstract Class<? extends CommentReformatter> reformatterClass();
+
+    abstract String comment();
+
+    static CommentKey create(Class<? extends CommentReformatter> reformatterClass, String comment) {
+      return new AutoValue_CachingCommentReformatter_CommentKey(reformatterClass, comment);
+    }
+  }
+}
@@ -18,8 +18,11 @@ package com.google.api.codegen.util;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -36,6 +39,8 @@ public class CommonAcronyms {
           .add("SQL")
           .build();
 
+  private static final AcronymMatcher ACRONYM_MATCHER = new AcronymMatcher(ACRONYMS);
+
   /** Represents the notion of whether a name piece is normal or an upper-case acronym. */
   public enum NamePieceCasingType {
     NORMAL,
@@ -84,19 +89,7 @@ public class CommonAcronyms {
   }
 
   private static List<NamePiecePosition> getNamePiecePositions(String str) {
-    List<NamePiecePosition> positions = new ArrayList<>();
-    for (String acronym : ACRONYMS) {
-      int startIndex = 0;
-      int foundIndex = -1;
-      while ((foundIndex = str.indexOf(acronym, startIndex)) != -1) {
-        int endIndex = foundIndex + acronym.length();
-        positions.add(new NamePiecePosition(foundIndex, endIndex));
-        startIndex = endIndex;
-      }
-    }
-    Collections.sort(positions);
-
-    return positions;
+    return ACRONYM_MATCHER.findAll(str);
   }
 
   private static List<SubNamePiece> getSubNamePieces(
@@ -178,4 +171,113 @@ public class CommonAcronyms {
       }
     }
   }
+
+  /**
+   * An Aho-Corasick automaton over upper-case acronyms, which finds every occurrence of every
+   * acronym in a single pass over the string.
+   *
+   * <p>The automaton reports matches in the order they end, which differs from the order they start
+   * when one acronym contains another (such as "HTTPS" and "HTTP"), so the matches are sorted by
+   * position as {@link #getSubNamePieces} expects.
+   */
+  private static class AcronymMatcher {
+    private static final int ALPHABET_SIZE = 26;
+    private static final int ROOT = 0;
+
+    // transitions[state][letter] is the next state; it is complete, so matching never backtracks.
+    private final int[][] transitions;
+    // The length of the longest acronym ending at each state, or 0 if none does.
+    private final int[] matchLengths;
+    // The next state down the failure chain which ends an acronym, or -1 if there is none.
+    private final int[] matchLinks;
+
+    AcronymMatcher(Iterable<String> acronyms) {
+      List<int[]> trie = new ArrayList<>();
+      List<Integer> lengths = new ArrayList<>();
+      trie.add(newState());
+      lengths.add(0);
+      for (String acronym : acronyms) {
+        int state = ROOT;
+        for (int i = 0; i < acronym.length(); ++i) {
+          int letter = letterIndex(acronym.charAt(i));
+          Preconditions.checkArgument(letter >= 0, "Acronyms must be upper case: %s", acronym);
+          if (trie.get(state)[letter] < 0) {
+            trie.get(state)[letter] = trie.size();
+            trie.add(newState());
+            lengths.add(0);
+          }
+          state = trie.get(state)[letter];
+        }
+        lengths.set(state, acronym.length());
+      }
+
+      transitions = trie.toArray(new int[0][]);
+      matchLengths = new int[transitions.length];
+      matchLinks = new int[transitions.length];
+      int[] failures = new int[transitions.length];
+      for (int state = 0; state < transitions.length; ++state) {
+        matchLengths[state] = lengths.get(state);
+      }
+
+      // Breadth-first, so the failure state of each state is complete before it is used.
+      Deque<Integer> pending = new ArrayDeque<>();
+      matchLinks[ROOT] = -1;
+      for (int letter = 0; letter < ALPHABET_SIZE; ++letter) {
+        int next = transitions[ROOT][letter];
+        if (next < 0) {
+          transitions[ROOT][letter] = ROOT;
+        } else {
+          failures[next] = ROOT;
+          matchLinks[next] = -1;
+          pending.add(next);
+        }
+      }
+      while (!pending.isEmpty()) {
+        int state = pending.remove();
+        for (int letter = 0; letter < ALPHABET_SIZE; ++letter) {
+          int next = transitions[state][letter];
+          int fallback = transitions[failures[state]][letter];
+          if (next < 0) {
+            transitions[state][letter] = fallback;
+          } else {
+            failures[next] = fallback;
+            matchLinks[next] = matchLengths[fallback] > 0 ? fallback : matchLinks[fallback];
+            pending.add(next);
+          }
+        }
+      }
+    }
+
+    List<NamePiecePosition> findAll(String str) {
+      List<NamePiecePosition> positions = null;
+      int state = ROOT;
+      for (int i = 0; i < str.length(); ++i) {
+        int letter = letterIndex(str.charAt(i));
+        state = letter < 0 ? ROOT : transitions[state][letter];
+        for (int match = state; match > ROOT; match = matchLinks[match]) {
+          if (matchLengths[match] > 0) {
+            if (positions == null) {
+              positions = new ArrayList<>();
+            }
+            positions.add(new NamePiecePosition(i + 1 - matchLengths[match], i + 1));
+          }
+        }
+      }
+      if (positions == null) {
+        return Collections.emptyList();
+      }
+      Collections.sort(positions);
+      return positions;
+    }
+
+    private static int[] newState() {
+      int[] state = new int[ALPHABET_SIZE];
+      Arrays.fill(state, -1);
+      return state;
+    }
+
+    private static int letterIndex(char ch) {
+      return ch >= 'A' && ch <= 'Z' ? ch - 'A' : -1;
+    }
+  }
 }
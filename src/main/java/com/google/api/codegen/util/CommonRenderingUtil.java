@@ -15,16 +15,21 @@
 package com.google.api.codegen.util;
 
 import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /** Utility class to process text in the templates. */
 public class CommonRenderingUtil {
 
+  /** Wraps doc lines on whitespace, '(' and '['. */
+  private static final LineWrapper DOC_LINE_WRAPPER =
+      new LineWrapper(
+          CharMatcher.forPredicate(c -> Character.isWhitespace(c) || c == '(' || c == '['));
+
   /** Strips the surrounding quotes from the given string */
   public static String stripQuotes(String value) {
     for (char quoteChar : new char[] {'\'', '"'}) {
@@ -41,8 +46,10 @@ public class CommonRenderingUtil {
   public static List<String> getDocLines(String text) {
     // TODO: Convert markdown to language-specific doc format.
     // https://github.com/googleapis/toolkit/issues/331
-    text = text.replace("\r\n", "\n").replace("\r", "\n");
-    List<String> result = Splitter.on('\n').splitToList(text);
+    ImmutableList.Builder<String> lines = ImmutableList.builder();
+    LineWrapper.forEachLine(
+        text, (line, start, end) -> lines.add(line.subSequence(start, end).toString()));
+    List<String> result = lines.build();
     return result.size() == 1 && result.get(0).isEmpty() ? ImmutableList.<String>of() : result;
   }
 
@@ -52,47 +59,19 @@ public class CommonRenderingUtil {
    * <p>maxWidth includes the ending newline.
    */
   public static List<String> getDocLines(String text, int maxWidth) {
-    text = text.replace("\r\n", "\n").replace("\r", "\n");
-    maxWidth = maxWidth - 1;
     List<String> lines = new ArrayList<>();
-    for (String line : text.trim().split("\n")) {
-      line = line.trim();
-      while (line.length() > maxWidth) {
-        int split = lineWrapIndex(line, maxWidth);
-        lines.add(line.substring(0, split).trim());
-        line = line.substring(split).trim();
-      }
-      if (!line.isEmpty()) {
-        lines.add(line);
-      }
-    }
+    LineWrapper.LineConsumer addNonEmpty =
+        (line, start, end) -> {
+          if (start < end) {
+            lines.add(line.subSequence(start, end).toString());
+          }
+        };
+    LineWrapper.forEachLine(
+        text,
+        (line, start, end) -> DOC_LINE_WRAPPER.wrap(line, start, end, maxWidth - 1, addNonEmpty));
     return lines;
   }
 
-  /** Returns the index on which to insert a newline given maxWidth. */
-  private static int lineWrapIndex(String line, int maxWidth) {
-    for (int i = maxWidth; i > 0; i--) {
-      if (isLineWrapChar(line.charAt(i))) {
-        return i;
-      }
-    }
-    for (int i = maxWidth + 1; i < line.length(); i++) {
-      if (isLineWrapChar(line.charAt(i))) {
-        return i;
-      }
-    }
-    return line.length();
-  }
-
-  /**
-   * Returns true if c is a character that should be wrapped on.
-   *
-   * <p>The set includes whitespace characters, '(', and '['.
-   */
-  private static boolean isLineWrapChar(char c) {
-    return Character.isWhitespace(c) || "([".indexOf(c) >= 0;
-  }
-
   /**
    * Creates a whitespace string of the specified width.
    *
@@ -113,9 +92,25 @@ public class CommonRenderingUtil {
     return Integer.valueOf(value);
   }
 
-  public static List<String> pretty(Doc doc) {
+  /**
+   * Returns the lines of the pretty-printed doc, like {@link String#split} on "\n": trailing empty
+   * lines are dropped, unless the doc is empty. The lines are split off the printed text as they
+   * are iterated, rather than copied up front.
+   */
+  public static Iterable<String> pretty(Doc doc) {
     StringBuilder sb = new StringBuilder();
     doc.prettyPrint(sb);
-    return Arrays.asList(sb.toString().split("\n"));
+    if (sb.length() == 0) {
+      return ImmutableList.of("");
+    }
+    int end = sb.length();
+    while (end > 0 && sb.charAt(end - 1) == '\n') {
+      end--;
+    }
+    if (end == 0) {
+      return ImmutableList.of();
+    }
+    sb.setLength(end);
+    return Splitter.on('\n').split(sb);
   }
 }
@@ -24,9 +24,9 @@ import java.util.TreeMap;
 /** A generic TypeTable that can be used by dynamic language implementations. */
 public class DynamicLangTypeTable implements TypeTable {
   /** A bi-map from full names to short names indicating the import map. */
-  private final BiMap<String, TypeAlias> imports = HashBiMap.create();
+  private final BiMap<String, TypeAlias> imports;
 
-  private final Set<String> usedNicknames = new HashSet<>();
+  private final Set<String> usedNicknames;
 
   private final String implicitPackageName;
 
@@ -35,6 +35,15 @@ public class DynamicLangTypeTable implements TypeTable {
   public DynamicLangTypeTable(String implicitPackageName, String separator) {
     this.implicitPackageName = implicitPackageName;
     this.separator = separator;
+    this.imports = HashBiMap.create();
+    this.usedNicknames = new HashSet<>();
+  }
+
+  private DynamicLangTypeTable(DynamicLangTypeTable parent) {
+    this.implicitPackageName = parent.implicitPackageName;
+    this.separator = parent.separator;
+    this.imports = HashBiMap.create(parent.imports);
+    this.usedNicknames = new HashSet<>(parent.usedNicknames);
   }
 
   public String getSeparator() {
@@ -59,6 +68,15 @@ public class DynamicLangTypeTable implements TypeTable {
     return new DynamicLangTypeTable(packageName, separator);
   }
 
+  /**
+   * Returns a copy of this table. The imports are copied rather than shared, since they are exposed
+   * as a mutable {@link BiMap} by {@link #getImportsBimap()}.
+   */
+  @Override
+  public DynamicLangTypeTable fork() {
+    return new DynamicLangTypeTable(this);
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     int lastSeparatorIndex = fullName.lastIndexOf(getSeparator());
@@ -0,0 +1,139 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A map which can be forked in constant time. A fork starts out with the entries of the map it was
+ * forked from, and afterwards puts to either map are not seen by the other.
+ *
+ * <p>The entries are kept in a chain of frozen layers, shared between the forks, plus the entries
+ * put since the map was last forked. Forking freezes the latter into a new layer, so a fork only
+ * stores its own delta, however many entries it inherits. Entries cannot be removed, and neither
+ * keys nor values may be null.
+ *
+ * <p>Forking is synchronized, so a map which is no longer put to may be forked from several threads
+ * at once. Otherwise, like {@link HashMap}, the map is not thread-safe.
+ */
+public final class ForkableMap<K, V> extends AbstractMap<K, V> {
+  /** The depth beyond which the frozen layers are flattened into one, to keep lookups short. */
+  private static final int MAX_DEPTH = 8;
+
+  private Layer<K, V> frozen;
+  private Map<K, V> delta = new HashMap<>();
+  private int size;
+
+  public ForkableMap() {
+    this(null, 0);
+  }
+
+  private ForkableMap(Layer<K, V> frozen, int size) {
+    this.frozen = frozen;
+    this.size = size;
+  }
+
+  /** Returns a new map with the same entries as this one, sharing rather than copying them. */
+  public synchronized ForkableMap<K, V> fork() {
+    if (!delta.isEmpty()) {
+      frozen = Layer.create(delta, frozen);
+      delta = new HashMap<>();
+    }
+    return new ForkableMap<>(frozen, size);
+  }
+
+  @Override
+  public V get(Object key) {
+    V value = delta.get(key);
+    for (Layer<K, V> layer = frozen; value == null && layer != null; layer = layer.parent) {
+      value = layer.entries.get(key);
+    }
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    Preconditions.checkNotNull(key);
+    Preconditions.checkNotNull(value);
+    V previous = get(key);
+    delta.put(key, value);
+    if (previous == null) {
+      ++size;
+    }
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** Returns an unmodifiable view of the entries, which are collected from the layers on demand. */
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return Collections.unmodifiableMap(flatten(frozen, delta)).entrySet();
+  }
+
+  /** Collects the entries of the given layers and delta, the latest put of each key winning. */
+  private static <K, V> Map<K, V> flatten(Layer<K, V> layers, Map<K, V> delta) {
+    Deque<Map<K, V>> chain = new ArrayDeque<>();
+    for (Layer<K, V> layer = layers; layer != null; layer = layer.parent) {
+      chain.push(layer.entries);
+    }
+    Map<K, V> entries = new LinkedHashMap<>();
+    for (Map<K, V> layerEntries : chain) {
+      entries.putAll(layerEntries);
+    }
+    entries.putAll(delta);
+    return entries;
+  }
+
+  /** An immutable set of entries, on top of those of its parent layer. */
+  private static final class Layer<K, V> {
+    private final Map<K, V> entries;
+    private final Layer<K, V> parent;
+    private final int depth;
+
+    private Layer(Map<K, V> entries, Layer<K, V> parent, int depth) {
+      this.entries = entries;
+      this.parent = parent;
+      this.depth = depth;
+    }
+
+    /** Creates a layer of the given entries, which must no longer be modified. */
+    private static <K, V> Layer<K, V> create(Map<K, V> entries, Layer<K, V> parent) {
+      if (parent == null) {
+        return new Layer<>(entries, null, 1);
+      }
+      if (parent.depth >= MAX_DEPTH) {
+        return new Layer<>(flatten(parent, entries), null, 1);
+      }
+      return new Layer<>(entries, parent, parent.depth + 1);
+    }
+  }
+}
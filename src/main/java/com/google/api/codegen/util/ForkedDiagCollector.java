@@ -0,0 +1,50 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+
+/**
+ * Collects the diagnostics of work split off to run concurrently with other work reporting to the
+ * same collector. The diagnostics are kept apart until {@link #replay(DiagCollector)} adds them to
+ * that collector, so that they can be added in a fixed order. The errors the collector already had
+ * when this one was created are counted as well, so that error checks see them as before.
+ */
+public class ForkedDiagCollector extends SimpleDiagCollector {
+  private final int previousErrorCount;
+
+  public ForkedDiagCollector(DiagCollector parent) {
+    this.previousErrorCount = parent.getErrorCount();
+  }
+
+  @Override
+  public int getErrorCount() {
+    return previousErrorCount + super.getErrorCount();
+  }
+
+  @Override
+  public boolean hasErrors() {
+    return getErrorCount() > 0;
+  }
+
+  /** Adds the diagnostics collected here to parent. */
+  public void replay(DiagCollector parent) {
+    for (Diag diag : getDiags()) {
+      parent.addDiag(diag);
+    }
+  }
+}
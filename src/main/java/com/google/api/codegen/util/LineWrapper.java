@@ -0,0 +1,109 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Preconditions;
+
+/**
+ * Splits text into lines and wraps them to a maximum width in a single pass.
+ *
+ * <p>Lines are reported to a {@link LineConsumer} as ranges of the original text, so nothing is
+ * copied unless the consumer copies it. Like {@link String#trim()}, trimming removes the characters
+ * up to and including the space.
+ */
+public final class LineWrapper {
+
+  /** Receives the lines of a text as the range [start, end) of that text. */
+  public interface LineConsumer {
+    void accept(CharSequence text, int start, int end);
+  }
+
+  private final CharMatcher breakChars;
+
+  /** Creates a wrapper that breaks lines on the characters matched by breakChars. */
+  public LineWrapper(CharMatcher breakChars) {
+    this.breakChars = Preconditions.checkNotNull(breakChars);
+  }
+
+  /**
+   * Reports each line of text to consumer, including empty ones. Lines are separated by "\r\n",
+   * "\r" or "\n", so text without a separator is a single line.
+   */
+  public static void forEachLine(CharSequence text, LineConsumer consumer) {
+    int length = text.length();
+    int lineStart = 0;
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == '\n' || c == '\r') {
+        consumer.accept(text, lineStart, i);
+        if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+          i++;
+        }
+        lineStart = i + 1;
+      }
+    }
+    consumer.accept(text, lineStart, length);
+  }
+
+  /**
+   * Trims the line [start, end) of text and reports it to consumer in pieces of at most maxWidth
+   * characters, each of them trimmed.
+   *
+   * <p>A piece is broken at the last break character within maxWidth characters of its start, not
+   * counting its first character, which then begins the next piece. Without one, the piece runs up
+   * to the first break character after that, or to the end of the line. The last piece is always
+   * reported, even if it is empty.
+   */
+  public void wrap(CharSequence text, int start, int end, int maxWidth, LineConsumer consumer) {
+    Preconditions.checkArgument(maxWidth >= 0, "maxWidth must not be negative: %s", maxWidth);
+    start = trimStart(text, start, end);
+    end = trimEnd(text, start, end);
+    while (end - start > maxWidth) {
+      int split = wrapIndex(text, start, end, maxWidth);
+      consumer.accept(text, start, trimEnd(text, start, split));
+      start = trimStart(text, split, end);
+    }
+    consumer.accept(text, start, end);
+  }
+
+  private int wrapIndex(CharSequence text, int start, int end, int maxWidth) {
+    for (int i = start + maxWidth; i > start; i--) {
+      if (breakChars.matches(text.charAt(i))) {
+        return i;
+      }
+    }
+    for (int i = start + maxWidth + 1; i < end; i++) {
+      if (breakChars.matches(text.charAt(i))) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  private static int trimStart(CharSequence text, int start, int end) {
+    while (start < end && text.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int trimEnd(CharSequence text, int start, int end) {
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+}
@@ -17,14 +17,35 @@ package com.google.api.codegen.util;
 import com.google.api.codegen.util.CommonAcronyms.NamePieceCasingType;
 import com.google.api.codegen.util.CommonAcronyms.SubNamePiece;
 import com.google.common.base.CaseFormat;
-import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
-import java.util.ArrayList;
-import java.util.List;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.ExecutionException;
 
-/** Name represents an identifier name which is casing-aware. */
-public class Name {
-  private List<NamePiece> namePieces;
+/**
+ * Name represents an identifier name which is casing-aware.
+ *
+ * <p>Names are immutable and interned: creating a Name from the same pieces as a live Name returns
+ * that instance. Each rendering (lower-underscore, camel, phrase, ...) is computed on first use and
+ * cached on the instance, so namers asking for the same name over and over only pay for it once.
+ * Equality is defined by the lower-underscore form, which is also cached along with its hash code.
+ */
+public final class Name {
+  /** Live names by their pieces. Values are weak, so unused names can be collected. */
+  private static final Cache<ImmutableList<NamePiece>, Name> INTERNED =
+      CacheBuilder.newBuilder().weakValues().build();
+
+  private final ImmutableList<NamePiece> namePieces;
+
+  // Renderings, computed on first use. They are immutable and always computed to the same value, so
+  // racing threads may at worst compute one twice.
+  private String lowerUnderscore;
+  private String upperUnderscore;
+  private String lowerCamel;
+  private String upperCamel;
+  private String phrase;
+  private int hashCode;
 
   /**
    * Creates a Name from a sequence of lower-underscore strings.
@@ -33,7 +54,7 @@ public class Name {
    *     lower case or underscores.
    */
   public static Name from(String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
@@ -41,7 +62,7 @@ public class Name {
       validateLowerUnderscore(piece);
       namePieces.add(new NamePiece(piece, CaseFormat.LOWER_UNDERSCORE));
     }
-    return new Name(namePieces);
+    return create(namePieces.build());
   }
 
   /**
@@ -52,23 +73,43 @@ public class Name {
    *     contain characters that are not underscores.
    */
   public static Name anyLower(String... pieces) {
-    Name name;
-    try {
-      name = Name.from(pieces);
-    } catch (IllegalArgumentException e) {
+    // Classify the pieces first, rather than trying each format and catching the failure, since
+    // lower-camel input is common and building exceptions is expensive.
+    if (allLowerUnderscore(pieces)) {
+      return Name.from(pieces);
+    }
+    if (allCamel(pieces, CheckCase.LOWER)) {
       try {
-        name = Name.lowerCamel(pieces);
-      } catch (IllegalArgumentException ex) {
-        String msg = "[";
-        for (String p : pieces) {
-          msg += String.format("\"%s\", ", p);
-        }
-        msg += "]\n";
-        throw new IllegalArgumentException(
-            "Name: identifiers are not all either lower-underscore or lower-camel: " + msg);
+        return Name.lowerCamel(pieces);
+      } catch (IllegalArgumentException e) {
+        // Ambiguous acronyms; reported below like any other unsupported identifier.
       }
     }
-    return name;
+    String msg = "[";
+    for (String p : pieces) {
+      msg += String.format("\"%s\", ", p);
+    }
+    msg += "]\n";
+    throw new IllegalArgumentException(
+        "Name: identifiers are not all either lower-underscore or lower-camel: " + msg);
+  }
+
+  private static boolean allLowerUnderscore(String[] pieces) {
+    for (String piece : pieces) {
+      if (!Strings.isNullOrEmpty(piece) && !isLowerUnderscore(piece)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean allCamel(String[] pieces, CheckCase check) {
+    for (String piece : pieces) {
+      if (!Strings.isNullOrEmpty(piece) && !isCamel(piece, check)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -78,7 +119,7 @@ public class Name {
    *     upper case or underscores.
    */
   public static Name upperUnderscore(String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
@@ -86,7 +127,7 @@ public class Name {
       validateUpperUnderscore(piece);
       namePieces.add(new NamePiece(piece, CaseFormat.UPPER_UNDERSCORE));
     }
-    return new Name(namePieces);
+    return create(namePieces.build());
   }
 
   /**
@@ -134,7 +175,7 @@ public class Name {
 
   private static Name camelInternal(
       CheckCase checkCase, AcronymMode acronymMode, String... pieces) {
-    List<NamePiece> namePieces = new ArrayList<>();
+    ImmutableList.Builder<NamePiece> namePieces = ImmutableList.builder();
     for (String piece : pieces) {
       if (Strings.isNullOrEmpty(piece)) {
         continue;
@@ -150,7 +191,7 @@ public class Name {
         namePieces.add(new NamePiece(subPiece.namePieceString(), caseFormat, casingMode));
       }
     }
-    return new Name(namePieces);
+    return create(namePieces.build());
   }
 
   private static void validateLowerUnderscore(String identifier) {
@@ -168,9 +209,9 @@ public class Name {
   }
 
   private static boolean isUpperUnderscore(String identifier) {
-    Character underscore = Character.valueOf('_');
-    for (Character ch : identifier.toCharArray()) {
-      if (!Character.isUpperCase(ch) && !ch.equals(underscore) && !Character.isDigit(ch)) {
+    for (int i = 0; i < identifier.length(); ++i) {
+      char ch = identifier.charAt(i);
+      if (!Character.isUpperCase(ch) && ch != '_' && !Character.isDigit(ch)) {
         return false;
       }
     }
@@ -178,9 +219,9 @@ public class Name {
   }
 
   private static boolean isLowerUnderscore(String identifier) {
-    Character underscore = Character.valueOf('_');
-    for (Character ch : identifier.toCharArray()) {
-      if (!Character.isLowerCase(ch) && !ch.equals(underscore) && !Character.isDigit(ch)) {
+    for (int i = 0; i < identifier.length(); ++i) {
+      char ch = identifier.charAt(i);
+      if (!Character.isLowerCase(ch) && ch != '_' && !Character.isDigit(ch)) {
         return false;
       }
     }
@@ -202,7 +243,8 @@ public class Name {
     if (!check.valid(identifier.charAt(0))) {
       return false;
     }
-    for (Character ch : identifier.toCharArray()) {
+    for (int i = 0; i < identifier.length(); ++i) {
+      char ch = identifier.charAt(i);
       if (!Character.isLowerCase(ch) && !Character.isUpperCase(ch) && !Character.isDigit(ch)) {
         return false;
       }
@@ -210,36 +252,64 @@ public class Name {
     return true;
   }
 
-  private Name(List<NamePiece> namePieces) {
+  private static Name create(ImmutableList<NamePiece> namePieces) {
+    try {
+      return INTERNED.get(namePieces, () -> new Name(namePieces));
+    } catch (ExecutionException e) {
+      // The loader cannot throw.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private Name(ImmutableList<NamePiece> namePieces) {
     this.namePieces = namePieces;
   }
 
   /** Returns the identifier in upper-underscore format. */
   public String toUpperUnderscore() {
-    return toUnderscore(CaseFormat.UPPER_UNDERSCORE);
+    String result = upperUnderscore;
+    if (result == null) {
+      result = upperUnderscore = toUnderscore(CaseFormat.UPPER_UNDERSCORE);
+    }
+    return result;
   }
 
   /** Returns the identifier in lower-underscore format. */
   public String toLowerUnderscore() {
-    return toUnderscore(CaseFormat.LOWER_UNDERSCORE);
+    String result = lowerUnderscore;
+    if (result == null) {
+      result = lowerUnderscore = toUnderscore(CaseFormat.LOWER_UNDERSCORE);
+    }
+    return result;
   }
 
   private String toUnderscore(CaseFormat caseFormat) {
-    List<String> newPieces = new ArrayList<>();
+    StringBuilder builder = new StringBuilder();
     for (NamePiece namePiece : namePieces) {
-      newPieces.add(namePiece.caseFormat.to(caseFormat, namePiece.identifier));
+      if (builder.length() > 0) {
+        builder.append('_');
+      }
+      builder.append(namePiece.caseFormat.to(caseFormat, namePiece.identifier));
     }
-    return Joiner.on('_').join(newPieces);
+    return builder.toString();
   }
 
   /** Returns the identifier in lower-camel format. */
   public String toLowerCamel() {
-    return toCamel(CaseFormat.LOWER_CAMEL);
+    String result = lowerCamel;
+    if (result == null) {
+      result = lowerCamel = toCamel(CaseFormat.LOWER_CAMEL);
+    }
+    return result;
   }
 
   /** Returns the identifier in upper-camel format. */
   public String toUpperCamel() {
-    return toCamel(CaseFormat.UPPER_CAMEL);
+    String result = upperCamel;
+    if (result == null) {
+      result = upperCamel = toCamel(CaseFormat.UPPER_CAMEL);
+    }
+    return result;
   }
 
   public String toUpperCamelAndDigits() {
@@ -257,7 +327,7 @@ public class Name {
   }
 
   private String toCamel(CaseFormat caseFormat) {
-    StringBuffer buffer = new StringBuffer();
+    StringBuilder buffer = new StringBuilder();
     boolean firstPiece = true;
     for (NamePiece namePiece : namePieces) {
       if (firstPiece && caseFormat.equals(CaseFormat.LOWER_CAMEL)) {
@@ -276,7 +346,11 @@ public class Name {
 
   /** Returns the name in human readable form, useful in comments. */
   public String toPhrase() {
-    return toLowerUnderscore().replace('_', ' ');
+    String result = phrase;
+    if (result == null) {
+      result = phrase = toLowerUnderscore().replace('_', ' ');
+    }
+    return result;
   }
 
   /** Returns the name in lower case, with a custom separator between components. */
@@ -290,10 +364,11 @@ public class Name {
    */
   public Name join(String identifier) {
     validateLowerUnderscore(identifier);
-    List<NamePiece> newPieceList = new ArrayList<>();
-    newPieceList.addAll(namePieces);
-    newPieceList.add(new NamePiece(identifier, CaseFormat.LOWER_UNDERSCORE));
-    return new Name(newPieceList);
+    return create(
+        ImmutableList.<NamePiece>builder()
+            .addAll(namePieces)
+            .add(new NamePiece(identifier, CaseFormat.LOWER_UNDERSCORE))
+            .build());
   }
 
   /**
@@ -301,10 +376,14 @@ public class Name {
    * on the end.
    */
   public Name join(Name rhs) {
-    List<NamePiece> newPieceList = new ArrayList<>();
-    newPieceList.addAll(namePieces);
-    newPieceList.addAll(rhs.namePieces);
-    return new Name(newPieceList);
+    if (rhs.namePieces.isEmpty()) {
+      return this;
+    }
+    if (namePieces.isEmpty()) {
+      return rhs;
+    }
+    return create(
+        ImmutableList.<NamePiece>builder().addAll(namePieces).addAll(rhs.namePieces).build());
   }
 
   public String toOriginal() {
@@ -323,18 +402,27 @@ public class Name {
 
   @Override
   public boolean equals(Object other) {
+    if (other == this) {
+      return true;
+    }
     if (other instanceof Name) {
-      return ((Name) other).toLowerUnderscore().equals(this.toLowerUnderscore());
+      Name otherName = (Name) other;
+      return otherName.hashCode() == hashCode()
+          && otherName.toLowerUnderscore().equals(toLowerUnderscore());
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return this.toLowerUnderscore().hashCode();
+    int result = hashCode;
+    if (result == 0) {
+      result = hashCode = toLowerUnderscore().hashCode();
+    }
+    return result;
   }
 
-  private static class NamePiece {
+  private static final class NamePiece {
     public final String identifier;
     public final CaseFormat caseFormat;
     public final CasingMode casingMode;
@@ -348,6 +436,22 @@ public class Name {
       this.caseFormat = caseFormat;
       this.casingMode = casingMode;
     }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof NamePiece)) {
+        return false;
+      }
+      NamePiece otherPiece = (NamePiece) other;
+      return identifier.equals(otherPiece.identifier)
+          && caseFormat == otherPiece.caseFormat
+          && casingMode == otherPiece.casingMode;
+    }
+
+    @Override
+    public int hashCode() {
+      return (identifier.hashCode() * 31 + caseFormat.hashCode()) * 31 + casingMode.hashCode();
+    }
   }
 
   // Represents how acronyms should be rendered
@@ -33,6 +33,12 @@ public interface TypeTable extends TypeNameConverter {
 
   TypeTable cloneEmpty(String packageName);
 
+  /**
+   * Return a new TypeTable with the same concrete type and imports as this one. Saving nicknames in
+   * either table afterwards does not affect the other.
+   */
+  TypeTable fork();
+
   /**
    * Computes the nickname for the given full name, adds the full name to the import set, and
    * returns the nickname.
@@ -14,6 +14,7 @@
  */
 package com.google.api.codegen.util.csharp;
 
+import com.google.api.codegen.util.ForkableMap;
 import com.google.api.codegen.util.NamePath;
 import com.google.api.codegen.util.TypeAlias;
 import com.google.api.codegen.util.TypeName;
@@ -22,7 +23,6 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -56,16 +56,25 @@ public class CSharpTypeTable implements TypeTable {
           .put("Google.Cloud.Iam.V1", "iam")
           .build();
 
-  private final Map<String, String> dynamicAliases = new HashMap<String, String>();
+  private final ForkableMap<String, String> dynamicAliases;
 
   private final String implicitPackageName;
   private final CSharpAliasMode aliasMode;
   // Full name to nickname map
-  private final Map<String, TypeAlias> imports = new HashMap<>();
+  private final ForkableMap<String, TypeAlias> imports;
 
   public CSharpTypeTable(String implicitPackageName, CSharpAliasMode aliasMode) {
     this.implicitPackageName = implicitPackageName;
     this.aliasMode = aliasMode;
+    this.dynamicAliases = new ForkableMap<>();
+    this.imports = new ForkableMap<>();
+  }
+
+  private CSharpTypeTable(CSharpTypeTable parent) {
+    this.implicitPackageName = parent.implicitPackageName;
+    this.aliasMode = parent.aliasMode;
+    this.dynamicAliases = parent.dynamicAliases.fork();
+    this.imports = parent.imports.fork();
   }
 
   @Override
@@ -175,6 +184,11 @@ public class CSharpTypeTable implements TypeTable {
     return new CSharpTypeTable(packageName, aliasMode);
   }
 
+  @Override
+  public TypeTable fork() {
+    return new CSharpTypeTable(this);
+  }
+
   private String resolveInner(String name) {
     return name.replace('+', '.');
   }
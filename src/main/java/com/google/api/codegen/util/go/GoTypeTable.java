@@ -35,6 +35,13 @@ public class GoTypeTable implements TypeTable {
     return new GoTypeTable();
   }
 
+  @Override
+  public TypeTable fork() {
+    GoTypeTable fork = new GoTypeTable();
+    fork.imports.putAll(imports);
+    return fork;
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     String[] parts = fullName.split(";", -1);
@@ -14,6 +14,8 @@
  */
 package com.google.api.codegen.util.java;
 
+import com.google.api.codegen.util.CachingCommentReformatter;
+import com.google.api.codegen.util.CommentReformatter;
 import com.google.api.codegen.util.CommonRenderingUtil;
 import com.google.api.tools.framework.snippet.Doc;
 import java.util.Arrays;
@@ -21,12 +23,15 @@ import java.util.List;
 
 /** Utility class for Java to process text in the templates. */
 public class JavaRenderingUtil {
+  private static final CommentReformatter COMMENT_REFORMATTER =
+      CachingCommentReformatter.of(new JavaCommentReformatter());
+
   /**
    * Splits given text into lines and returns a list of strings, each one representing a line.
    * Performs escaping of certain HTML characters.
    */
   public static List<String> getDocLines(String text) {
-    return CommonRenderingUtil.getDocLines(new JavaCommentReformatter().reformat(text));
+    return CommonRenderingUtil.getDocLines(COMMENT_REFORMATTER.reformat(text));
   }
 
   /**
@@ -44,7 +49,7 @@ public class JavaRenderingUtil {
     return Arrays.asList(eqsString, heading, eqsString);
   }
 
-  public static List<String> pretty(Doc doc) {
+  public static Iterable<String> pretty(Doc doc) {
     return CommonRenderingUtil.pretty(doc);
   }
 }
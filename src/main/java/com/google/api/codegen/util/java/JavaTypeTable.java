@@ -16,34 +16,25 @@ package com.google.api.codegen.util.java;
 
 import static com.google.api.codegen.util.java.JavaTypeTable.JavaLangResolution.ESCAPE_JAVA_LANG_CLASH;
 
+import com.google.api.codegen.util.ForkableMap;
 import com.google.api.codegen.util.LanguageUtil;
 import com.google.api.codegen.util.NamePath;
 import com.google.api.codegen.util.TypeAlias;
 import com.google.api.codegen.util.TypeName;
 import com.google.api.codegen.util.TypeTable;
 import com.google.common.base.Joiner;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
 
 /** The TypeTable for Java. */
 public class JavaTypeTable implements TypeTable {
-  /** A bi-map from full names to type alias indicating the import map. */
-  private final BiMap<String, TypeAlias> imports = HashBiMap.create();
+  /** A map from full names to type alias indicating the import map. */
+  private final ForkableMap<String, TypeAlias> imports;
 
-  private final Set<String> usedNicknames = new HashSet<>();
-
-  /**
-   * A map from simple type name to a boolean, indicating whether its in java.lang or not. If a
-   * simple type name is not in the map, this information is unknown.
-   */
-  private final Map<String, Boolean> implicitImports = Maps.newHashMap();
+  /** A map from the nicknames in use to the full names they were saved for. */
+  private final ForkableMap<String, String> usedNicknames;
 
   private static final String JAVA_LANG_TYPE_PREFIX = "java.lang.";
 
@@ -67,6 +58,15 @@ public class JavaTypeTable implements TypeTable {
   public JavaTypeTable(String implicitPackageName, JavaLangResolution javaLangResolution) {
     this.implicitPackageName = implicitPackageName;
     this.javaLangResolution = javaLangResolution;
+    this.imports = new ForkableMap<>();
+    this.usedNicknames = new ForkableMap<>();
+  }
+
+  private JavaTypeTable(JavaTypeTable parent) {
+    this.implicitPackageName = parent.implicitPackageName;
+    this.javaLangResolution = parent.javaLangResolution;
+    this.imports = parent.imports.fork();
+    this.usedNicknames = parent.usedNicknames.fork();
   }
 
   public enum JavaLangResolution {
@@ -84,6 +84,11 @@ public class JavaTypeTable implements TypeTable {
     return new JavaTypeTable(packageName);
   }
 
+  @Override
+  public TypeTable fork() {
+    return new JavaTypeTable(this);
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     int lastDotIndex = fullName.lastIndexOf('.');
@@ -150,21 +155,22 @@ public class JavaTypeTable implements TypeTable {
     }
 
     // Derive a short name if possible
-    if (imports.containsKey(alias.getFullName())) {
+    TypeAlias savedAlias = imports.get(alias.getFullName());
+    if (savedAlias != null) {
       // Short name already there.
-      return imports.get(alias.getFullName()).getNickname();
+      return savedAlias.getNickname();
     }
-    if (usedNicknames.contains(alias.getNickname())) {
+    if (usedNicknames.containsKey(alias.getNickname())) {
       // Short name clashes, use long name.
       return alias.getFullName();
     } else if (javaLangResolution.equals(ESCAPE_JAVA_LANG_CLASH)
         && !alias.getFullName().startsWith(JAVA_LANG_TYPE_PREFIX)
-        && isImplicitImport(alias.getNickname())) {
+        && isJavaLangImport(alias.getNickname())) {
       // Short name clashes with java.lang; use long name.
       return alias.getFullName();
     }
     imports.put(alias.getFullName(), alias);
-    usedNicknames.add(alias.getNickname());
+    usedNicknames.put(alias.getNickname(), alias.getFullName());
     return alias.getNickname();
   }
 
@@ -178,7 +184,8 @@ public class JavaTypeTable implements TypeTable {
     // Clean up the imports.
     Map<String, TypeAlias> cleanedImports = new TreeMap<>();
     // Imported type is in java.lang or in package, can be ignored.
-    for (String imported : imports.keySet()) {
+    for (Map.Entry<String, TypeAlias> entry : imports.entrySet()) {
+      String imported = entry.getKey();
       if (imported.startsWith(JAVA_LANG_TYPE_PREFIX)) {
         continue;
       } else if (!implicitPackageName.isEmpty() && imported.startsWith(implicitPackageName)) {
@@ -187,7 +194,7 @@ public class JavaTypeTable implements TypeTable {
           continue;
         }
       }
-      cleanedImports.put(imported, imports.get(imported));
+      cleanedImports.put(imported, entry.getValue());
     }
     return cleanedImports;
   }
@@ -197,28 +204,8 @@ public class JavaTypeTable implements TypeTable {
     return new TreeMap<>(imports);
   }
 
-  /**
-   * Checks whether the simple type name is implicitly imported from java.lang and memoizes the
-   * result.
-   */
-  private boolean isImplicitImport(String name) {
-    Boolean yes = implicitImports.get(name);
-    if (yes != null) {
-      return yes;
-    }
-    yes = isJavaLangImport(name);
-    implicitImports.put(name, yes);
-    return yes;
-  }
-
   /** Checks whether the simple type name is implicitly imported from java.lang. */
   public static boolean isJavaLangImport(String name) {
-    // Use reflection to determine whether the name exists in java.lang.
-    try {
-      Class.forName("java.lang." + name);
-      return true;
-    } catch (Exception e) {
-      return false;
-    }
+    return JavaLangTypeNames.contains(name);
   }
 }
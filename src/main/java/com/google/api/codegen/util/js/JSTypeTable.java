@@ -33,6 +33,10 @@ public class JSTypeTable implements TypeTable {
     dynamicTypeTable = new DynamicLangTypeTable(implicitPackageName, ".");
   }
 
+  private JSTypeTable(DynamicLangTypeTable dynamicTypeTable) {
+    this.dynamicTypeTable = dynamicTypeTable;
+  }
+
   @Override
   public TypeTable cloneEmpty() {
     return new JSTypeTable(dynamicTypeTable.getImplicitPackageName());
@@ -43,6 +47,11 @@ public class JSTypeTable implements TypeTable {
     return new JSTypeTable(packageName);
   }
 
+  @Override
+  public TypeTable fork() {
+    return new JSTypeTable(dynamicTypeTable.fork());
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     // Assumes the namespace part starts with lowercase while others start
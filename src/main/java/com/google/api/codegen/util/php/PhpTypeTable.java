@@ -32,6 +32,10 @@ public class PhpTypeTable implements TypeTable {
     dynamicTypeTable = new DynamicLangTypeTable(implicitPackageName, "\\");
   }
 
+  private PhpTypeTable(DynamicLangTypeTable dynamicTypeTable) {
+    this.dynamicTypeTable = dynamicTypeTable;
+  }
+
   @Override
   public TypeTable cloneEmpty() {
     return new PhpTypeTable(dynamicTypeTable.getImplicitPackageName());
@@ -42,6 +46,11 @@ public class PhpTypeTable implements TypeTable {
     return new PhpTypeTable(packageName);
   }
 
+  @Override
+  public TypeTable fork() {
+    return new PhpTypeTable(dynamicTypeTable.fork());
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     return dynamicTypeTable.getTypeName(fullName);
@@ -58,7 +58,7 @@ public class PythonRenderingUtil {
     return CommonRenderingUtil.toInt(value);
   }
 
-  public static List<String> pretty(Doc doc) {
+  public static Iterable<String> pretty(Doc doc) {
     return CommonRenderingUtil.pretty(doc);
   }
 }
@@ -58,6 +58,18 @@ public class PythonTypeTable implements TypeTable {
     return new PythonTypeTable(packageName);
   }
 
+  /**
+   * Returns a copy of this table. The imports are copied rather than shared, since saving a
+   * nickname can rename the imports already saved when their short names clash.
+   */
+  @Override
+  public TypeTable fork() {
+    PythonTypeTable fork = new PythonTypeTable(implicitPackageName);
+    fork.usedShortNames = HashBiMap.create(usedShortNames);
+    fork.moduleImports = HashMultimap.create(moduleImports);
+    return fork;
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     List<String> namespaces = new ArrayList<>();
@@ -32,6 +32,10 @@ public class RubyTypeTable implements TypeTable {
     dynamicTypeTable = new DynamicLangTypeTable(implicitPackageName, "::");
   }
 
+  private RubyTypeTable(DynamicLangTypeTable dynamicTypeTable) {
+    this.dynamicTypeTable = dynamicTypeTable;
+  }
+
   @Override
   public TypeTable cloneEmpty() {
     return new RubyTypeTable(dynamicTypeTable.getImplicitPackageName());
@@ -42,6 +46,11 @@ public class RubyTypeTable implements TypeTable {
     return new RubyTypeTable(packageName);
   }
 
+  @Override
+  public TypeTable fork() {
+    return new RubyTypeTable(dynamicTypeTable.fork());
+  }
+
   @Override
   public TypeName getTypeName(String fullName) {
     return dynamicTypeTable.getTypeName(fullName);
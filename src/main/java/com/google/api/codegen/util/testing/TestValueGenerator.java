@@ -17,6 +17,8 @@ package com.google.api.codegen.util.testing;
 import com.google.api.codegen.config.TypeModel;
 import com.google.api.codegen.util.Name;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * A utility class used by the test generators which populates values for primitive fields.
@@ -26,6 +28,8 @@ import java.util.HashMap;
  */
 public class TestValueGenerator {
   private final HashMap<Name, String> valueTable = new HashMap<>();
+  // The values of valueTable, so that collisions are checked without scanning the table.
+  private final Set<String> storedValues = new HashSet<>();
   private final ValueProducer producer;
 
   public TestValueGenerator(ValueProducer producer) {
@@ -35,12 +39,13 @@ public class TestValueGenerator {
   public String getAndStoreValue(TypeModel type, Name identifier) {
     if (!valueTable.containsKey(identifier)) {
       String value = producer.produce(type, identifier);
-      while (type.getPrimitiveTypeName() != "bool" && valueTable.containsValue(value)) {
+      while (type.getPrimitiveTypeName() != "bool" && storedValues.contains(value)) {
         // If the value already exists regenerate using a deterministically different identifier.
         identifier = identifier.join("1");
         value = producer.produce(type, identifier);
       }
       valueTable.put(identifier, value);
+      storedValues.add(value);
     }
     return valueTable.get(identifier);
   }
@@ -0,0 +1,129 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.io.Resources;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GeneratorDaemonTest {
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void testServesRequestsUntilShutdown() throws Exception {
+    String requests =
+        Joiner.on('\n')
+            .join(
+                "{\"id\": 1, \"args\": [\"no_such_artifact\"]}",
+                "not json",
+                "{\"id\": 2}",
+                "{\"id\": 3, \"args\": [\"gapic_code\", \"--output=x\"], \"returnOutputs\": true}",
+                "{\"id\": 4, \"command\": \"shutdown\"}",
+                "{\"id\": 5, \"args\": [\"no_such_artifact\"]}");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new GeneratorDaemon()
+        .serve(new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), output);
+
+    ObjectMapper mapper = new ObjectMapper();
+    List<String> lines = Splitter.on('\n').omitEmptyStrings().splitToList(output.toString("UTF-8"));
+    assertThat(lines).hasSize(5);
+
+    JsonNode unrecognized = mapper.readTree(lines.get(0));
+    assertThat(unrecognized.get("id").asInt()).isEqualTo(1);
+    assertThat(unrecognized.get("exitCode").asInt()).isEqualTo(1);
+    assertThat(unrecognized.get("stderr").asText()).contains("Unrecognized artifact type");
+    assertThat(unrecognized.has("millis")).isTrue();
+
+    assertThat(mapper.readTree(lines.get(1)).get("error").asText()).contains("Malformed request");
+    assertThat(mapper.readTree(lines.get(2)).get("error").asText()).contains("no args");
+    assertThat(mapper.readTree(lines.get(3)).get("error").asText()).contains("returnOutputs");
+    assertThat(mapper.readTree(lines.get(4)).get("id").asInt()).isEqualTo(4);
+  }
+
+  @Test
+  public void testReturnsOutputsOfSuccessfulRequest() throws Exception {
+    TestDataLocator locator = TestDataLocator.create(CodegenTestUtil.class);
+    locator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    Model model =
+        CodegenTestUtil.readModel(
+            locator,
+            tempDir,
+            new String[] {"library.proto", "another_service.proto"},
+            new String[] {"library.yaml"});
+    File descriptorSet = tempDir.newFile("library.desc");
+    Files.write(
+        descriptorSet.toPath(),
+        FileDescriptorSet.newBuilder()
+            .addAllFile(
+                model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+            .build()
+            .toByteArray());
+
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode request = mapper.createObjectNode();
+    request.put("id", 1);
+    request.put("returnOutputs", true);
+    ArrayNode args = request.putArray("args");
+    args.add("LEGACY_GAPIC_AND_PACKAGE");
+    args.add("--descriptor_set=" + descriptorSet.getPath());
+    args.add("--service_yaml=" + locator.findTestData("library.yaml").getPath());
+    args.add("--gapic_yaml=" + locator.findTestData("library_gapic.yaml").getPath());
+    args.add("--language=java");
+
+    JsonNode response = new GeneratorDaemon().handle(request);
+
+    assertWithMessage(response.get("stderr").asText())
+        .that(response.get("exitCode").asInt())
+        .isEqualTo(0);
+    JsonNode outputs = response.get("outputs");
+    JsonNode buildFile = outputs.get("../build.gradle");
+    assertThat(buildFile.get("encoding").asText()).isEqualTo("utf-8");
+    assertThat(buildFile.get("content").asText())
+        .isEqualTo(
+            Resources.toString(
+                Resources.getResource(GeneratorMain.class, "java/static/build.gradle"),
+                StandardCharsets.UTF_8));
+    JsonNode wrapperJar = outputs.get("../gradle/wrapper/gradle-wrapper.jar");
+    assertThat(wrapperJar.get("encoding").asText()).isEqualTo("base64");
+    assertThat(Base64.getDecoder().decode(wrapperJar.get("content").asText()))
+        .isEqualTo(
+            Resources.toByteArray(
+                Resources.getResource(
+                    GeneratorMain.class, "java/static/gradle/wrapper/gradle-wrapper.jar")));
+  }
+}
@@ -0,0 +1,206 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.model.SimpleLocation;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.junit.Test;
+
+public class CodeGeneratorSchedulerTest {
+
+  @Test
+  public void testMergesInGeneratorOrder() throws Exception {
+    List<CodeGenerator<String>> generators =
+        ImmutableList.of(
+            new FakeGenerator("first.snip", ImmutableMap.of("b.txt", "b", "a.txt", "a")),
+            new FakeGenerator("second.snip", ImmutableMap.of("c.txt", "c")));
+
+    for (int threads : new int[] {1, 4}) {
+      DiagCollector diagCollector = new SimpleDiagCollector();
+      Map<String, GeneratedResult<?>> results =
+          new CodeGeneratorScheduler(threads).generate(generators, diagCollector);
+
+      assertThat(results.keySet()).containsExactly("b.txt", "a.txt", "c.txt").inOrder();
+      assertThat(results.get("c.txt").getBody()).isEqualTo("c");
+      assertThat(diagCollector.getErrorCount()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void testReportsConflictingPaths() throws Exception {
+    List<CodeGenerator<String>> generators =
+        ImmutableList.of(
+            new FakeGenerator("first.snip", ImmutableMap.of("a.txt", "first")),
+            new FakeGenerator("second.snip", ImmutableMap.of("a.txt", "second")));
+
+    DiagCollector diagCollector = new SimpleDiagCollector();
+    Map<String, GeneratedResult<?>> results =
+        new CodeGeneratorScheduler(2).generate(generators, diagCollector);
+
+    assertThat(results.get("a.txt").getBody()).isEqualTo("first");
+    assertThat(diagCollector.getErrorCount()).isEqualTo(1);
+    assertThat(diagCollector.getDiags().get(0).getMessage())
+        .isEqualTo(
+            "Output file 'a.txt' is generated by both FakeGenerator(first.snip) and "
+                + "FakeGenerator(second.snip).");
+  }
+
+  @Test
+  public void testStreamsResultsInGeneratorOrder() throws Exception {
+    List<CodeGenerator<String>> generators =
+        ImmutableList.of(
+            new FakeGenerator("first.snip", ImmutableMap.of("a.txt", "a", "b.txt", "first")),
+            new FakeGenerator("second.snip", ImmutableMap.of("b.txt", "second", "c.txt", "c")));
+
+    for (int threads : new int[] {1, 4}) {
+      DiagCollector diagCollector = new SimpleDiagCollector();
+      List<String> streamed = new ArrayList<>();
+      new CodeGeneratorScheduler(threads)
+          .generate(
+              generators,
+              diagCollector,
+              (path, result) -> streamed.add(path + "=" + result.getBody()));
+
+      assertThat(streamed).containsExactly("a.txt=a", "b.txt=first", "c.txt=c").inOrder();
+      assertThat(diagCollector.getErrorCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testMergesDiagnosticsInGeneratorOrder() throws Exception {
+    // The second generator reports its error before the first one does.
+    CountDownLatch secondReported = new CountDownLatch(1);
+    List<CodeGenerator<String>> generators =
+        ImmutableList.of(
+            new ReportingGenerator("first.snip", "first error", secondReported, null),
+            new ReportingGenerator("second.snip", "second error", null, secondReported));
+
+    DiagCollector diagCollector = new SimpleDiagCollector();
+    diagCollector.addDiag(Diag.warning(SimpleLocation.TOPLEVEL, "earlier warning"));
+    Map<String, GeneratedResult<?>> results =
+        new CodeGeneratorScheduler(2).generate(generators, diagCollector);
+
+    assertThat(results).isEmpty();
+    assertThat(diagCollector.getErrorCount()).isEqualTo(2);
+    List<String> messages = new ArrayList<>();
+    for (Diag diag : diagCollector.getDiags()) {
+      messages.add(diag.getMessage());
+    }
+    assertThat(messages)
+        .containsExactly("earlier warning", "first error", "second error")
+        .inOrder();
+  }
+
+  @Test
+  public void testGeneratorsSeeEarlierErrors() throws Exception {
+    List<CodeGenerator<String>> generators =
+        ImmutableList.of(
+            new ReportingGenerator("first.snip", "first error", null, null),
+            new ReportingGenerator("second.snip", "second error", null, null));
+
+    for (int threads : new int[] {1, 2}) {
+      DiagCollector diagCollector = new SimpleDiagCollector();
+      diagCollector.addDiag(Diag.error(SimpleLocation.TOPLEVEL, "earlier error"));
+      new CodeGeneratorScheduler(threads).generate(generators, diagCollector);
+
+      // Both generators find errors already reported, and give up without reporting their own.
+      assertThat(diagCollector.getErrorCount()).isEqualTo(1);
+    }
+  }
+
+  private static class ReportingGenerator implements CodeGenerator<String> {
+    private final String inputFileName;
+    private final String error;
+    @Nullable private final CountDownLatch awaited;
+    @Nullable private final CountDownLatch reported;
+
+    ReportingGenerator(
+        String inputFileName,
+        String error,
+        @Nullable CountDownLatch awaited,
+        @Nullable CountDownLatch reported) {
+      this.inputFileName = inputFileName;
+      this.error = error;
+      this.awaited = awaited;
+      this.reported = reported;
+    }
+
+    @Override
+    public Collection<String> getInputFileNames() {
+      return ImmutableList.of(inputFileName);
+    }
+
+    @Override
+    public Map<String, GeneratedResult<String>> generate() {
+      throw new UnsupportedOperationException("Expected to be given a diag collector");
+    }
+
+    @Override
+    public Map<String, GeneratedResult<String>> generate(DiagCollector diagCollector) {
+      if (diagCollector.hasErrors()) {
+        return null;
+      }
+      try {
+        if (awaited != null) {
+          assertThat(awaited.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      diagCollector.addDiag(Diag.error(SimpleLocation.TOPLEVEL, error));
+      if (reported != null) {
+        reported.countDown();
+      }
+      return null;
+    }
+  }
+
+  private static class FakeGenerator implements CodeGenerator<String> {
+    private final String inputFileName;
+    private final Map<String, String> outputs;
+
+    FakeGenerator(String inputFileName, Map<String, String> outputs) {
+      this.inputFileName = inputFileName;
+      this.outputs = outputs;
+    }
+
+    @Override
+    public Collection<String> getInputFileNames() {
+      return ImmutableList.of(inputFileName);
+    }
+
+    @Override
+    public Map<String, GeneratedResult<String>> generate() {
+      ImmutableMap.Builder<String, GeneratedResult<String>> results = ImmutableMap.builder();
+      for (Map.Entry<String, String> entry : outputs.entrySet()) {
+        results.put(entry.getKey(), GeneratedResult.create(entry.getValue(), false));
+      }
+      return results.build();
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.FlatteningGroupProto;
+import com.google.api.codegen.InterfaceConfigProto;
+import com.google.api.codegen.MethodConfigProto;
+import com.google.api.codegen.MixedPathTestDataLocator;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.GrpcStreamingConfig.GrpcStreamingType;
+import com.google.api.tools.framework.model.Diag;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GapicInterfaceConfigTest {
+
+  @ClassRule public static TemporaryFolder tempDir = new TemporaryFolder();
+
+  private static GapicInterfaceConfig interfaceConfig;
+
+  private static TestDataLocator locator;
+
+  @BeforeClass
+  public static void setupClass() {
+    locator = MixedPathTestDataLocator.create(GapicInterfaceConfigTest.class);
+    locator.addTestDataSource(CodegenTestUtil.class, "transformer/go/testdata");
+    Model model = readModel();
+    ConfigProto configProto = readConfig(model);
+    GapicProductConfig productConfig =
+        GapicProductConfig.create(model, configProto, TargetLanguage.GO);
+    if (model.getDiagReporter().getDiagCollector().hasErrors()) {
+      throw new IllegalStateException(
+          model.getDiagReporter().getDiagCollector().getDiags().toString());
+    }
+    interfaceConfig =
+        (GapicInterfaceConfig) productConfig.getInterfaceConfig("google.example.myproto.v1.Gopher");
+  }
+
+  @Test
+  public void testMethodSubsets() {
+    assertThat(names(interfaceConfig.getPageStreamingMethodConfigs()))
+        .containsExactly("PageStreamMethod");
+    assertThat(names(interfaceConfig.getLongRunningMethodConfigs())).containsExactly("LroMethod");
+    assertThat(names(interfaceConfig.getBatchingMethodConfigs())).isEmpty();
+    assertThat(names(interfaceConfig.getGrpcStreamingMethodConfigs()))
+        .containsExactly("ServerStreamMethod", "ClientStreamMethod", "BidiStreamMethod")
+        .inOrder();
+    assertThat(
+            names(interfaceConfig.getGrpcStreamingMethodConfigs(GrpcStreamingType.BidiStreaming)))
+        .containsExactly("BidiStreamMethod");
+    assertThat(interfaceConfig.getGrpcStreamingMethodConfigs(GrpcStreamingType.NonStreaming))
+        .isEmpty();
+
+    assertThat(interfaceConfig.hasPageStreamingMethods()).isTrue();
+    assertThat(interfaceConfig.hasLongRunningOperations()).isTrue();
+    assertThat(interfaceConfig.hasBatchingMethods()).isFalse();
+    assertThat(interfaceConfig.hasGrpcStreamingMethods()).isTrue();
+    assertThat(interfaceConfig.hasGrpcStreamingMethods(GrpcStreamingType.ClientStreaming)).isTrue();
+    assertThat(interfaceConfig.hasGrpcStreamingMethods(GrpcStreamingType.NonStreaming)).isFalse();
+  }
+
+  @Test
+  public void testMemoized() {
+    assertThat(interfaceConfig.getPageStreamingMethodConfigs())
+        .isSameAs(interfaceConfig.getPageStreamingMethodConfigs());
+    assertThat(interfaceConfig.getGrpcStreamingMethodConfigs(GrpcStreamingType.ServerStreaming))
+        .isSameAs(interfaceConfig.getGrpcStreamingMethodConfigs(GrpcStreamingType.ServerStreaming));
+  }
+
+  @Test
+  public void testGetMethodConfigBySimpleName() {
+    assertThat(interfaceConfig.getMethodConfig("SimpleMethod").getMethodModel().getSimpleName())
+        .isEqualTo("SimpleMethod");
+    assertThat(interfaceConfig.getMethodConfig("NoSuchMethod")).isNull();
+  }
+
+  @Test
+  public void testMethodConfigErrorsInMethodOrder() {
+    List<String> expected =
+        ImmutableList.of(
+            "Field missing for flattening: method = google.example.myproto.v1.Gopher.SimpleMethod,"
+                + " message type = google.example.myproto.v1.SimpleRequest, field = no_such_field",
+            "Field missing for flattening: method = google.example.myproto.v1.Gopher.BidiStreamMethod,"
+                + " message type = google.example.myproto.v1.SimpleRequest, field = no_such_field",
+            // Once there are errors, no interface gets a method config map, including Guru.
+            "Error constructing methodConfigMap",
+            "Error constructing methodConfigMap");
+    for (int attempt = 0; attempt < 5; ++attempt) {
+      Model model = readModel();
+      ConfigProto.Builder configProto = readConfig(model).toBuilder();
+      for (InterfaceConfigProto.Builder interfaceConfigProto :
+          configProto.getInterfacesBuilderList()) {
+        for (MethodConfigProto.Builder methodConfigProto :
+            interfaceConfigProto.getMethodsBuilderList()) {
+          if (methodConfigProto.getName().equals("SimpleMethod")
+              || methodConfigProto.getName().equals("BidiStreamMethod")) {
+            methodConfigProto
+                .getFlatteningBuilder()
+                .addGroups(FlatteningGroupProto.newBuilder().addParameters("no_such_field"));
+          }
+        }
+      }
+
+      assertThat(GapicProductConfig.create(model, configProto.build(), TargetLanguage.GO)).isNull();
+      List<String> errors = new ArrayList<>();
+      for (Diag diag : model.getDiagReporter().getDiagCollector().getDiags()) {
+        if (diag.getKind() == Diag.Kind.ERROR) {
+          errors.add(diag.getMessage());
+        }
+      }
+      assertThat(errors).containsExactlyElementsIn(expected).inOrder();
+    }
+  }
+
+  private static Model readModel() {
+    return CodegenTestUtil.readModel(
+        locator,
+        tempDir,
+        new String[] {"myproto.proto", "singleservice.proto"},
+        new String[] {"myproto.yaml"});
+  }
+
+  private static ConfigProto readConfig(Model model) {
+    return CodegenTestUtil.readConfig(
+        model.getDiagReporter().getDiagCollector(), locator, new String[] {"myproto_gapic.yaml"});
+  }
+
+  private static List<String> names(List<? extends MethodConfig> methodConfigs) {
+    List<String> names = new ArrayList<>();
+    for (MethodConfig methodConfig : methodConfigs) {
+      names.add(methodConfig.getMethodModel().getSimpleName());
+    }
+    return names;
+  }
+}
@@ -0,0 +1,76 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.configgen;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.configgen.nodes.ConfigNode;
+import com.google.api.codegen.configgen.nodes.FieldConfigNode;
+import com.google.api.codegen.configgen.nodes.ListItemConfigNode;
+import com.google.api.codegen.configgen.nodes.ScalarConfigNode;
+import com.google.api.codegen.configgen.nodes.metadata.DefaultComment;
+import com.google.common.base.Joiner;
+import java.io.StringWriter;
+import org.junit.Test;
+
+public class ConfigGeneratorTest {
+  private static final Joiner LINES = Joiner.on(System.lineSeparator());
+
+  private static ConfigNode createConfig() {
+    ConfigNode name = FieldConfigNode.createStringPair(0, "name", "  foo  ");
+    ConfigNode parameters =
+        new FieldConfigNode(0, "parameters")
+            .setChild(
+                new ListItemConfigNode(0)
+                    .setChild(new ScalarConfigNode(0, "bar"))
+                    .insertNext(
+                        new ListItemConfigNode(0).setChild(new ScalarConfigNode(0, "baz"))));
+    name.insertNext(parameters);
+    ConfigNode item =
+        new ListItemConfigNode(0).setComment(new DefaultComment("A method.")).setChild(name);
+    return new FieldConfigNode(0, "")
+        .setChild(
+            new FieldConfigNode(0, "methods")
+                .setComment(new DefaultComment("The methods."))
+                .setChild(item)
+                .insertNext(new FieldConfigNode(0, "empty")));
+  }
+
+  @Test
+  public void testGenerate() {
+    ConfigGenerator generator = new ConfigGenerator(0);
+    generator.visit(createConfig());
+    assertThat(generator.toString())
+        .isEqualTo(
+            LINES.join(
+                "# The methods.",
+                "methods:",
+                "  # A method.",
+                "- name: foo",
+                "  parameters:",
+                "  - bar",
+                "  - baz",
+                "empty: []"));
+  }
+
+  @Test
+  public void testGenerateIntoAppendable() {
+    StringWriter output = new StringWriter();
+    new ConfigGenerator(output, 0).visit(createConfig());
+    ConfigGenerator generator = new ConfigGenerator(0);
+    generator.visit(createConfig());
+    assertThat(output.toString()).isEqualTo(generator.toString());
+  }
+}
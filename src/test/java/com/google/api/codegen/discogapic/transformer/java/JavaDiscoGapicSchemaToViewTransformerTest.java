@@ -0,0 +1,69 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discogapic.transformer.java;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.discogapic.DiscoGapicGeneratorApp;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class JavaDiscoGapicSchemaToViewTransformerTest {
+  private static final String TESTDATA =
+      "src/test/java/com/google/api/codegen/discogapic/testdata/";
+
+  @Test
+  public void testConcurrentTransformationIsDeterministic() throws Exception {
+    List<CodeGenerator<?>> generators =
+        DiscoGapicGeneratorApp.getGenerators(
+            TESTDATA + "simplecompute.v1.json",
+            ImmutableList.of(TESTDATA + "simplecompute_gapic.yaml"),
+            TESTDATA + "simplecompute_pkg2.yaml",
+            "src/test/java/com/google/api/codegen/testsrc/common/frozen_dependencies.yaml",
+            "java",
+            Collections.emptyList(),
+            ArtifactType.LEGACY_DISCOGAPIC_AND_PACKAGE);
+
+    Map<String, String> expected = generate(generators);
+    assertThat(expected).isNotEmpty();
+    for (int attempt = 0; attempt < 5; ++attempt) {
+      Map<String, String> actual = generate(generators);
+      assertThat(actual.keySet()).containsExactlyElementsIn(expected.keySet()).inOrder();
+      assertThat(actual).isEqualTo(expected);
+    }
+  }
+
+  private static Map<String, String> generate(List<CodeGenerator<?>> generators) throws Exception {
+    Map<String, String> output = new LinkedHashMap<>();
+    for (CodeGenerator<?> generator : generators) {
+      for (Map.Entry<String, ? extends GeneratedResult<?>> entry :
+          generator.generate().entrySet()) {
+        Object body = entry.getValue().getBody();
+        if (body instanceof Doc) {
+          output.put(entry.getKey(), ((Doc) body).prettyPrint());
+        }
+      }
+    }
+    return output;
+  }
+}
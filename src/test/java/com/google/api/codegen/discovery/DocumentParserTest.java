@@ -0,0 +1,188 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.discovery;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class DocumentParserTest {
+  private static final ImmutableList<String> DOCUMENTS =
+      ImmutableList.of(
+          "src/test/java/com/google/api/codegen/discogapic/testdata/simplecompute.v1.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/array.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/auth_3lo.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/auth_adc.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/auth_api_key.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/basicinfo.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/document.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/graph.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/method.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/schema.json",
+          "src/test/java/com/google/api/codegen/discovery/testdata/type.json");
+
+  @Test
+  public void testSameAsTreeModel() throws IOException {
+    for (String file : DOCUMENTS) {
+      String json = new String(Files.readAllBytes(new File(file).toPath()), StandardCharsets.UTF_8);
+      Document expected = Document.from(new DiscoveryNode(new ObjectMapper().readTree(json)));
+      Document actual = DocumentParser.parse(new StringReader(json));
+      assertSameDocument(file, expected, actual);
+    }
+  }
+
+  @Test
+  public void testStringBooleans() throws IOException {
+    String json =
+        "{\"version_module\": \"True\", \"schemas\": {\"A\": {\"id\": \"A\", \"type\": \"object\","
+            + " \"required\": \"False\", \"repeated\": true}}}";
+    Document document = DocumentParser.parse(new StringReader(json));
+    assertThat(document.versionModule()).isTrue();
+    assertThat(document.schemas().get("A").required()).isFalse();
+    assertThat(document.schemas().get("A").repeated()).isTrue();
+  }
+
+  @Test
+  public void testNonStringScalars() throws IOException {
+    String json =
+        "{\"revision\": 20190101, \"schemas\": {\"A\": {\"id\": \"A\", \"type\": \"object\","
+            + " \"properties\": {\"b\": {\"type\": \"integer\", \"default\": 10,"
+            + " \"pattern\": 1.5, \"description\": false, \"required\": 1, \"repeated\": \"true\"}}}}}";
+    Document document = DocumentParser.parse(new StringReader(json));
+    assertThat(document.revision()).isEqualTo("20190101");
+    Schema property = document.schemas().get("A").properties().get("b");
+    assertThat(property.defaultValue()).isEqualTo("10");
+    assertThat(property.pattern()).isEqualTo("1.5");
+    assertThat(property.description()).isEqualTo("false");
+    assertThat(property.required()).isTrue();
+    assertThat(property.repeated()).isTrue();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnexpectedType() throws IOException {
+    DocumentParser.parse(new StringReader("{\"schemas\": {\"A\": {\"id\": {}}}}"));
+  }
+
+  private static void assertSameDocument(String file, Document expected, Document actual) {
+    assertWithMessage(file).that(actual.authScopes()).isEqualTo(expected.authScopes());
+    assertWithMessage(file).that(actual.authType()).isEqualTo(expected.authType());
+    assertWithMessage(file).that(actual.baseUrl()).isEqualTo(expected.baseUrl());
+    assertWithMessage(file).that(actual.canonicalName()).isEqualTo(expected.canonicalName());
+    assertWithMessage(file).that(actual.description()).isEqualTo(expected.description());
+    assertWithMessage(file).that(actual.id()).isEqualTo(expected.id());
+    assertWithMessage(file).that(actual.name()).isEqualTo(expected.name());
+    assertWithMessage(file).that(actual.ownerDomain()).isEqualTo(expected.ownerDomain());
+    assertWithMessage(file).that(actual.revision()).isEqualTo(expected.revision());
+    assertWithMessage(file).that(actual.rootUrl()).isEqualTo(expected.rootUrl());
+    assertWithMessage(file).that(actual.servicePath()).isEqualTo(expected.servicePath());
+    assertWithMessage(file).that(actual.title()).isEqualTo(expected.title());
+    assertWithMessage(file).that(actual.version()).isEqualTo(expected.version());
+    assertWithMessage(file).that(actual.versionModule()).isEqualTo(expected.versionModule());
+
+    assertSameMethods(file, expected.methods(), actual.methods());
+    for (Method method : actual.methods()) {
+      assertWithMessage(file + " " + method.id()).that(method.parent()).isSameAs(actual);
+    }
+    assertWithMessage(file)
+        .that(actual.resources().keySet())
+        .containsExactlyElementsIn(expected.resources().keySet())
+        .inOrder();
+    for (String resource : expected.resources().keySet()) {
+      assertSameMethods(
+          file + " " + resource,
+          expected.resources().get(resource),
+          actual.resources().get(resource));
+    }
+    assertSameSchemas(file, expected.schemas(), actual.schemas());
+  }
+
+  private static void assertSameMethods(String path, List<Method> expected, List<Method> actual) {
+    assertWithMessage(path).that(ids(actual)).containsExactlyElementsIn(ids(expected)).inOrder();
+    for (int i = 0; i < expected.size(); ++i) {
+      Method expectedMethod = expected.get(i);
+      Method actualMethod = actual.get(i);
+      String methodPath = path + " " + expectedMethod.id();
+      assertWithMessage(methodPath)
+          .that(actualMethod.description())
+          .isEqualTo(expectedMethod.description());
+      assertWithMessage(methodPath)
+          .that(actualMethod.flatPath())
+          .isEqualTo(expectedMethod.flatPath());
+      assertWithMessage(methodPath)
+          .that(actualMethod.httpMethod())
+          .isEqualTo(expectedMethod.httpMethod());
+      assertWithMessage(methodPath).that(actualMethod.path()).isEqualTo(expectedMethod.path());
+      assertWithMessage(methodPath).that(actualMethod.scopes()).isEqualTo(expectedMethod.scopes());
+      assertWithMessage(methodPath)
+          .that(actualMethod.supportsMediaDownload())
+          .isEqualTo(expectedMethod.supportsMediaDownload());
+      assertWithMessage(methodPath)
+          .that(actualMethod.supportsMediaUpload())
+          .isEqualTo(expectedMethod.supportsMediaUpload());
+      assertSameSchemas(methodPath, expectedMethod.parameters(), actualMethod.parameters());
+      assertSameSchemas(methodPath, expectedMethod.pathParams(), actualMethod.pathParams());
+      assertSameSchemas(methodPath, expectedMethod.queryParams(), actualMethod.queryParams());
+      assertSameSchema(methodPath + " request", expectedMethod.request(), actualMethod.request());
+      assertSameSchema(
+          methodPath + " response", expectedMethod.response(), actualMethod.response());
+    }
+  }
+
+  private static void assertSameSchemas(
+      String path, Map<String, Schema> expected, Map<String, Schema> actual) {
+    assertWithMessage(path)
+        .that(actual.keySet())
+        .containsExactlyElementsIn(expected.keySet())
+        .inOrder();
+    for (String key : expected.keySet()) {
+      assertSameSchema(path + " " + key, expected.get(key), actual.get(key));
+    }
+  }
+
+  private static void assertSameSchema(String path, Schema expected, Schema actual) {
+    if (expected == null) {
+      assertWithMessage(path).that(actual).isNull();
+      return;
+    }
+    // Schema#equals compares the children by identifier, and the parents by ID.
+    assertWithMessage(path).that(actual).isEqualTo(expected);
+    assertWithMessage(path).that(actual.isMap()).isEqualTo(expected.isMap());
+    assertSameSchema(
+        path + " additionalProperties",
+        expected.additionalProperties(),
+        actual.additionalProperties());
+    assertSameSchema(path + " items", expected.items(), actual.items());
+    assertSameSchemas(path, expected.properties(), actual.properties());
+  }
+
+  private static List<String> ids(List<Method> methods) {
+    List<String> ids = new ArrayList<>();
+    for (Method method : methods) {
+      ids.add(method.id());
+    }
+    return ids;
+  }
+}
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -51,4 +52,21 @@ public class SchemaTest {
     assertThat(appleToDogPath.get(4).getIdentifier()).isEqualTo("items");
     assertThat(appleToDogPath.get(5)).isEqualTo(dog);
   }
+
+  @Test
+  public void testIndexedDocument() throws IOException {
+    String file = "src/test/java/com/google/api/codegen/discovery/testdata/graph.json";
+    Document document = DocumentParser.parse(new FileReader(file));
+
+    Schema apple = document.schemas().get("Apple");
+    Schema banana = document.schemas().get("Banana");
+    Schema catReference = banana.properties().get("Cat");
+    assertThat(catReference.dereference()).isSameAs(document.schemas().get("Cat"));
+    assertThat(banana.dereference()).isSameAs(banana);
+
+    List<Schema> appleToDogPath = apple.findChild("Dog");
+    assertThat(appleToDogPath).hasSize(6);
+    assertThat(apple.findChild("Dog")).isSameAs(appleToDogPath);
+    assertThat(apple.findChild("Elephant")).isEmpty();
+  }
 }
@@ -0,0 +1,135 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableMap;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileGapicWriterTest {
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  @Test
+  public void testIncrementalOutputOnlyTouchesChangedFiles() throws Exception {
+    String outputDir = tempDir.getRoot().getPath();
+    OutputChanges first =
+        write(
+            outputDir,
+            ImmutableMap.of(
+                "same.txt", GeneratedResult.create(Doc.text("same"), false),
+                "changed.txt", GeneratedResult.create("before", false),
+                "removed.txt", GeneratedResult.create("removed", false)));
+    assertThat(first.getAdded()).containsExactly("changed.txt", "removed.txt", "same.txt");
+
+    File same = new File(outputDir, "same.txt");
+    assertThat(same.setLastModified(1000)).isTrue();
+
+    OutputChanges second =
+        write(
+            outputDir,
+            ImmutableMap.of(
+                "same.txt", GeneratedResult.create(Doc.text("same"), false),
+                "changed.txt", GeneratedResult.create("after", false),
+                "added.txt", GeneratedResult.create(new byte[] {1, 2}, false)));
+
+    assertThat(second.getAdded()).containsExactly("added.txt");
+    assertThat(second.getChanged()).containsExactly("changed.txt");
+    assertThat(second.getRemoved()).containsExactly("removed.txt");
+    assertThat(second.getUnchangedCount()).isEqualTo(1);
+    assertThat(same.lastModified()).isEqualTo(1000);
+    assertThat(new File(outputDir, "removed.txt").exists()).isFalse();
+    assertThat(Files.readAllLines(new File(outputDir, "changed.txt").toPath()))
+        .containsExactly("after");
+  }
+
+  @Test
+  public void testIncrementalOutputWithoutManifestComparesContent() throws Exception {
+    File existing = tempDir.newFile("existing.txt");
+    Files.write(existing.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+
+    OutputChanges changes =
+        write(
+            tempDir.getRoot().getPath(),
+            ImmutableMap.of("existing.txt", GeneratedResult.create("content", false)));
+
+    assertThat(changes.getChanged()).isEmpty();
+    assertThat(changes.getUnchangedCount()).isEqualTo(1);
+    assertThat(new File(tempDir.getRoot(), FileGapicWriter.MANIFEST_FILE_NAME).exists()).isTrue();
+  }
+
+  @Test
+  public void testIncrementalOutputRestoresEditedFileOfSameLength() throws Exception {
+    String outputDir = tempDir.getRoot().getPath();
+    ImmutableMap<String, GeneratedResult<?>> files =
+        ImmutableMap.of("edited.txt", GeneratedResult.create(Doc.text("generated"), false));
+    write(outputDir, files);
+
+    File edited = new File(outputDir, "edited.txt");
+    Files.write(edited.toPath(), "edited!!!".getBytes(StandardCharsets.UTF_8));
+
+    OutputChanges changes = write(outputDir, files);
+
+    assertThat(changes.getChanged()).containsExactly("edited.txt");
+    assertThat(changes.getUnchangedCount()).isEqualTo(0);
+    assertThat(Files.readAllLines(edited.toPath())).containsExactly("generated");
+  }
+
+  @Test
+  public void testAbortDeletesPartialJar() throws Exception {
+    File outputJar = new File(tempDir.getRoot(), "output.jar");
+    FileGapicWriter writer = new FileGapicWriter(outputJar.getPath());
+    writer.writeOutputFile("a.txt", GeneratedResult.create(Doc.text("a"), false));
+    assertThat(outputJar.exists()).isTrue();
+
+    writer.abort();
+
+    assertThat(outputJar.exists()).isFalse();
+    assertThat(writer.isDone()).isFalse();
+  }
+
+  @Test
+  public void testWriteFilesLeavesNoPartialJar() throws Exception {
+    File outputJar = new File(tempDir.getRoot(), "output.jar");
+    // Bodies are written in map order, so the first one is in the jar when the second one fails.
+    Map<String, Object> files = ImmutableMap.of("a.txt", Doc.text("a"), "b.txt", 42);
+
+    try {
+      FileGapicWriter.writeFiles(files, outputJar.getPath(), new SimpleDiagCollector());
+      fail("Expected writing a body of an unsupported type to fail");
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected).hasMessageThat().contains("Expected one of");
+    }
+
+    assertThat(outputJar.exists()).isFalse();
+  }
+
+  private static OutputChanges write(String outputDir, Map<String, GeneratedResult<?>> files)
+      throws Exception {
+    FileGapicWriter writer = new FileGapicWriter(outputDir, true);
+    writer.writeCodeGenOutput(files, new SimpleDiagCollector());
+    return writer.getOutputChanges();
+  }
+}
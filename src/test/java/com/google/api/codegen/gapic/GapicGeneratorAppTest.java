@@ -14,18 +14,31 @@
  */
 package com.google.api.codegen.gapic;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest;
+import com.google.api.tools.framework.model.Diag;
 import com.google.api.tools.framework.model.DiagCollector;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
 import com.google.api.tools.framework.snippet.Doc;
+import com.google.api.tools.framework.tools.FileWrapper;
 import com.google.api.tools.framework.tools.ToolOptions;
 import com.google.common.collect.Maps;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
 import java.io.File;
 import java.nio.file.FileSystems;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -34,6 +47,54 @@ import org.junit.rules.TemporaryFolder;
 public class GapicGeneratorAppTest {
   @Rule public TemporaryFolder tempDir = new TemporaryFolder();
 
+  @Test
+  public void generateSeveralLanguagesDeterministically() throws Exception {
+    TestDataLocator locator = TestDataLocator.create(GapicCodeGeneratorAnnotationsTest.class);
+    locator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    Model model =
+        CodegenTestUtil.readModel(
+            locator, tempDir, new String[] {"multiple_services.proto"}, new String[] {});
+    FileDescriptorSet descriptorSet =
+        FileDescriptorSet.newBuilder()
+            .addAllFile(
+                model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+            .build();
+
+    List<String> serialRun = generate(descriptorSet, 1);
+    assertThat(serialRun.stream().anyMatch(file -> file.startsWith("java/"))).isTrue();
+    assertThat(serialRun.stream().anyMatch(file -> file.startsWith("python/"))).isTrue();
+    for (int attempt = 0; attempt < 3; ++attempt) {
+      assertThat(generate(descriptorSet, 4)).containsExactlyElementsIn(serialRun).inOrder();
+    }
+    // The default runs one generator per language.
+    assertThat(generate(descriptorSet, 0)).containsExactlyElementsIn(serialRun).inOrder();
+  }
+
+  /** Generates Java and Python, and returns the diagnostics followed by the generated files. */
+  private static List<String> generate(FileDescriptorSet descriptorSet, int generatorThreads) {
+    ToolOptions options = ToolOptions.create();
+    options.set(
+        ToolOptions.DESCRIPTOR_SET_CONTENTS,
+        FileWrapper.create("multiple_services", descriptorSet.toByteString()));
+    options.set(GapicGeneratorApp.PROTO_PACKAGE, "google.cloud.example.v1.foo");
+    options.set(GapicGeneratorApp.LANGUAGE, "java,python");
+    options.set(GapicGeneratorApp.GENERATOR_THREADS, generatorThreads);
+    ProtocGapicWriter gapicWriter = new ProtocGapicWriter();
+    GapicGeneratorApp generator =
+        new GapicGeneratorApp(options, ArtifactType.GAPIC_CODE, gapicWriter);
+    generator.run();
+
+    List<String> run = new ArrayList<>();
+    for (Diag diag : generator.getDiags()) {
+      run.add(diag.toString());
+    }
+    assertThat(gapicWriter.isDone()).isTrue();
+    for (CodeGeneratorResponse.File file : gapicWriter.getCodegenResponse().getFileList()) {
+      run.add(file.getName() + "\n" + file.getContent());
+    }
+    return run;
+  }
+
   @Test
   public void writeCodeGenOutputAndSetPermissions() throws Exception {
     Map<String, Object> outputFiles = Maps.newHashMap();
@@ -48,8 +109,8 @@ public class GapicGeneratorAppTest {
     GapicGeneratorApp generator =
         new GapicGeneratorApp(
             ToolOptions.create(), ArtifactType.LEGACY_GAPIC_AND_PACKAGE, gapicWriter);
-    gapicWriter.writeCodeGenOutput(outputFiles, outputDir);
     DiagCollector diagCollector = generator.getDiagCollector();
+    FileGapicWriter.writeFiles(outputFiles, outputDir, diagCollector);
     gapicWriter.setOutputFilesPermissions(Collections.singleton("tmp3"), outputDir, diagCollector);
     assertTrue((new File(outputDir, "tmp.txt")).exists());
     assertTrue((new File(outputDir, "tmp2.txt")).exists());
@@ -59,7 +120,7 @@ public class GapicGeneratorAppTest {
     }
     // Verify that files are outputed into a jar file.
     File outputJar = new File(outputDir, "output.jar");
-    gapicWriter.writeCodeGenOutput(outputFiles, outputJar.getPath());
+    FileGapicWriter.writeFiles(outputFiles, outputJar.getPath(), diagCollector);
     gapicWriter.setOutputFilesPermissions(
         Collections.singleton("tmp3"), outputJar.getPath(), diagCollector);
     assertTrue(outputJar.exists());
@@ -0,0 +1,124 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.ArtifactType;
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.MixedPathTestDataLocator;
+import com.google.api.codegen.common.CodeGenerator;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.common.TargetLanguage;
+import com.google.api.codegen.config.ApiDefaultsConfig;
+import com.google.api.codegen.config.DependenciesConfig;
+import com.google.api.codegen.config.GapicProductConfig;
+import com.google.api.codegen.config.PackageMetadataConfig;
+import com.google.api.codegen.config.PackagingConfig;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.api.tools.framework.snippet.Doc;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GapicGeneratorTest {
+
+  @ClassRule public static TemporaryFolder tempDir = new TemporaryFolder();
+
+  private static Model model;
+  private static GapicProductConfig productConfig;
+  private static PackageMetadataConfig packageConfig;
+
+  @BeforeClass
+  public static void setupClass() throws Exception {
+    TestDataLocator locator = MixedPathTestDataLocator.create(GapicGeneratorTest.class);
+    locator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    model =
+        CodegenTestUtil.readModel(
+            locator,
+            tempDir,
+            new String[] {"library.proto", "another_service.proto"},
+            new String[] {"library.yaml"});
+    ConfigProto configProto =
+        CodegenTestUtil.readConfig(
+            model.getDiagReporter().getDiagCollector(),
+            locator,
+            new String[] {"library_gapic.yaml"});
+    productConfig = GapicProductConfig.create(model, configProto, TargetLanguage.JAVA);
+    packageConfig =
+        PackageMetadataConfig.createFromPackaging(
+            ApiDefaultsConfig.load(),
+            DependenciesConfig.loadFromURL(locator.findTestData("frozen_dependencies.yaml")),
+            PackagingConfig.loadFromURL(locator.findTestData("library_pkg2.yaml")));
+    if (model.getDiagReporter().getDiagCollector().hasErrors()) {
+      throw new IllegalStateException(
+          model.getDiagReporter().getDiagCollector().getDiags().toString());
+    }
+  }
+
+  @Test
+  public void testConcurrentRenderingMatchesSerialRendering() throws Exception {
+    Map<String, String> serialOutput = generate(1);
+    assertThat(serialOutput).isNotEmpty();
+    for (int attempt = 0; attempt < 3; ++attempt) {
+      Map<String, String> concurrentOutput = generate(4);
+      assertThat(concurrentOutput.keySet())
+          .containsExactlyElementsIn(serialOutput.keySet())
+          .inOrder();
+      assertThat(concurrentOutput).isEqualTo(serialOutput);
+    }
+  }
+
+  private static Map<String, String> generate(int renderingThreads) throws Exception {
+    ArtifactFlags artifactFlags =
+        new ArtifactFlags(
+            Arrays.asList("surface", "test", "samples"),
+            ArtifactType.LEGACY_GAPIC_AND_PACKAGE,
+            true);
+    List<CodeGenerator<?>> generators =
+        GapicGeneratorFactory.create(
+            TargetLanguage.JAVA,
+            model,
+            productConfig,
+            packageConfig,
+            artifactFlags,
+            renderingThreads);
+
+    Map<String, String> output = new LinkedHashMap<>();
+    for (CodeGenerator<?> generator : generators) {
+      for (Map.Entry<String, ? extends GeneratedResult<?>> entry :
+          generator.generate().entrySet()) {
+        output.put(entry.getKey(), render(entry.getValue().getBody()));
+      }
+    }
+    return output;
+  }
+
+  private static String render(Object body) {
+    if (body instanceof Doc) {
+      return ((Doc) body).prettyPrint();
+    }
+    // Static resources are copied as bytes; any charset that maps every byte will do.
+    return new String((byte[]) body, StandardCharsets.ISO_8859_1);
+  }
+}
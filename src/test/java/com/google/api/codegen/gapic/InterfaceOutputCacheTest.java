@@ -0,0 +1,252 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.CodegenTestUtil;
+import com.google.api.codegen.CollectionConfigProto;
+import com.google.api.codegen.ConfigProto;
+import com.google.api.codegen.InterfaceConfigProto;
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.codegen.config.PackagingConfig;
+import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest;
+import com.google.api.tools.framework.model.ExperimentsImpl;
+import com.google.api.tools.framework.model.ExtensionPool;
+import com.google.api.tools.framework.model.Interface;
+import com.google.api.tools.framework.model.Model;
+import com.google.api.tools.framework.model.ProtoFile;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.model.stages.Merged;
+import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.api.tools.framework.setup.StandardSetup;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import java.io.File;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InterfaceOutputCacheTest {
+  private static final String INCREMENTER = "google.cloud.example.v1.foo.IncrementerService";
+  private static final String DECREMENTER = "google.cloud.example.v1.foo.DecrementerService";
+
+  @ClassRule public static TemporaryFolder modelDir = new TemporaryFolder();
+  @Rule public TemporaryFolder tempDir = new TemporaryFolder();
+
+  private static TestDataLocator testDataLocator;
+  private static Model model;
+
+  @BeforeClass
+  public static void startUp() {
+    testDataLocator = TestDataLocator.create(GapicCodeGeneratorAnnotationsTest.class);
+    testDataLocator.addTestDataSource(CodegenTestUtil.class, "testsrc/common");
+    model =
+        CodegenTestUtil.readModel(
+            testDataLocator, modelDir, new String[] {"multiple_services.proto"}, new String[] {});
+  }
+
+  @Test
+  public void testKeyDependsOnlyOnInterfaceInputs() {
+    ConfigProto config =
+        ConfigProto.newBuilder()
+            .addInterfaces(InterfaceConfigProto.newBuilder().setName(INCREMENTER))
+            .addInterfaces(InterfaceConfigProto.newBuilder().setName(DECREMENTER))
+            .build();
+    ConfigProto changedConfig =
+        config
+            .toBuilder()
+            .setInterfaces(
+                0,
+                InterfaceConfigProto.newBuilder()
+                    .setName(INCREMENTER)
+                    .addRequiredConstructorParams("changed"))
+            .build();
+
+    InterfaceOutputCache cache = createCache(config);
+    InterfaceOutputCache changedCache = createCache(changedConfig);
+
+    assertThat(createCache(config).getKey(lookup(INCREMENTER), "java"))
+        .isEqualTo(cache.getKey(lookup(INCREMENTER), "java"));
+    assertThat(cache.getKey(lookup(INCREMENTER), "java"))
+        .isNotEqualTo(cache.getKey(lookup(DECREMENTER), "java"));
+    assertThat(cache.getKey(lookup(INCREMENTER), "java"))
+        .isNotEqualTo(cache.getKey(lookup(INCREMENTER), "python"));
+    assertThat(changedCache.getKey(lookup(INCREMENTER), "java"))
+        .isNotEqualTo(cache.getKey(lookup(INCREMENTER), "java"));
+    assertThat(changedCache.getKey(lookup(DECREMENTER), "java"))
+        .isEqualTo(cache.getKey(lookup(DECREMENTER), "java"));
+  }
+
+  @Test
+  public void testKeyDependsOnSiblingProtosOfThePackage() {
+    Model siblingModel = createModelWithSibling("string name = 1;");
+    Model changedSiblingModel = createModelWithSibling("int64 name = 1;");
+    Model unchangedSiblingModel = createModelWithSibling("string name = 1;");
+
+    String key = createCache(siblingModel).getKey(lookup(siblingModel, INCREMENTER), "java");
+    assertThat(key).isNotEqualTo(createCache(model).getKey(lookup(INCREMENTER), "java"));
+    assertThat(
+            createCache(changedSiblingModel)
+                .getKey(lookup(changedSiblingModel, INCREMENTER), "java"))
+        .isNotEqualTo(key);
+    assertThat(
+            createCache(unchangedSiblingModel)
+                .getKey(lookup(unchangedSiblingModel, INCREMENTER), "java"))
+        .isEqualTo(key);
+  }
+
+  @Test
+  public void testKeyDependsOnProductWideInputs() throws Exception {
+    ConfigProto config =
+        ConfigProto.newBuilder()
+            .addInterfaces(InterfaceConfigProto.newBuilder().setName(INCREMENTER))
+            .addInterfaces(InterfaceConfigProto.newBuilder().setName(DECREMENTER))
+            .build();
+    // Resource name collections are shared by all interfaces, wherever they are declared.
+    ConfigProto changedCollections =
+        config
+            .toBuilder()
+            .setInterfaces(
+                1,
+                InterfaceConfigProto.newBuilder()
+                    .setName(DECREMENTER)
+                    .addCollections(
+                        CollectionConfigProto.newBuilder()
+                            .setEntityName("counter")
+                            .setNamePattern("counters/{counter}")))
+            .build();
+    PackagingConfig packagingConfig =
+        PackagingConfig.loadFromURL(testDataLocator.findTestData("library_pkg2.yaml"));
+    PackagingConfig otherPackagingConfig =
+        PackagingConfig.loadFromURL(testDataLocator.findTestData("longrunning_pkg2.yaml"));
+
+    String key = createCache(config, packagingConfig).getKey(lookup(INCREMENTER), "java");
+    assertThat(createCache(config, packagingConfig).getKey(lookup(INCREMENTER), "java"))
+        .isEqualTo(key);
+    assertThat(createCache(changedCollections, packagingConfig).getKey(lookup(INCREMENTER), "java"))
+        .isNotEqualTo(key);
+    assertThat(createCache(config, otherPackagingConfig).getKey(lookup(INCREMENTER), "java"))
+        .isNotEqualTo(key);
+    assertThat(createCache(config, null).getKey(lookup(INCREMENTER), "java")).isNotEqualTo(key);
+  }
+
+  @Test
+  public void testStoresRenderedOutput() throws Exception {
+    InterfaceOutputCache cache = createCache(ConfigProto.getDefaultInstance());
+    String key = cache.getKey(lookup(INCREMENTER), "java");
+    assertThat(cache.get(key)).isNull();
+
+    cache.put(
+        key,
+        ImmutableMap.of(
+            "Client.java", GeneratedResult.create(Doc.text("class Client {}\n"), false),
+            "run.sh", GeneratedResult.create(Doc.text("#!/bin/sh\n"), true)));
+
+    Map<String, GeneratedResult<Doc>> cached = cache.get(key);
+    assertThat(cached.keySet()).containsExactly("Client.java", "run.sh");
+    assertThat(cached.get("Client.java").getBody().prettyPrint()).isEqualTo("class Client {}\n");
+    assertThat(cached.get("run.sh").isExecutable()).isTrue();
+
+    new File(tempDir.getRoot(), key).delete();
+    assertThat(cache.get(key)).isNull();
+  }
+
+  private InterfaceOutputCache createCache(ConfigProto config) {
+    return createCache(config, null);
+  }
+
+  private InterfaceOutputCache createCache(
+      ConfigProto config, @Nullable PackagingConfig packagingConfig) {
+    return InterfaceOutputCache.create(
+        tempDir.getRoot(), model, config, null, packagingConfig, ImmutableList.of("JAVA"));
+  }
+
+  private InterfaceOutputCache createCache(Model model) {
+    return InterfaceOutputCache.create(
+        tempDir.getRoot(),
+        model,
+        ConfigProto.getDefaultInstance(),
+        null,
+        null,
+        ImmutableList.of("JAVA"));
+  }
+
+  private static Interface lookup(String name) {
+    return model.getSymbolTable().lookupInterface(name);
+  }
+
+  private static Interface lookup(Model model, String name) {
+    for (ProtoFile file : model.getFiles()) {
+      for (Interface apiInterface : file.getInterfaces()) {
+        if (apiInterface.getFullName().equals(name)) {
+          return apiInterface;
+        }
+      }
+    }
+    throw new IllegalArgumentException("No interface " + name);
+  }
+
+  /**
+   * Returns a model of the test protos plus a file in the package of the services, which they do
+   * not import, declaring a message with the given field.
+   */
+  private static Model createModelWithSibling(String field) {
+    FileDescriptorSet.Builder descriptors = FileDescriptorSet.newBuilder();
+    for (ProtoFile file : model.getFiles()) {
+      descriptors.addFile(file.getProto());
+    }
+    FieldDescriptorProto.Type fieldType =
+        field.startsWith("string")
+            ? FieldDescriptorProto.Type.TYPE_STRING
+            : FieldDescriptorProto.Type.TYPE_INT64;
+    descriptors.addFile(
+        FileDescriptorProto.newBuilder()
+            .setName("sibling.proto")
+            .setPackage("google.cloud.example.v1.foo")
+            .setSyntax("proto3")
+            .addMessageType(
+                DescriptorProto.newBuilder()
+                    .setName("Counter")
+                    .addField(
+                        FieldDescriptorProto.newBuilder()
+                            .setName("name")
+                            .setNumber(1)
+                            .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                            .setType(fieldType))));
+    Model siblingModel =
+        Model.create(
+            descriptors.build(),
+            ImmutableList.of("sibling.proto"),
+            ExperimentsImpl.none(),
+            ExtensionPool.EMPTY,
+            new SimpleDiagCollector());
+    // Set up like CodegenTestUtil.readModel, with the service config of the test model.
+    siblingModel.setConfigSources(ImmutableList.of(model.getServiceConfigSource()));
+    StandardSetup.registerStandardProcessors(siblingModel);
+    StandardSetup.registerStandardConfigAspects(siblingModel);
+    siblingModel.establishStage(Merged.KEY);
+    return siblingModel;
+  }
+}
@@ -20,9 +20,12 @@ import com.google.api.codegen.protoannotations.GapicCodeGeneratorAnnotationsTest
 import com.google.api.tools.framework.model.Model;
 import com.google.api.tools.framework.model.ProtoFile;
 import com.google.api.tools.framework.model.testing.TestDataLocator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.truth.Truth;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.io.File;
+import java.nio.file.Files;
 import java.util.stream.Collectors;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -65,6 +68,48 @@ public class ProtocGapicPluginGeneratorTest {
     Truth.assertThat(response.getFile(0).getContent()).contains("DecrementerServiceClient");
   }
 
+  @Test
+  public void testGeneratorWithGapicYamlParameter() throws Exception {
+    File serviceYaml = tempDir.newFile("multiple_services_v1.yaml");
+    Files.write(
+        serviceYaml.toPath(),
+        ImmutableList.of(
+            "type: google.api.Service",
+            "config_version: 3",
+            "name: multiple-services.googleapis.com",
+            "apis:",
+            "- name: google.cloud.example.v1.foo.IncrementerService",
+            "- name: google.cloud.example.v1.foo.DecrementerService"));
+    String gapicYaml =
+        testDataLocator
+            .getTestDataAsFile("multiple_services_gapic.yaml")
+            .toAbsolutePath()
+            .toString();
+    CodeGeneratorRequest codeGeneratorRequest =
+        CodeGeneratorRequest.newBuilder()
+            .addAllProtoFile(
+                model.getFiles().stream().map(ProtoFile::getProto).collect(Collectors.toList()))
+            .addFileToGenerate("multiple_services.proto")
+            .setParameter(
+                "language=java,service_yaml="
+                    + serviceYaml.getAbsolutePath()
+                    + ",gapic_yaml="
+                    + gapicYaml)
+            .build();
+
+    CodeGeneratorResponse response = ProtocGeneratorMain.generate(codeGeneratorRequest);
+
+    Truth.assertThat(response.getError()).isEmpty();
+    // The Java package comes from the GAPIC config rather than from the proto package.
+    Truth.assertThat(
+            response
+                .getFileList()
+                .stream()
+                .map(CodeGeneratorResponse.File::getName)
+                .collect(Collectors.toList()))
+        .contains("src/main/java/com/google/gcloud/example/DecrementerServiceClient.java");
+  }
+
   @Test
   public void testFailingGenerator() {
     CodeGeneratorRequest codeGeneratorRequest =
@@ -0,0 +1,45 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.gapic;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.common.GeneratedResult;
+import com.google.api.tools.framework.model.SimpleDiagCollector;
+import com.google.api.tools.framework.snippet.Doc;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ProtocGapicWriterTest {
+
+  @Test
+  public void testWritesEachBodyKind() throws Exception {
+    byte[] binary = new byte[] {0, 1, (byte) 0xff};
+    ProtocGapicWriter writer = new ProtocGapicWriter();
+    writer.writeOutputFile("doc.txt", GeneratedResult.create(Doc.text("café"), false));
+    writer.writeOutputFile("string.txt", GeneratedResult.create("plain", false));
+    writer.writeOutputFile("binary.bin", GeneratedResult.create(binary, false));
+    writer.finish(new SimpleDiagCollector());
+
+    CodeGeneratorResponse response = writer.getCodegenResponse();
+    assertThat(response.getFileCount()).isEqualTo(3);
+    assertThat(response.getFile(0).getName()).isEqualTo("doc.txt");
+    assertThat(response.getFile(0).getContentBytes().toString(StandardCharsets.UTF_8))
+        .isEqualTo("café");
+    assertThat(response.getFile(1).getContent()).isEqualTo("plain");
+    assertThat(response.getFile(2).getContentBytes().toByteArray()).isEqualTo(binary);
+  }
+}
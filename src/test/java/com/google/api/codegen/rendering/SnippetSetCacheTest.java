@@ -0,0 +1,50 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.rendering;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.SnippetSetRunner;
+import com.google.api.tools.framework.snippet.SnippetSet;
+import com.google.common.cache.CacheStats;
+import org.junit.Test;
+
+public class SnippetSetCacheTest {
+
+  @Test
+  public void testParsedSnippetSetIsReused() {
+    SnippetSetCache.invalidateAll();
+    CacheStats before = SnippetSetCache.stats();
+
+    SnippetSet first =
+        SnippetSetCache.getSnippetSet(SnippetSetRunner.SNIPPET_RESOURCE_ROOT, "common.snip");
+    SnippetSet second =
+        SnippetSetCache.getSnippetSet(SnippetSetRunner.SNIPPET_RESOURCE_ROOT, "common.snip");
+
+    CacheStats delta = SnippetSetCache.stats().minus(before);
+    assertThat(second).isSameAs(first);
+    assertThat(delta.missCount()).isEqualTo(1);
+    assertThat(delta.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testDistinctFilesAreCachedSeparately() {
+    SnippetSet common =
+        SnippetSetCache.getSnippetSet(SnippetSetRunner.SNIPPET_RESOURCE_ROOT, "common.snip");
+    SnippetSet readme =
+        SnippetSetCache.getSnippetSet(SnippetSetRunner.SNIPPET_RESOURCE_ROOT, "readme.snip");
+    assertThat(readme).isNotSameAs(common);
+  }
+}
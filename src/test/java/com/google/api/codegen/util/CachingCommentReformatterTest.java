@@ -0,0 +1,50 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.util.java.JavaCommentReformatter;
+import com.google.api.codegen.util.py.PythonCommentReformatter;
+import com.google.common.cache.CacheStats;
+import org.junit.Test;
+
+public class CachingCommentReformatterTest {
+
+  private static final String COMMENT = "Returns `a` < `b` for the */ given values.";
+
+  @Test
+  public void testReformattedCommentIsReused() {
+    CachingCommentReformatter.invalidateAll();
+    CacheStats before = CachingCommentReformatter.stats();
+
+    String first = CachingCommentReformatter.of(new JavaCommentReformatter()).reformat(COMMENT);
+    String second = CachingCommentReformatter.of(new JavaCommentReformatter()).reformat(COMMENT);
+
+    CacheStats delta = CachingCommentReformatter.stats().minus(before);
+    assertThat(first).isEqualTo(new JavaCommentReformatter().reformat(COMMENT));
+    assertThat(second).isSameAs(first);
+    assertThat(delta.missCount()).isEqualTo(1);
+    assertThat(delta.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLanguagesAreCachedSeparately() {
+    String java = CachingCommentReformatter.of(new JavaCommentReformatter()).reformat(COMMENT);
+    String python = CachingCommentReformatter.of(new PythonCommentReformatter()).reformat(COMMENT);
+    assertThat(python).isEqualTo(COMMENT);
+    assertThat(java).isNotEqualTo(python);
+  }
+}
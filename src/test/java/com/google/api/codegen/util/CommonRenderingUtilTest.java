@@ -16,6 +16,7 @@ package com.google.api.codegen.util;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.api.tools.framework.snippet.Doc;
 import org.junit.Test;
 
 public class CommonRenderingUtilTest {
@@ -47,4 +48,26 @@ public class CommonRenderingUtilTest {
         .inOrder();
     assertThat(CommonRenderingUtil.getDocLines("")).isEmpty();
   }
+
+  @Test
+  public void testGetDocLinesWithMaxWidth() {
+    assertThat(CommonRenderingUtil.getDocLines("  aaa bbb(ccc) \r\n\n ddd[eee]fff  ", 8))
+        .containsExactly("aaa bbb", "(ccc)", "ddd", "[eee]fff")
+        .inOrder();
+    // A word longer than the width is broken at the next break character after it.
+    assertThat(CommonRenderingUtil.getDocLines("aaaaaaaaaa bb", 5))
+        .containsExactly("aaaaaaaaaa", "bb")
+        .inOrder();
+    assertThat(CommonRenderingUtil.getDocLines(" \n ", 5)).isEmpty();
+  }
+
+  @Test
+  public void testPretty() {
+    assertThat(CommonRenderingUtil.pretty(Doc.text("a\n\nb\n\n")))
+        .containsExactly("a", "", "b")
+        .inOrder();
+    assertThat(CommonRenderingUtil.pretty(Doc.text("a"))).containsExactly("a");
+    assertThat(CommonRenderingUtil.pretty(Doc.text(""))).containsExactly("");
+    assertThat(CommonRenderingUtil.pretty(Doc.text("\n\n"))).isEmpty();
+  }
 }
@@ -0,0 +1,61 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+public class ForkableMapTest {
+
+  @Test
+  public void testForksAreIndependent() {
+    ForkableMap<String, Integer> base = new ForkableMap<>();
+    base.put("a", 1);
+    base.put("b", 2);
+    ForkableMap<String, Integer> fork = base.fork();
+
+    assertThat(fork.put("b", 3)).isEqualTo(2);
+    fork.put("c", 4);
+    base.put("d", 5);
+
+    assertThat(base).containsExactly("a", 1, "b", 2, "d", 5);
+    assertThat(fork).containsExactly("a", 1, "b", 3, "c", 4);
+    assertThat(fork.size()).isEqualTo(3);
+    assertThat(fork.containsKey("d")).isFalse();
+    assertThat(fork.get("b")).isEqualTo(3);
+  }
+
+  @Test
+  public void testDeepForks() {
+    ForkableMap<String, Integer> map = new ForkableMap<>();
+    ImmutableMap.Builder<String, Integer> expected = ImmutableMap.builder();
+    for (int i = 0; i < 50; ++i) {
+      map.put("key" + i, i);
+      expected.put("key" + i, i);
+      map = map.fork();
+    }
+    assertThat(map).containsExactlyEntriesIn(expected.build());
+    assertThat(map.size()).isEqualTo(50);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testRemoveUnsupported() {
+    ForkableMap<String, Integer> map = new ForkableMap<>();
+    map.put("a", 1);
+    map.remove("a");
+  }
+}
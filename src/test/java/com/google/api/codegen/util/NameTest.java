@@ -157,4 +157,46 @@ public class NameTest {
     assertThat(name.toLowerCamel()).isEqualTo("iamHTTPXML");
     assertThat(name.toUpperCamel()).isEqualTo("IAMHTTPXML");
   }
+
+  @Test
+  public void testInterning() {
+    Name name = Name.from("factory", "decorator");
+    assertThat(Name.from("factory", "decorator")).isSameAs(name);
+    assertThat(Name.from("factory").join("decorator")).isSameAs(name);
+    assertThat(name.join(Name.from())).isSameAs(name);
+
+    // Equal names which render differently are distinct instances.
+    Name acronym = Name.upperCamelKeepUpperAcronyms("IAM");
+    assertThat(acronym).isEqualTo(Name.upperCamel("IAM"));
+    assertThat(acronym.hashCode()).isEqualTo(Name.upperCamel("IAM").hashCode());
+    assertThat(acronym).isNotSameAs(Name.upperCamel("IAM"));
+    assertThat(acronym.toUpperCamel()).isEqualTo("IAM");
+    assertThat(Name.upperCamel("IAM").toUpperCamel()).isEqualTo("Iam");
+  }
+
+  @Test
+  public void testAnyLower() {
+    assertThat(Name.anyLower("shelf_id", "", "page_size").toUpperCamel())
+        .isEqualTo("ShelfIdPageSize");
+    assertThat(Name.anyLower("shelfId", "pageSize").toLowerUnderscore())
+        .isEqualTo("shelf_id_page_size");
+    assertThat(Name.anyLower("httpXMLRequest").toLowerUnderscore()).isEqualTo("http_xml_request");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAnyLowerMixedFormats() {
+    Name.anyLower("shelf_id", "pageSize");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAnyLowerAmbiguousAcronym() {
+    Name.anyLower("someAPIAMName");
+  }
+
+  @Test
+  public void upperCamelRepeatedAcronyms() {
+    Name name = Name.upperCamelKeepUpperAcronyms("HTTPToHTTPSQLXML");
+    assertThat(name.toLowerUnderscore()).isEqualTo("http_to_http_sql_xml");
+    assertThat(name.toUpperCamel()).isEqualTo("HTTPToHTTPSQLXML");
+  }
 }
@@ -75,6 +75,11 @@ public class TypeNameTest {
       return new MockTypeTable();
     }
 
+    @Override
+    public TypeTable fork() {
+      return null;
+    }
+
     @Override
     public String getAndSaveNicknameFor(String fullName) {
       return null;
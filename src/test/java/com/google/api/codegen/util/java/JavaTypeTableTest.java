@@ -17,6 +17,7 @@ package com.google.api.codegen.util.java;
 import static com.google.common.truth.Truth.assertThat;
 
 import com.google.api.codegen.util.TypeAlias;
+import com.google.api.codegen.util.TypeTable;
 import java.util.Map;
 import org.junit.Test;
 
@@ -38,4 +39,36 @@ public class JavaTypeTableTest {
     assertThat(imports.size()).isEqualTo(1);
     assertThat(imports.get(implicitPackage + ".qux.Corge").getNickname()).isEqualTo("Corge");
   }
+
+  @Test
+  public void testJavaLangClash() {
+    JavaTypeTable typeTable = new JavaTypeTable("foo.bar");
+    assertThat(typeTable.getAndSaveNicknameFor("foo.baz.Override")).isEqualTo("foo.baz.Override");
+    assertThat(typeTable.getAndSaveNicknameFor("foo.baz.Record")).isEqualTo("foo.baz.Record");
+    assertThat(typeTable.getAndSaveNicknameFor("java.lang.String")).isEqualTo("String");
+    // Only public types can clash.
+    assertThat(typeTable.getAndSaveNicknameFor("foo.baz.Shutdown")).isEqualTo("Shutdown");
+    assertThat(typeTable.getAndSaveNicknameFor("foo.baz.Book")).isEqualTo("Book");
+
+    JavaTypeTable ignoringTypeTable =
+        new JavaTypeTable("foo.bar", JavaTypeTable.JavaLangResolution.IGNORE_JAVA_LANG_CLASH);
+    assertThat(ignoringTypeTable.getAndSaveNicknameFor("foo.baz.Override")).isEqualTo("Override");
+  }
+
+  @Test
+  public void testFork() {
+    JavaTypeTable base = new JavaTypeTable("foo.bar");
+    base.getAndSaveNicknameFor("java.util.List");
+    TypeTable fork = base.fork();
+    assertThat(fork.getImports()).containsKey("java.util.List");
+
+    // The fork resolves clashes against the imports it inherited ...
+    assertThat(fork.getAndSaveNicknameFor("foo.baz.List")).isEqualTo("foo.baz.List");
+    assertThat(fork.getAndSaveNicknameFor("java.util.Map")).isEqualTo("Map");
+    // ... but neither table sees the imports the other saves afterwards.
+    assertThat(base.getAndSaveNicknameFor("foo.baz.Set")).isEqualTo("Set");
+    assertThat(base.getImports().keySet()).containsExactly("java.util.List", "foo.baz.Set");
+    assertThat(fork.getImports().keySet()).containsExactly("java.util.List", "java.util.Map");
+    assertThat(fork.getAndSaveNicknameFor("java.util.Set")).isEqualTo("Set");
+  }
 }
@@ -0,0 +1,53 @@
+/* Copyright 2019 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.api.codegen.util.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.api.codegen.config.ProtoTypeRef;
+import com.google.api.codegen.config.TypeModel;
+import com.google.api.codegen.util.Name;
+import com.google.api.tools.framework.model.TypeRef;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type;
+import org.junit.Test;
+
+public class TestValueGeneratorTest {
+
+  private static final TypeModel STRING_TYPE = ProtoTypeRef.create(TypeRef.of(Type.TYPE_STRING));
+  private static final TypeModel BOOL_TYPE = ProtoTypeRef.create(TypeRef.of(Type.TYPE_BOOL));
+
+  // Produces the same value for every identifier that was not derived from a collision.
+  private static final ValueProducer COLLIDING_PRODUCER =
+      (type, identifier) ->
+          identifier.toLowerUnderscore().endsWith("_1") ? identifier.toLowerUnderscore() : "same";
+
+  @Test
+  public void testUniqueValues() {
+    TestValueGenerator generator = new TestValueGenerator(COLLIDING_PRODUCER);
+    assertThat(generator.getAndStoreValue(STRING_TYPE, Name.from("foo"))).isEqualTo("same");
+    assertThat(generator.getAndStoreValue(STRING_TYPE, Name.from("foo"))).isEqualTo("same");
+    assertThat(generator.getAndStoreValue(STRING_TYPE, Name.from("bar"))).isEqualTo("bar_1");
+    // A colliding identifier is stored under its derived name, so asking for it again derives
+    // another value.
+    assertThat(generator.getAndStoreValue(STRING_TYPE, Name.from("bar"))).isEqualTo("bar_1_1");
+  }
+
+  @Test
+  public void testBoolValuesMayRepeat() {
+    TestValueGenerator generator = new TestValueGenerator(COLLIDING_PRODUCER);
+    assertThat(generator.getAndStoreValue(BOOL_TYPE, Name.from("foo"))).isEqualTo("same");
+    assertThat(generator.getAndStoreValue(BOOL_TYPE, Name.from("bar"))).isEqualTo("same");
+  }
+}